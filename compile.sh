@@ -54,4 +54,36 @@ if [ -d "movieManagement/test/payment" ]; then
     fi
 fi
 
+# Compile persistence tests
+if [ -d "movieManagement/test/persistence" ]; then
+    PERSISTENCE_TEST_FILES=$(find movieManagement/test/persistence -name "*.java" | tr '\n' ' ')
+    if [ -n "$PERSISTENCE_TEST_FILES" ]; then
+        javac -cp "$CLASSPATH:build/classes" -d build/test-classes $PERSISTENCE_TEST_FILES
+    fi
+fi
+
+# Compile id tests
+if [ -d "movieManagement/test/ids" ]; then
+    IDS_TEST_FILES=$(find movieManagement/test/ids -name "*.java" | tr '\n' ' ')
+    if [ -n "$IDS_TEST_FILES" ]; then
+        javac -cp "$CLASSPATH:build/classes" -d build/test-classes $IDS_TEST_FILES
+    fi
+fi
+
+# Compile data tests
+if [ -d "movieManagement/test/data" ]; then
+    DATA_TEST_FILES=$(find movieManagement/test/data -name "*.java" | tr '\n' ' ')
+    if [ -n "$DATA_TEST_FILES" ]; then
+        javac -cp "$CLASSPATH:build/classes" -d build/test-classes $DATA_TEST_FILES
+    fi
+fi
+
+# Compile search tests
+if [ -d "movieManagement/test/search" ]; then
+    SEARCH_TEST_FILES=$(find movieManagement/test/search -name "*.java" | tr '\n' ' ')
+    if [ -n "$SEARCH_TEST_FILES" ]; then
+        javac -cp "$CLASSPATH:build/classes" -d build/test-classes $SEARCH_TEST_FILES
+    fi
+fi
+
 echo "Compilation complete!"
@@ -0,0 +1,338 @@
+package movieManagement.data;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+
+// Streams a CSV/TSV catalog into a MovieCatalog. The calling thread parses rows into batches; a pool of workers
+// turns each batch into Movie objects and adds it to the catalog. The queue between them is bounded, so a slow
+// catalog holds back the parser instead of letting parsed rows pile up in memory.
+//
+// A header row is recognised when it names the id and title columns, IMDB's names (tconst, primaryTitle,
+// startYear) included. Without one, columns are read in PredefinedMoviesList order: imdbId, title, director,
+// studio, releaseDate, description, price, rentalStock, saleStock. Empty fields and IMDB's \N fall back to
+// defaults.
+public class CatalogImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    public static final int DEFAULT_PRICE = 10;
+    public static final long DEFAULT_PROGRESS_INTERVAL_ROWS = 100_000;
+
+    private static final int IMDB_ID = 0;
+    private static final int TITLE = 1;
+    private static final int DIRECTOR = 2;
+    private static final int STUDIO = 3;
+    private static final int RELEASE_DATE = 4;
+    private static final int DESCRIPTION = 5;
+    private static final int PRICE = 6;
+    private static final int RENTAL_STOCK = 7;
+    private static final int SALE_STOCK = 8;
+    private static final int COLUMN_COUNT = 9;
+    private static final int MAX_HEADER_COLUMNS = 256;
+    private static final String UNKNOWN = "Unknown";
+    private static final String[][] END_OF_ROWS = new String[0][];
+    private static final Map<String, Integer> COLUMN_NAMES = new HashMap<String, Integer>();
+
+    static {
+        for (String name : new String[] {"imdbid", "imdb_id", "tconst", "id"})
+            COLUMN_NAMES.put(name, IMDB_ID);
+        for (String name : new String[] {"title", "primarytitle"})
+            COLUMN_NAMES.put(name, TITLE);
+        for (String name : new String[] {"director", "directors"})
+            COLUMN_NAMES.put(name, DIRECTOR);
+        COLUMN_NAMES.put("studio", STUDIO);
+        for (String name : new String[] {"releasedate", "release_date", "startyear", "year"})
+            COLUMN_NAMES.put(name, RELEASE_DATE);
+        for (String name : new String[] {"description", "moviedescription", "plot", "overview"})
+            COLUMN_NAMES.put(name, DESCRIPTION);
+        COLUMN_NAMES.put("price", PRICE);
+        COLUMN_NAMES.put("rentalstock", RENTAL_STOCK);
+        COLUMN_NAMES.put("salestock", SALE_STOCK);
+    }
+
+    private final char delimiter;
+    private final boolean quoting;
+    private final int workers;
+    private final int batchSize;
+    private final long progressIntervalRows;
+
+    public CatalogImporter(char delimiter, boolean quoting) {
+        this(delimiter, quoting, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE, DEFAULT_PROGRESS_INTERVAL_ROWS);
+    }
+
+    public CatalogImporter(char delimiter, boolean quoting, int workers, int batchSize, long progressIntervalRows) {
+        if (workers <= 0 || batchSize <= 0 || progressIntervalRows <= 0) {
+            throw new IllegalArgumentException("Workers, batch size and progress interval must be positive.");
+        }
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.progressIntervalRows = progressIntervalRows;
+    }
+
+    // .tsv files are tab separated without quoting, as IMDB publishes them; anything else is read as CSV
+    public static CatalogImporter forFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".tsv") || name.endsWith(".tsv.txt") ? new CatalogImporter('\t', false) : new CatalogImporter(',', true);
+    }
+
+    public ImportProgress importFile(Path path, MovieCatalog catalog, Consumer<ImportProgress> progressListener) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return importFrom(reader, catalog, progressListener);
+        }
+    }
+
+    // The listener is called from the calling thread every progressIntervalRows rows and once at the end. A failure
+    // outside a row, from the catalog or one of its listeners, stops the import and is rethrown here.
+    public ImportProgress importFrom(Reader reader, MovieCatalog catalog, Consumer<ImportProgress> progressListener) throws IOException {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null.");
+        }
+        ImportProgress progress = new ImportProgress();
+        BlockingQueue<String[][]> queue = new ArrayBlockingQueue<String[][]>(workers * 2);
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> applyBatches(queue, catalog, progress, failure));
+        }
+        try {
+            readRows(new DelimitedRowReader(reader, delimiter, quoting), queue, progress, progressListener, failure);
+        } finally {
+            stopWorkers(queue, pool);
+        }
+        Throwable failed = failure.get();
+        if (failed instanceof Error) {
+            throw (Error) failed;
+        }
+        if (failed != null) {
+            throw (RuntimeException) failed;
+        }
+        progress.finish();
+        if (progressListener != null) {
+            progressListener.accept(progress);
+        }
+        return progress;
+    }
+
+    private void readRows(DelimitedRowReader rows, BlockingQueue<String[][]> queue, ImportProgress progress,
+                          Consumer<ImportProgress> progressListener, AtomicReference<Throwable> failure) throws IOException {
+        String[] fields = new String[MAX_HEADER_COLUMNS];
+        int count = rows.readRow(fields);
+        if (count < 0) {
+            return;
+        }
+        int[] sourceColumns = headerColumns(fields, Math.min(count, fields.length));
+        boolean header = sourceColumns != null;
+        if (!header) {
+            sourceColumns = new int[COLUMN_COUNT];
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                sourceColumns[column] = column;
+            }
+        }
+        // From here on only the mapped columns are turned into Strings
+        int width = 0;
+        for (int source : sourceColumns) {
+            width = Math.max(width, source + 1);
+        }
+        boolean[] wanted = new boolean[width];
+        for (int source : sourceColumns) {
+            if (source >= 0) {
+                wanted[source] = true;
+            }
+        }
+
+        String[][] batch = new String[batchSize][];
+        int batched = 0;
+        long nextReport = progressIntervalRows;
+        long rowsRead = 0;
+        if (!header) {
+            batch[batched++] = toRow(fields, count, sourceColumns);
+            rowsRead++;
+        }
+        fields = new String[width];
+        while ((count = rows.readRow(fields, wanted)) >= 0) {
+            if (count == 1 && (fields.length == 0 || fields[0] == null || fields[0].isEmpty())) {
+                continue;
+            }
+            if (batched == batchSize) {
+                if (failure.get() != null) {
+                    return;
+                }
+                put(queue, batch);
+                progress.rowsRead(batched);
+                batch = new String[batchSize][];
+                batched = 0;
+                if (progressListener != null && rowsRead >= nextReport) {
+                    progressListener.accept(progress);
+                    nextReport += progressIntervalRows;
+                }
+            }
+            batch[batched++] = toRow(fields, count, sourceColumns);
+            rowsRead++;
+        }
+        if (batched > 0) {
+            put(queue, Arrays.copyOf(batch, batched));
+            progress.rowsRead(batched);
+        }
+    }
+
+    // Returns the source column of each catalog column, or null when the row is data rather than a header.
+    // A header has to name both the id and the title column, so a data row holding a word like "Studio" is not
+    // mistaken for one.
+    private static int[] headerColumns(String[] fields, int count) {
+        int[] sourceColumns = new int[COLUMN_COUNT];
+        Arrays.fill(sourceColumns, -1);
+        for (int source = 0; source < count; source++) {
+            if (fields[source] == null) {
+                continue;
+            }
+            Integer column = COLUMN_NAMES.get(fields[source].trim().toLowerCase(Locale.ROOT));
+            if (column != null && sourceColumns[column] < 0) {
+                sourceColumns[column] = source;
+            }
+        }
+        return sourceColumns[IMDB_ID] >= 0 && sourceColumns[TITLE] >= 0 ? sourceColumns : null;
+    }
+
+    private static String[] toRow(String[] fields, int count, int[] sourceColumns) {
+        String[] row = new String[COLUMN_COUNT];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            int source = sourceColumns[column];
+            if (source >= 0 && source < count) {
+                row[column] = fields[source];
+            }
+        }
+        return row;
+    }
+
+    private static void put(BlockingQueue<String[][]> queue, String[][] batch) throws InterruptedIOException {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Catalog import was interrupted.");
+        }
+    }
+
+    private void stopWorkers(BlockingQueue<String[][]> queue, ExecutorService pool) throws InterruptedIOException {
+        try {
+            for (int i = 0; i < workers; i++) {
+                queue.put(END_OF_ROWS);
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Catalog import was interrupted.");
+        }
+    }
+
+    // A bad row is counted and skipped; it never stops the import. Any other failure is kept for importFrom, and
+    // from then on every worker only drains the queue, so the reader never blocks on a queue nobody takes from.
+    private static void applyBatches(BlockingQueue<String[][]> queue, MovieCatalog catalog, ImportProgress progress,
+                                     AtomicReference<Throwable> failure) {
+        while (true) {
+            String[][] batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch == END_OF_ROWS) {
+                return;
+            }
+            if (failure.get() != null) {
+                continue;
+            }
+            try {
+                applyBatch(batch, catalog, progress);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private static void applyBatch(String[][] batch, MovieCatalog catalog, ImportProgress progress) {
+        List<Movie> movies = new ArrayList<Movie>(batch.length);
+        int rejected = 0;
+        for (String[] row : batch) {
+            try {
+                movies.add(toMovie(row));
+            } catch (RuntimeException e) {
+                rejected++;
+            }
+        }
+        int added = catalog.addAll(movies);
+        progress.batchApplied(added, movies.size() - added, rejected);
+    }
+
+    private static Movie toMovie(String[] row) {
+        String imdbId = value(row[IMDB_ID]);
+        String title = value(row[TITLE]);
+        if (imdbId == null || title == null) {
+            throw new IllegalArgumentException("Row has no IMDB ID or title.");
+        }
+        return new Movie(imdbId, title, valueOr(row[DIRECTOR], UNKNOWN), valueOr(row[STUDIO], UNKNOWN),
+                valueOr(row[RELEASE_DATE], ""), valueOr(row[DESCRIPTION], ""), parseCount(row[PRICE], DEFAULT_PRICE),
+                parseCount(row[RENTAL_STOCK], Movie.DEFAULT_RENTAL_STOCK), parseCount(row[SALE_STOCK], Movie.DEFAULT_SALE_STOCK));
+    }
+
+    private static String value(String field) {
+        if (field == null) {
+            return null;
+        }
+        String trimmed = field.trim();
+        return trimmed.isEmpty() || trimmed.equals("\\N") ? null : trimmed;
+    }
+
+    private static String valueOr(String field, String fallback) {
+        String value = value(field);
+        return value != null ? value : fallback;
+    }
+
+    // Digits only, so a stray sign or decimal point rejects the row instead of being half-read
+    private static int parseCount(String field, int fallback) {
+        String value = value(field);
+        if (value == null) {
+            return fallback;
+        }
+        if (value.length() > 9) {
+            throw new NumberFormatException("Number is too large: " + value);
+        }
+        int result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not a whole number: " + value);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
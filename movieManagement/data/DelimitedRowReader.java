@@ -0,0 +1,193 @@
+package movieManagement.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Streams rows out of CSV/TSV text through one reusable char buffer. Fields are cut straight out of the buffer,
+// with no regex or split, and columns the caller does not want are skipped without creating a String.
+public class DelimitedRowReader implements Closeable {
+    public static final int DEFAULT_BUFFER_CHARS = 64 * 1024;
+
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final boolean quoting;
+    private final char[] buffer;
+    // Holds a field that runs past the end of the buffer, or a quoted field being unescaped
+    private final StringBuilder pending;
+    private int position;
+    private int limit;
+    private int terminator;
+    private long rowCount;
+
+    public DelimitedRowReader(Reader reader, char delimiter, boolean quoting) {
+        this(reader, delimiter, quoting, DEFAULT_BUFFER_CHARS);
+    }
+
+    public DelimitedRowReader(Reader reader, char delimiter, boolean quoting, int bufferChars) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null.");
+        }
+        if (delimiter == '\n' || delimiter == '\r' || delimiter == '"') {
+            throw new IllegalArgumentException("Delimiter cannot be a line break or a quote.");
+        }
+        if (bufferChars <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+        this.buffer = new char[bufferChars];
+        this.pending = new StringBuilder();
+    }
+
+    public static DelimitedRowReader csv(Reader reader) {
+        return new DelimitedRowReader(reader, ',', true);
+    }
+
+    // IMDB dumps are tab separated and use quotes literally, so TSV has no quoting
+    public static DelimitedRowReader tsv(Reader reader) {
+        return new DelimitedRowReader(reader, '\t', false);
+    }
+
+    public int readRow(String[] fields) throws IOException {
+        return readRow(fields, null);
+    }
+
+    // Fills fields with the row's columns and returns how many the row had, or -1 at the end of input.
+    // Columns past fields.length, or whose wanted flag is false, are read but left as null.
+    public int readRow(String[] fields, boolean[] wanted) throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        int count = 0;
+        do {
+            boolean keep = count < fields.length && (wanted == null || (count < wanted.length && wanted[count]));
+            String field = readField(keep);
+            if (count < fields.length) {
+                fields[count] = field;
+            }
+            count++;
+        } while (terminator == delimiter);
+        rowCount++;
+        return count;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private String readField(boolean keep) throws IOException {
+        if (position >= limit && !fill()) {
+            terminator = END_OF_INPUT;
+            return keep ? "" : null;
+        }
+        if (quoting && buffer[position] == '"') {
+            position++;
+            return readQuoted(keep);
+        }
+        pending.setLength(0);
+        boolean spilled = false;
+        int start = position;
+        while (true) {
+            if (position >= limit) {
+                if (keep) {
+                    pending.append(buffer, start, position - start);
+                }
+                spilled = true;
+                if (!fill()) {
+                    terminator = END_OF_INPUT;
+                    return keep ? stripCarriageReturn(pending) : null;
+                }
+                start = 0;
+            }
+            char c = buffer[position];
+            if (c == delimiter || c == '\n') {
+                int end = position;
+                position++;
+                terminator = c;
+                if (!keep) {
+                    return null;
+                }
+                if (!spilled) {
+                    if (c == '\n' && end > start && buffer[end - 1] == '\r') {
+                        end--;
+                    }
+                    return new String(buffer, start, end - start);
+                }
+                pending.append(buffer, start, end - start);
+                return c == '\n' ? stripCarriageReturn(pending) : pending.toString();
+            }
+            position++;
+        }
+    }
+
+    // A doubled quote inside a quoted field is one literal quote; anything between the closing quote and the
+    // next delimiter is dropped
+    private String readQuoted(boolean keep) throws IOException {
+        pending.setLength(0);
+        while (true) {
+            if (position >= limit && !fill()) {
+                terminator = END_OF_INPUT;
+                return keep ? pending.toString() : null;
+            }
+            char c = buffer[position++];
+            if (c != '"') {
+                if (keep) {
+                    pending.append(c);
+                }
+                continue;
+            }
+            if (position >= limit && !fill()) {
+                terminator = END_OF_INPUT;
+                return keep ? pending.toString() : null;
+            }
+            if (buffer[position] != '"') {
+                break;
+            }
+            if (keep) {
+                pending.append('"');
+            }
+            position++;
+        }
+        while (true) {
+            if (position >= limit && !fill()) {
+                terminator = END_OF_INPUT;
+                break;
+            }
+            char c = buffer[position++];
+            if (c == delimiter || c == '\n') {
+                terminator = c;
+                break;
+            }
+        }
+        return keep ? pending.toString() : null;
+    }
+
+    private static String stripCarriageReturn(StringBuilder field) {
+        int length = field.length();
+        if (length > 0 && field.charAt(length - 1) == '\r') {
+            field.setLength(length - 1);
+        }
+        return field.toString();
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,79 @@
+package movieManagement.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live counters for one catalog import. The reader thread and the workers update it while listeners read it.
+public class ImportProgress {
+    private final long startNanos;
+    private final AtomicLong rowsRead;
+    private final AtomicLong moviesAdded;
+    private final AtomicLong duplicates;
+    private final AtomicLong rejected;
+    private final AtomicLong batches;
+    private volatile long finishNanos;
+
+    ImportProgress() {
+        this.startNanos = System.nanoTime();
+        this.rowsRead = new AtomicLong();
+        this.moviesAdded = new AtomicLong();
+        this.duplicates = new AtomicLong();
+        this.rejected = new AtomicLong();
+        this.batches = new AtomicLong();
+    }
+
+    void rowsRead(long count) {
+        rowsRead.addAndGet(count);
+    }
+
+    void batchApplied(int added, int duplicateCount, int rejectedCount) {
+        moviesAdded.addAndGet(added);
+        duplicates.addAndGet(duplicateCount);
+        rejected.addAndGet(rejectedCount);
+        batches.incrementAndGet();
+    }
+
+    void finish() {
+        finishNanos = System.nanoTime();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getMoviesAdded() {
+        return moviesAdded.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public boolean isFinished() {
+        return finishNanos != 0;
+    }
+
+    public long getElapsedMillis() {
+        long end = finishNanos != 0 ? finishNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        long end = finishNanos != 0 ? finishNanos : System.nanoTime();
+        long elapsed = end - startNanos;
+        return elapsed > 0 ? rowsRead.get() * 1_000_000_000.0 / elapsed : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows read, %d movies added, %d duplicates, %d rejected in %d ms (%.0f rows/sec)",
+                getRowsRead(), getMoviesAdded(), getDuplicates(), getRejected(), getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -1,26 +1,52 @@
 package movieManagement.src;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.Scanner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import movieManagement.src.movie.*;
 import movieManagement.src.users.*;
+import movieManagement.src.authentication.AuthManager;
 import movieManagement.src.authentication.AuthService;
+import movieManagement.src.authentication.AuthSession;
+import movieManagement.src.authentication.RegistrationListener;
 import movieManagement.src.exceptions.*;
 import movieManagement.src.payment.*;
+import movieManagement.src.persistence.Checkpointer;
+import movieManagement.src.persistence.EventJournal;
+import movieManagement.src.persistence.JournalEvent;
+import movieManagement.src.search.AutocompleteIndex;
+import movieManagement.src.search.Completion;
+import movieManagement.src.search.Leaderboards;
+import movieManagement.src.search.MovieSearchIndex;
+import movieManagement.src.search.SearchResult;
+import movieManagement.data.CatalogImporter;
+import movieManagement.data.ImportProgress;
 import movieManagement.data.PredefinedMoviesList;
 import movieManagement.src.users.Membership;
 
 public class Main {
-    private static List<Movie> movies = new ArrayList<>();
+    private static MovieCatalog movies = new MovieCatalog();
     private static List<PaymentTransaction> transactions = new ArrayList<>();
     private static Scanner scanner = new Scanner(System.in);
     private static User currentUser = null;
+    private static UUID currentSession = null;
     private static AuthService authService = AuthService.getInstance();
+    private static EventJournal journal = null;
+    private static Checkpointer checkpointer = null;
+    private static MovieSearchIndex searchIndex = new MovieSearchIndex();
+    private static AutocompleteIndex autocomplete = new AutocompleteIndex();
+    private static Leaderboards leaderboards = new Leaderboards();
 
     public static void main(String[] args) {
         System.out.println("========================================");
@@ -28,11 +54,19 @@ public class Main {
         System.out.println("========================================");
         System.out.println();
         
-        // Load predefined movies from data file
-        movies.addAll(PredefinedMoviesList.loadMovies());
-        if (!movies.isEmpty()) {
-            System.out.println("Loaded " + movies.size() + " movies from catalog.");
-        }
+        // Expire idle and stale sessions in the background
+        AuthManager.getInstance().startSessionReaper();
+        
+        openCopyStore();
+        openReviewTextStore();
+
+        // Indexed as movies arrive, so search covers imported and restored titles too
+        searchIndex.attach(movies);
+        autocomplete.attach(movies);
+        loadCatalog();
+        openJournal();
+        // Attached after recovery, so replayed history is not counted as this week's activity
+        leaderboards.attach(movies);
 
         boolean running = true;
         while (running) {
@@ -41,6 +75,13 @@ public class Main {
             } else {
                 displayMainMenu();
                 int choice = getIntInput("Enter your choice: ");
+                // Every action keeps the session alive; one that went idle too long has to sign in again
+                if (choice != 0 && choice != 15 && authService.touchSession(currentSession) == null) {
+                    System.out.println("\n⚠ Your session has expired. Please sign in again.");
+                    currentUser = null;
+                    currentSession = null;
+                    continue;
+                }
 
                 switch (choice) {
                     case 1:
@@ -88,6 +129,12 @@ public class Main {
                     case 15:
                         signOut();
                         break;
+                    case 16:
+                        browseByReleaseDate();
+                        break;
+                    case 17:
+                        viewLeaderboards();
+                        break;
                     case 0:
                         System.out.println("\nThank you for using Movie Management System!");
                         running = false;
@@ -98,6 +145,147 @@ public class Main {
             }
         }
         scanner.close();
+        closeJournal();
+        closeCopyStore();
+    }
+
+    // Imports the catalog file named by -DmovieManagement.catalog, falling back to the predefined movies
+    private static void loadCatalog() {
+        String location = System.getProperty("movieManagement.catalog");
+        if (location != null) {
+            Path catalogPath = Paths.get(location);
+            try {
+                ImportProgress progress = CatalogImporter.forFile(catalogPath).importFile(catalogPath, movies, update -> {
+                    if (!update.isFinished()) {
+                        System.out.println("Importing catalog: " + update);
+                    }
+                });
+                System.out.println("Imported catalog " + catalogPath + ": " + progress);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("⚠ Could not import catalog " + catalogPath + ": " + e.getMessage());
+            }
+        }
+        if (movies.isEmpty()) {
+            movies.addAll(PredefinedMoviesList.loadMovies());
+        }
+        if (!movies.isEmpty()) {
+            System.out.println("Loaded " + movies.size() + " movies from catalog.");
+        }
+    }
+
+    // Opt-in: keeps copy state in a memory-mapped file instead of on the heap. The journal stays the source of
+    // truth and rebuilds every copy on start, so the store file is recreated rather than reused.
+    private static void openCopyStore() {
+        String location = System.getProperty("movieManagement.copyStore");
+        if (location == null) {
+            return;
+        }
+        Path storePath = Paths.get(location);
+        try {
+            Files.deleteIfExists(storePath);
+            Movie.setDefaultCopyStore(MappedCopyStore.open(storePath));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠ Could not open copy store " + storePath + ": " + e.getMessage());
+            System.out.println("Copies will be kept in memory.");
+        }
+    }
+
+    // Opt-in: keeps long review comments compressed off-heap. Opened before the journal replays, so restored
+    // reviews are stored the same way as new ones.
+    private static void openReviewTextStore() {
+        if (Boolean.getBoolean("movieManagement.compressReviews")) {
+            Review.setDefaultTextStore(new ReviewTextStore());
+        }
+    }
+
+    private static void closeCopyStore() {
+        MappedCopyStore store = Movie.getDefaultCopyStore();
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Could not close copy store: " + e.getMessage());
+        }
+    }
+
+    // Restores the last snapshot and the journal tail on top of the loaded catalog; without a journal the
+    // system still runs, it just forgets on exit
+    private static void openJournal() {
+        Path journalPath = Paths.get(System.getProperty("movieManagement.journal", "movieManagement.journal"));
+        Path snapshotPath = Paths.get(System.getProperty("movieManagement.snapshot", "movieManagement.snapshot"));
+        checkpointer = new Checkpointer(snapshotPath, journalPath, movies.getAllMovies());
+        try {
+            journal = checkpointer.recover(movies, authService, transactions);
+            // Registrations alone or in a batch are journaled as they commit; restored customers are not announced
+            authService.addRegistrationListener(new RegistrationListener() {
+                @Override
+                public void customerRegistered(Customer customer) {
+                    record(() -> JournalEvent.customerRegistered(customer));
+                }
+
+                @Override
+                public void customersRegistered(List<Customer> customers) {
+                    recordRegistrations(customers);
+                }
+            });
+            if (checkpointer.getLastCheckpointSequence() > 0 || journal.getReplayedCount() > 0) {
+                System.out.println("Restored saved state (" + journal.getReplayedCount() + " events since last snapshot).");
+            }
+            checkpointer.start(Checkpointer.DEFAULT_INTERVAL_MILLIS);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠ Could not open journal " + journalPath + ": " + e.getMessage());
+            System.out.println("Changes made in this session will not be saved.");
+        }
+    }
+
+    private static void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        checkpointer.stop();
+        try {
+            checkpointer.checkpoint();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠ Could not save a final snapshot: " + e.getMessage());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Could not close journal: " + e.getMessage());
+        }
+    }
+
+    // The event is built here too, so one with a missing field is reported like any other failed save
+    private static void record(Supplier<JournalEvent> event) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(event.get());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println("⚠ Could not save change to journal: " + e.getMessage());
+        }
+    }
+
+    // Queues the whole batch before waiting, so it shares group commits instead of paying one fsync per customer.
+    // The writer completes in order and a failure sticks, so the last event being durable covers the rest.
+    private static void recordRegistrations(List<Customer> customers) {
+        if (journal == null || customers.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture<Long> last = null;
+            for (Customer customer : customers) {
+                last = journal.appendAsync(JournalEvent.customerRegistered(customer));
+            }
+            last.join();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println("⚠ Could not save registrations to journal: " + e.getMessage());
+        } catch (CompletionException e) {
+            System.out.println("⚠ Could not save registrations to journal: " + e.getCause().getMessage());
+        }
     }
 
     private static boolean handleAuthentication() {
@@ -129,8 +317,10 @@ public class Main {
         String password = getStringInput("Enter password: ");
         
         try {
-            User user = authService.signIn(username, password);
+            AuthSession session = authService.startSession(username, password);
+            User user = session.getUser();
             currentUser = user;
+            currentSession = session.getSessionToken();
             if (user instanceof Admin) {
                 System.out.println("\n✓ Successfully signed in as admin: " + currentUser.getUsername());
             } else {
@@ -248,27 +438,10 @@ public class Main {
             System.out.println("Total reviews: " + reviews.size());
             System.out.println();
             
-            // Find which movie each review belongs to by searching through all movies
             int reviewNum = 1;
             for (Review review : reviews) {
-                // Find the movie this review belongs to
-                String movieTitle = "Unknown Movie";
-                for (Movie movie : movies) {
-                    // Check if this movie has this review by comparing comment and rating
-                    List<Review> movieReviews = movie.getAllReviews();
-                    if (movieReviews != null) {
-                        for (Review movieReview : movieReviews) {
-                            if (movieReview.getComments().equals(review.getComments()) && 
-                                movieReview.getMovieRating() == review.getMovieRating()) {
-                                movieTitle = movie.getDisplayText();
-                                break;
-                            }
-                        }
-                    }
-                    if (!movieTitle.equals("Unknown Movie")) {
-                        break;
-                    }
-                }
+                Movie movie = review.getMovie();
+                String movieTitle = movie != null ? movie.getDisplayText() : "Unknown Movie";
                 
                 System.out.println(reviewNum + ". Movie: " + movieTitle);
                 System.out.println("   Rating: " + review.getMovieRating() + "/10");
@@ -280,14 +453,12 @@ public class Main {
         System.out.println("=".repeat(50));
     }
 
+    // A session the reaper already expired is signed out all the same
     private static void signOut() {
-        try {
-            authService.signOut(currentUser);
-            System.out.println("\n✓ Successfully signed out");
-            currentUser = null;
-        } catch (UserNotFoundException e) {
-            System.out.println("\n✗ " + e.getMessage());
-        }
+        authService.signOut(currentSession);
+        currentUser = null;
+        currentSession = null;
+        System.out.println("\n✓ Successfully signed out");
     }
 
     private static void displayMainMenu() {
@@ -308,6 +479,8 @@ public class Main {
         System.out.println("13. View my purchased movies");
         System.out.println("14. View my reviews");
         System.out.println("15. Sign Out");
+        System.out.println("16. Browse movies by release date");
+        System.out.println("17. View leaderboards");
         System.out.println("0. Exit");
         System.out.println();
     }
@@ -328,9 +501,13 @@ public class Main {
         int price = getIntInput("Enter price: $");
 
         Movie movie = new Movie(imdbId, title, director, studio, releaseDate, description, price);
-        movies.add(movie);
-        System.out.println("\n✓ Movie added successfully!");
-        System.out.println("Movie: " + movie.getDisplayText());
+        if (movies.add(movie)) {
+            record(() -> JournalEvent.movieAdded(movie));
+            System.out.println("\n✓ Movie added successfully!");
+            System.out.println("Movie: " + movie.getDisplayText());
+        } else {
+            System.out.println("\n✗ A movie with IMDB ID " + imdbId + " already exists in the catalog.");
+        }
     }
 
     private static void addRentalCopy() {
@@ -347,8 +524,9 @@ public class Main {
         System.out.println("\n--- Add Rental Copy ---");
         Movie movie = selectMovie();
         if (movie != null) {
-            RentalMovieDuplicate copy = new RentalMovieDuplicate(movie);
+            RentalMovieDuplicate copy = movie.createRentalCopy();
             movie.addRentalCopy(copy);
+            record(() -> JournalEvent.rentalCopyAdded(movie));
             System.out.println("\n✓ Rental copy added successfully!");
             System.out.println("Copy ID: " + copy.getCopyId());
         }
@@ -368,8 +546,9 @@ public class Main {
         System.out.println("\n--- Add Sale Copy ---");
         Movie movie = selectMovie();
         if (movie != null) {
-            SalableMovieDuplicate copy = new SalableMovieDuplicate(movie);
+            SalableMovieDuplicate copy = movie.createSaleCopy();
             movie.addSaleableCopy(copy);
+            record(() -> JournalEvent.saleCopyAdded(movie));
             System.out.println("\n✓ Sale copy added successfully!");
             System.out.println("Copy ID: " + copy.getCopyId());
         }
@@ -408,7 +587,10 @@ public class Main {
                 System.out.println("\n✗ No rental copies available for this movie.");
                 return;
             }
-            movie.Lend(customer);
+            if (!movie.Lend(customer)) {
+                return;
+            }
+            record(() -> JournalEvent.copyRented(movie, customer));
             // Add movie to customer's rented movies list
             customer.addRentedMovie(movie);
             System.out.println("Available rental copies: " + movie.showAvailableRentalCopies());
@@ -462,9 +644,19 @@ public class Main {
                 
                 if (transaction.isPaymentCompleted()) {
                     Customer customer = (Customer) currentUser;
-                    movie.Buy(customer);
-                    customer.addPurchasedMovie(movie);
+                    record(() -> JournalEvent.paymentCompleted(transaction, paymentType));
                     transactions.add(transaction);
+                    if (!movie.Buy(customer)) {
+                        // The last copy went to someone else after payment, so the payment is given back
+                        transaction.completeRefund();
+                        if (transaction.isRefundCompleted()) {
+                            record(() -> JournalEvent.paymentRefunded(transaction));
+                        }
+                        System.out.println("\n✗ The last copy sold before your order completed. Your payment has been refunded.");
+                        return;
+                    }
+                    record(() -> JournalEvent.copySold(movie, customer));
+                    customer.addPurchasedMovie(movie);
                     System.out.println("Available sale copies: " + movie.showAvailableSellableCopies());
                 }
             } catch (IllegalArgumentException e) {
@@ -507,6 +699,9 @@ public class Main {
                 System.out.println("\n✗ Payment for this transaction was not completed.");
             } else {
                 transaction.completeRefund();
+                if (transaction.isRefundCompleted()) {
+                    record(() -> JournalEvent.paymentRefunded(transaction));
+                }
             }
         } else {
             System.out.println("\n✗ Invalid transaction selection.");
@@ -542,6 +737,7 @@ public class Main {
             if (added) {
                 // Also add review to customer's review list
                 customer.addReview(review);
+                record(() -> JournalEvent.reviewAdded(movie, review));
                 System.out.println("\n✓ Review added successfully!");
             } else {
                 System.out.println("\n⚠ You already have a review for this movie. Use the edit option to update it.");
@@ -563,6 +759,16 @@ public class Main {
             System.out.println("=".repeat(50));
             System.out.println("\nAvailable rental copies: " + movie.showAvailableRentalCopies());
             System.out.println("Available sale copies: " + movie.showAvailableSellableCopies());
+            if (movie.getReviewCount() > 0) {
+                System.out.printf("Rating: %.1f/%d from %d review(s)%n", movie.getAverageRating(), Review.MAX_RATING, movie.getReviewCount());
+                int[] histogram = movie.getRatingHistogram();
+                for (int rating = Review.MAX_RATING; rating >= Review.MIN_RATING; rating--) {
+                    int count = histogram[rating - Review.MIN_RATING];
+                    if (count > 0) {
+                        System.out.printf("  %2d: %d%n", rating, count);
+                    }
+                }
+            }
             System.out.println("\n--- Reviews ---");
             movie.displayReviews();
         }
@@ -575,11 +781,70 @@ public class Main {
         }
 
         System.out.println("\n--- All Movies in Catalog ---");
-        System.out.println("=".repeat(50));
-        for (int i = 0; i < movies.size(); i++) {
-            System.out.println((i + 1) + ". " + movies.get(i).getDisplayText());
+        System.out.println("Sort by: 1. Date added  2. Title  3. Price  4. Release date  5. Top rated  6. Highest average rating");
+        int choice = getIntInput("Enter your choice: ");
+        CatalogQuery query;
+        switch (choice) {
+            case 2:
+                query = new CatalogQuery(CatalogSort.TITLE);
+                break;
+            case 3:
+                query = new CatalogQuery(CatalogSort.PRICE);
+                break;
+            case 4:
+                query = new CatalogQuery(CatalogSort.RELEASE_DATE);
+                break;
+            case 5:
+                query = new CatalogQuery(CatalogSort.TOP_RATED, true, CatalogQuery.DEFAULT_PAGE_SIZE);
+                break;
+            case 6:
+                query = new CatalogQuery(CatalogSort.RATING, true, CatalogQuery.DEFAULT_PAGE_SIZE);
+                break;
+            default:
+                query = new CatalogQuery(CatalogSort.ADDED);
+                break;
         }
         System.out.println("=".repeat(50));
+        pageThrough(query, false);
+        System.out.println("=".repeat(50));
+    }
+
+    // Prints the catalog a page at a time rather than all at once. When picking, returns the movie whose
+    // number is entered, or null if the user gives up.
+    private static Movie pageThrough(CatalogQuery query, boolean pick) {
+        List<Movie> listed = new ArrayList<>();
+        String token = null;
+        while (true) {
+            CatalogPage page = movies.list(query, token);
+            for (Movie movie : page.getMovies()) {
+                listed.add(movie);
+                System.out.println(listed.size() + ". " + movie.getDisplayText());
+            }
+            token = page.getContinuationToken();
+            if (page.getMovies().isEmpty() && page.hasMore()) {
+                continue;
+            }
+            if (!pick) {
+                if (!page.hasMore() || !getStringInput("\nPress Enter for more, or 0 to stop: ").isEmpty()) {
+                    return null;
+                }
+                continue;
+            }
+            String input = getStringInput(page.hasMore() ? "\nEnter movie number, or press Enter for more: " : "\nEnter movie number: ");
+            if (input.isEmpty() && page.hasMore()) {
+                continue;
+            }
+            try {
+                int choice = Integer.parseInt(input);
+                if (choice >= 1 && choice <= listed.size()) {
+                    return listed.get(choice - 1);
+                }
+            } catch (NumberFormatException e) {
+                // Falls through to the message below
+            }
+            System.out.println("Invalid selection.");
+            return null;
+        }
     }
 
     private static void returnMovie() {
@@ -621,6 +886,7 @@ public class Main {
         boolean returnSuccess = movieToReturn.Return(customer);
         
         if (returnSuccess) {
+            record(() -> JournalEvent.copyReturned(movieToReturn, customer));
             // Remove from customer's rented movies list using index (more reliable)
             customer.getRentedMovies().remove(choice - 1);
             System.out.println("✓ Movie removed from your rented list.");
@@ -630,19 +896,114 @@ public class Main {
         }
     }
 
+    private static void browseByReleaseDate() {
+        if (movies.isEmpty()) {
+            System.out.println("\n✗ No movies in catalog.");
+            return;
+        }
+
+        System.out.println("\n--- Browse by Release Date ---");
+        System.out.println("1. New releases");
+        System.out.println("2. Released in a year");
+        System.out.println("3. Released in a decade");
+        System.out.println("4. Released between two dates");
+        int choice = getIntInput("Enter your choice: ");
+
+        List<Movie> found;
+        // A year outside what LocalDate can hold is reported instead of ending the menu loop
+        try {
+            switch (choice) {
+                case 1:
+                    found = movies.getNewReleases(LocalDate.now(), 10);
+                    break;
+                case 2:
+                    found = movies.findByReleaseYear(getIntInput("Enter year: "));
+                    break;
+                case 3:
+                    found = movies.findByDecade(getIntInput("Enter decade (e.g., 1990): "));
+                    break;
+                case 4: {
+                    LocalDate from = LocalDate.parse(getDateInput("From (YYYY-MM-DD): "));
+                    LocalDate to = LocalDate.parse(getDateInput("To (YYYY-MM-DD): "));
+                    if (from.isAfter(to)) {
+                        System.out.println("\n✗ The start date is after the end date.");
+                        return;
+                    }
+                    found = movies.findReleasedBetween(from, to);
+                    break;
+                }
+                default:
+                    System.out.println("\nInvalid choice.");
+                    return;
+            }
+        } catch (DateTimeException e) {
+            System.out.println("\n✗ " + e.getMessage());
+            return;
+        }
+
+        if (found.isEmpty()) {
+            System.out.println("\nNo movies found.");
+            return;
+        }
+        System.out.println();
+        for (Movie movie : found) {
+            System.out.println("  " + movie.getDisplayText());
+        }
+    }
+
+    private static void viewLeaderboards() {
+        System.out.println("\n--- Leaderboards ---");
+        printLeaderboard("Top rated", leaderboards.getTopRated(5));
+        printLeaderboard("Most rented this week", leaderboards.getMostRentedThisWeek(5));
+        printLeaderboard("Most rented of all time", leaderboards.getMostRented(5));
+        printLeaderboard("Best selling this week", leaderboards.getBestSellingThisWeek(5));
+        printLeaderboard("Best selling of all time", leaderboards.getBestSelling(5));
+    }
+
+    private static void printLeaderboard(String name, List<Movie> ranked) {
+        System.out.println("\n" + name + ":");
+        if (ranked.isEmpty()) {
+            System.out.println("  Nothing here yet.");
+            return;
+        }
+        for (int i = 0; i < ranked.size(); i++) {
+            System.out.println("  " + (i + 1) + ". " + ranked.get(i).getDisplayText());
+        }
+    }
+
     private static Movie selectMovie() {
         if (movies.isEmpty()) {
             return null;
         }
 
+        String query = getStringInput("\nSearch by title, director, studio or description (press Enter to list all): ");
+        if (query.isEmpty()) {
+            System.out.println("\nSelect a movie:");
+            return pageThrough(new CatalogQuery(CatalogSort.TITLE), true);
+        }
+        List<Movie> allMovies = new ArrayList<>();
+        for (SearchResult result : searchIndex.search(query, 20)) {
+            allMovies.add(result.getMovie());
+        }
+        if (allMovies.isEmpty()) {
+            System.out.println("No movies match \"" + query + "\".");
+            List<Completion> suggestions = autocomplete.complete(query, 5);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Popular titles and directors starting with \"" + query + "\":");
+                for (Completion suggestion : suggestions) {
+                    System.out.println("  " + suggestion);
+                }
+            }
+            return null;
+        }
         System.out.println("\nSelect a movie:");
-        for (int i = 0; i < movies.size(); i++) {
-            System.out.println((i + 1) + ". " + movies.get(i).getDisplayText());
+        for (int i = 0; i < allMovies.size(); i++) {
+            System.out.println((i + 1) + ". " + allMovies.get(i).getDisplayText());
         }
 
         int choice = getIntInput("\nEnter movie number: ");
-        if (choice >= 1 && choice <= movies.size()) {
-            return movies.get(choice - 1);
+        if (choice >= 1 && choice <= allMovies.size()) {
+            return allMovies.get(choice - 1);
         } else {
             System.out.println("Invalid selection.");
             return null;
@@ -667,7 +1028,6 @@ public class Main {
     }
 
     private static String getDateInput(String prompt) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         while (true) {
             System.out.print(prompt);
             String input = scanner.nextLine().trim();
@@ -677,14 +1037,12 @@ public class Main {
                 continue;
             }
             
-            try {
-                LocalDate.parse(input, formatter);
+            // Parsed the same way the catalog indexes it, so a date like 1994-02-30 is rejected rather than adjusted
+            if (Movie.parseReleaseDay(input) != Movie.UNKNOWN_RELEASE_DAY) {
                 return input;
-            } catch (DateTimeParseException e) {
-                System.out.println("✗ Invalid date. Please enter a valid date in YYYY-MM-DD format (e.g., 1994-09-23)");
-                System.out.println("   Make sure the month is between 01-12 and day is valid for that month.");
             }
+            System.out.println("✗ Invalid date. Please enter a valid date in YYYY-MM-DD format (e.g., 1994-09-23)");
+            System.out.println("   Make sure the month is between 01-12 and day is valid for that month.");
         }
     }
 }
-
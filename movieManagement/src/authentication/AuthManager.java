@@ -1,57 +1,188 @@
 package movieManagement.src.authentication;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 import movieManagement.src.users.User;
 import movieManagement.src.exceptions.UserNotFoundException;
 
 public class AuthManager {
-    private ArrayList<AuthSession> activeSessions;
+    public static final int DEFAULT_MAX_SESSIONS_PER_USER = 5;
+    public static final long DEFAULT_SESSION_TTL_MILLIS = 30 * 60 * 1000L;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 15 * 60 * 1000L;
+
+    private ConcurrentHashMap<UUID, AuthSession> activeSessions;
+    private ConcurrentHashMap<User, ConcurrentLinkedDeque<AuthSession>> sessionsByUser;
+    private volatile int maxSessionsPerUser;
+    private volatile long sessionTtlMillis;
+    private volatile long idleTimeoutMillis;
+    private final SessionReaper sessionReaper;
     private static AuthManager instance = new AuthManager();
 
     private AuthManager() {
-        activeSessions = new ArrayList<AuthSession>();
+        activeSessions = new ConcurrentHashMap<UUID, AuthSession>();
+        sessionsByUser = new ConcurrentHashMap<User, ConcurrentLinkedDeque<AuthSession>>();
+        maxSessionsPerUser = DEFAULT_MAX_SESSIONS_PER_USER;
+        sessionTtlMillis = DEFAULT_SESSION_TTL_MILLIS;
+        idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+        sessionReaper = new SessionReaper(this);
     }
 
     public static AuthManager getInstance() {
         return instance;
     }
 
+    public void setMaxSessionsPerUser(int maxSessionsPerUser) {
+        if (maxSessionsPerUser <= 0) {
+            throw new IllegalArgumentException("Max sessions per user must be positive.");
+        }
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    public int getMaxSessionsPerUser() {
+        return maxSessionsPerUser;
+    }
+
+    public void setSessionTtlMillis(long sessionTtlMillis) {
+        if (sessionTtlMillis <= 0) {
+            throw new IllegalArgumentException("Session TTL must be positive.");
+        }
+        this.sessionTtlMillis = sessionTtlMillis;
+    }
+
+    public long getSessionTtlMillis() {
+        return sessionTtlMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive.");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public SessionReaper getSessionReaper() {
+        return sessionReaper;
+    }
+
+    public void startSessionReaper() {
+        sessionReaper.start();
+    }
+
+    // The per-user deque is mutated inside compute so the cap check and the eviction happen as one step
     public void addSession(AuthSession session) {
-        activeSessions.add(session);
+        activeSessions.put(session.getSessionToken(), session);
+        sessionsByUser.compute(session.getUser(), (user, sessions) -> {
+            ConcurrentLinkedDeque<AuthSession> userSessions = sessions != null ? sessions : new ConcurrentLinkedDeque<AuthSession>();
+            userSessions.addLast(session);
+            while (userSessions.size() > maxSessionsPerUser) {
+                AuthSession oldest = userSessions.pollFirst();
+                oldest.setActive(false);
+                activeSessions.remove(oldest.getSessionToken(), oldest);
+            }
+            return userSessions;
+        });
+        sessionReaper.schedule(session);
     }
 
     public int getActiveSessionCount() {
         return activeSessions.size();
     }
 
-    public void createSession(User user) {
+    public AuthSession createSession(User user) {
         AuthSession session = new AuthSession(user);
         addSession(session);
+        return session;
     }
 
     public void terminateSession(User user) throws UserNotFoundException {
-        Iterator<AuthSession> iterator = activeSessions.iterator();
-        while (iterator.hasNext()) {
-            AuthSession session = iterator.next();
-            if (session.getUser().equals(user)) {
-                session.setActive(false);
-                iterator.remove();
-                return;
-            }
+        AuthSession[] terminated = new AuthSession[1];
+        sessionsByUser.computeIfPresent(user, (u, sessions) -> {
+            terminated[0] = sessions.pollFirst();
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (terminated[0] == null) {
+            throw new UserNotFoundException();
         }
-        
-        throw new UserNotFoundException();
+        terminated[0].setActive(false);
+        activeSessions.remove(terminated[0].getSessionToken(), terminated[0]);
     }
-    
+
+    public boolean terminateSession(UUID sessionToken) {
+        if (sessionToken == null) {
+            return false;
+        }
+        AuthSession session = activeSessions.remove(sessionToken);
+        if (session == null) {
+            return false;
+        }
+        session.setActive(false);
+        detachFromUser(session);
+        return true;
+    }
+
+    public AuthSession validateSession(UUID sessionToken) {
+        if (sessionToken == null) {
+            return null;
+        }
+        AuthSession session = activeSessions.get(sessionToken);
+        if (session == null) {
+            return null;
+        }
+        if (isExpired(session, System.currentTimeMillis())) {
+            expire(session);
+            return null;
+        }
+        if (!session.isActive()) {
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
     public AuthSession findSessionByUser(User user) {
-        for (AuthSession session : activeSessions) {
-            if (session.getUser().equals(user) && session.isActive()) {
+        ConcurrentLinkedDeque<AuthSession> sessions = sessionsByUser.get(user);
+        if (sessions == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        for (AuthSession session : sessions) {
+            if (isExpired(session, now)) {
+                expire(session);
+            } else if (session.isActive()) {
                 return session;
             }
         }
         return null;
     }
-}
 
+    // A session ends at its absolute TTL or after sitting idle, whichever comes first
+    long getDeadline(AuthSession session) {
+        return Math.min(session.getCreatedAt() + sessionTtlMillis, session.getLastAccessedAt() + idleTimeoutMillis);
+    }
+
+    private boolean isExpired(AuthSession session, long now) {
+        return now >= getDeadline(session);
+    }
+
+    boolean expire(AuthSession session) {
+        session.setActive(false);
+        if (activeSessions.remove(session.getSessionToken(), session)) {
+            detachFromUser(session);
+            return true;
+        }
+        return false;
+    }
+
+    private void detachFromUser(AuthSession session) {
+        sessionsByUser.computeIfPresent(session.getUser(), (user, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
@@ -1,22 +1,36 @@
 package movieManagement.src.authentication;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import movieManagement.src.exceptions.*;
 import movieManagement.src.users.*;
 import movieManagement.data.PredefinedAdmins;
 
 public class AuthService {
     private static Admin admin = Admin.getInstance();
-    private static ArrayList<User> registeredUsers;
+    private static ConcurrentHashMap<String, User> registeredUsers;
+    private static ConcurrentHashMap<String, User> usersById;
+    private static VerificationCache verificationCache = new VerificationCache(VerificationCache.DEFAULT_CAPACITY);
     private static AuthManager authManager = AuthManager.getInstance();
+    // Held for every insert into the user indexes, so a single registration and a whole batch never interleave
+    private static final Object registrationLock = new Object();
+    private static final List<RegistrationListener> registrationListeners = new CopyOnWriteArrayList<RegistrationListener>();
     private static AuthService instance = new AuthService();
 
     private AuthService() {
-        AuthService.registeredUsers = new ArrayList<User>();
+        AuthService.registeredUsers = new ConcurrentHashMap<String, User>();
+        AuthService.usersById = new ConcurrentHashMap<String, User>();
         // Register all predefined admins
         Admin[] admins = PredefinedAdmins.loadAdmins();
         for (Admin predefinedAdmin : admins) {
-            registeredUsers.add(predefinedAdmin);
+            addUser(predefinedAdmin);
         }
     }
 
@@ -25,15 +39,54 @@ public class AuthService {
     }
 
     private static User findUserByUsername(String username) {
-        for (User user : registeredUsers) {
-            if (user.getUsername().equals(username))
-                return user;
+        if (username == null)
+            return null;
+        return registeredUsers.get(username);
+    }
+
+    public User findUserById(String userId) {
+        if (userId == null)
+            return null;
+        return usersById.get(userId);
+    }
+
+    public int getRegisteredUserCount() {
+        return registeredUsers.size();
+    }
+
+    // The username index is the source of truth: a user only reaches the id index after winning its username
+    private static boolean addUser(User user) {
+        // A taken name is turned away before paying for the hash; putIfAbsent still settles a race for it
+        if (registeredUsers.containsKey(user.getUsername()))
+            return false;
+        // Stored credentials are always hashed; only a credential still in flight carries plaintext
+        user.getCredential().protect();
+        synchronized (registrationLock) {
+            if (registeredUsers.putIfAbsent(user.getUsername(), user) != null)
+                return false;
+            usersById.put(user.getUserId(), user);
         }
-        return null;
+        return true;
     }
 
     public void registerUser(User user) {
-        registeredUsers.add(user);
+        addUser(user);
+    }
+
+    public void addRegistrationListener(RegistrationListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("Listener cannot be null.");
+        registrationListeners.add(listener);
+    }
+
+    public void removeRegistrationListener(RegistrationListener listener) {
+        registrationListeners.remove(listener);
+    }
+
+    private static void announce(Customer customer) {
+        for (RegistrationListener listener : registrationListeners) {
+            listener.customerRegistered(customer);
+        }
     }
 
     public Admin authenticateAdmin(CredentialsCheck credential) throws WrongPasswordException {
@@ -42,9 +95,20 @@ public class AuthService {
     }
 
     private static boolean verifyCredential(User user, String passwordValue) {
-        CredentialsCheck providedCredential = new CredentialsCheck(passwordValue);
+        if (passwordValue == null)
+            return false;
         CredentialsCheck userCredential = user.getCredential();
-        return providedCredential.equals(userCredential);
+        byte[] fingerprint = userCredential.fingerprint();
+        if (fingerprint == null)
+            return userCredential.matches(passwordValue);
+
+        String cacheKey = VerificationCache.keyFor(user.getUserId(), fingerprint, passwordValue);
+        if (verificationCache.contains(cacheKey))
+            return true;
+        boolean valid = userCredential.matches(passwordValue);
+        if (valid)
+            verificationCache.remember(cacheKey);
+        return valid;
     }
 
     private static void validateAdminCredential(User admin, CredentialsCheck credential) throws WrongPasswordException {
@@ -54,14 +118,15 @@ public class AuthService {
     }
 
     private static boolean usernameExists(String username) {
-        for (User user : registeredUsers) {
-            if (user.getUsername().equals(username))
-                return true;
-        }
-        return false;
+        return username != null && registeredUsers.containsKey(username);
     }
 
     public User signIn(String username, String passwordValue) throws UsernameNotFoundException, WrongPasswordException {
+        return startSession(username, passwordValue).getUser();
+    }
+
+    // Signs in and hands back the new session, so a front end can keep that one alive and end exactly that one
+    public AuthSession startSession(String username, String passwordValue) throws UsernameNotFoundException, WrongPasswordException {
         User user = findUserByUsername(username);
 
         if (user == null) {
@@ -74,8 +139,7 @@ public class AuthService {
             throw new WrongPasswordException();
         }
 
-        authManager.createSession(user);
-        return user;
+        return authManager.createSession(user);
     }
 
     public Admin signInAdmin(String passwordValue) throws WrongPasswordException {
@@ -87,6 +151,16 @@ public class AuthService {
         authManager.terminateSession(user);
     }
 
+    // False when the session had already ended, e.g. expired by the reaper; either way it is over afterwards
+    public boolean signOut(UUID sessionToken) {
+        return authManager.terminateSession(sessionToken);
+    }
+
+    // Marks the session as used; null once it has expired or ended
+    public AuthSession touchSession(UUID sessionToken) {
+        return authManager.validateSession(sessionToken);
+    }
+
     public Customer registerCustomer(String username, String passwordValue) throws InvalidCredentialException, UsernameAlreadyTakenException {
         if (usernameExists(username))
             throw new UsernameAlreadyTakenException();
@@ -100,8 +174,128 @@ public class AuthService {
             throw e;
         }
 
-        registeredUsers.add(customer);
+        if (!addUser(customer))
+            throw new UsernameAlreadyTakenException();
+        announce(customer);
         return customer;
     }
+
+    public RegistrationBatchResult registerCustomers(List<RegistrationRequest> requests) {
+        return registerCustomers(requests, ForkJoinPool.commonPool());
+    }
+
+    // Checks usernames against the batch and the registry first, so duplicates are never hashed. Passwords are
+    // then validated and hashed in parallel on the pool, and the survivors are checked again and committed together
+    // under the lock single registrations take. Problems are reported per request in the result instead of thrown.
+    public RegistrationBatchResult registerCustomers(List<RegistrationRequest> requests, ForkJoinPool pool) {
+        if (requests == null || pool == null)
+            throw new IllegalArgumentException("Requests and pool cannot be null.");
+        int size = requests.size();
+        RegistrationRejection[] rejections = new RegistrationRejection[size];
+        Set<String> batchUsernames = new HashSet<String>(size * 2);
+        int[] candidates = new int[size];
+        int candidateCount = 0;
+        for (int i = 0; i < size; i++) {
+            RegistrationRequest request = requests.get(i);
+            String username = request != null ? request.getUsername() : null;
+            if (username == null || username.isBlank())
+                rejections[i] = new RegistrationRejection(i, username, RegistrationRejection.Reason.INVALID_USERNAME, "Username cannot be empty");
+            else if (!batchUsernames.add(username))
+                rejections[i] = new RegistrationRejection(i, username, RegistrationRejection.Reason.DUPLICATE_IN_BATCH, "Username appears earlier in the batch");
+            else if (usernameExists(username))
+                rejections[i] = new RegistrationRejection(i, username, RegistrationRejection.Reason.USERNAME_TAKEN, "Username is already registered");
+            else
+                candidates[candidateCount++] = i;
+        }
+
+        Customer[] prepared = new Customer[size];
+        pool.invoke(new PrepareCustomers(requests, candidates, 0, candidateCount, prepared, rejections));
+
+        List<Customer> registered = new ArrayList<Customer>(candidateCount);
+        synchronized (registrationLock) {
+            for (int c = 0; c < candidateCount; c++) {
+                int i = candidates[c];
+                Customer customer = prepared[i];
+                if (customer == null)
+                    continue;
+                // A single registration can still win the username while the batch is hashing
+                if (registeredUsers.containsKey(customer.getUsername())) {
+                    rejections[i] = new RegistrationRejection(i, customer.getUsername(), RegistrationRejection.Reason.USERNAME_TAKEN, "Username is already registered");
+                    continue;
+                }
+                registered.add(customer);
+            }
+            // Every insert holds the lock, so nothing checked above can have been taken since
+            for (Customer customer : registered) {
+                registeredUsers.put(customer.getUsername(), customer);
+                usersById.put(customer.getUserId(), customer);
+            }
+        }
+        if (!registered.isEmpty()) {
+            for (RegistrationListener listener : registrationListeners) {
+                listener.customersRegistered(registered);
+            }
+        }
+
+        List<RegistrationRejection> rejected = new ArrayList<RegistrationRejection>();
+        for (RegistrationRejection rejection : rejections) {
+            if (rejection != null)
+                rejected.add(rejection);
+        }
+        return new RegistrationBatchResult(size, registered, rejected);
+    }
+
+    // Each slot is written by exactly one task, so the arrays need no locking; invoke() publishes them
+    private static class PrepareCustomers extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 4;
+
+        private final List<RegistrationRequest> requests;
+        private final int[] candidates;
+        private final int from;
+        private final int to;
+        private final Customer[] prepared;
+        private final RegistrationRejection[] rejections;
+
+        PrepareCustomers(List<RegistrationRequest> requests, int[] candidates, int from, int to,
+                         Customer[] prepared, RegistrationRejection[] rejections) {
+            this.requests = requests;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.prepared = prepared;
+            this.rejections = rejections;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int c = from; c < to; c++) {
+                    prepare(candidates[c]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PrepareCustomers(requests, candidates, from, middle, prepared, rejections),
+                    new PrepareCustomers(requests, candidates, middle, to, prepared, rejections));
+        }
+
+        private void prepare(int i) {
+            RegistrationRequest request = requests.get(i);
+            String password = request.getPassword();
+            if (password == null) {
+                rejections[i] = new RegistrationRejection(i, request.getUsername(), RegistrationRejection.Reason.INVALID_PASSWORD, "Password cannot be empty");
+                return;
+            }
+            try {
+                CredentialsCheck credential = new CredentialsCheck(password);
+                CredentialsCheck.validateCredential(credential);
+                credential.protect();
+                prepared[i] = new Customer(request.getUsername(), credential);
+            } catch (InvalidCredentialException e) {
+                rejections[i] = new RegistrationRejection(i, request.getUsername(), RegistrationRejection.Reason.INVALID_PASSWORD, e.getMessage().trim());
+            }
+        }
+    }
 }
 
@@ -5,15 +5,18 @@ import java.util.UUID;
 
 public class AuthSession {
     private User user;
+    // Stays a random UUID: a session token is a bearer secret, and time-ordered ids would be guessable
     private UUID sessionToken;
-    private boolean active;
+    private volatile boolean active;
     private long createdAt;
+    private volatile long lastAccessedAt;
     
     public AuthSession(User user) {
         this.user = user;
         this.active = true;
         this.sessionToken = UUID.randomUUID();
         this.createdAt = System.currentTimeMillis();
+        this.lastAccessedAt = createdAt;
     }
 
     public boolean isActive() {
@@ -35,5 +38,12 @@ public class AuthSession {
     public long getCreatedAt() {
         return createdAt;
     }
-}
 
+    public long getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void touch() {
+        this.lastAccessedAt = System.currentTimeMillis();
+    }
+}
@@ -1,75 +1,181 @@
 package movieManagement.src.authentication;
 
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
 import movieManagement.src.exceptions.InvalidCredentialException;
 
 public class CredentialsCheck {
+    public static final int DEFAULT_ITERATIONS = 120_000;
+    private static final String KDF_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final String STORED_FORM_SEPARATOR = "$";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static volatile int workFactor = DEFAULT_ITERATIONS;
+    private static volatile PasswordPolicy passwordPolicy = PasswordPolicy.defaultPolicy();
+
+    // value holds the plaintext only until the credential is protected; afterwards only salt and hash remain
     private String value;
-    
+    // Kept past protect() so the length can still be reported; -1 when there never was a plaintext here
+    private final int length;
+    private byte[] salt;
+    private byte[] hash;
+    private int iterations;
+
     public CredentialsCheck(String value) {
         this.value = value;
+        this.length = value != null ? value.length() : -1;
     }
-    
+
     public static int getLength(CredentialsCheck credential) {
-        return credential.value.length();
+        if (credential.length < 0)
+            throw new IllegalStateException("The credential has no password whose length is known.");
+        return credential.length;
     }
 
-    private static boolean containsLowercase(String str) {
-        char[] chars = str.toCharArray();
-        for (char c : chars) {
-            if (c >= 'a' && c <= 'z')
-                return true;
-        }
-        return false;
+    public static void setPasswordPolicy(PasswordPolicy policy) {
+        if (policy == null)
+            throw new IllegalArgumentException("Password policy cannot be null.");
+        passwordPolicy = policy;
     }
 
-    private static boolean containsUppercase(String str) {
-        char[] chars = str.toCharArray();
-        for (char c : chars) {
-            if (c >= 'A' && c <= 'Z')
-                return true;
-        }
-        return false;
+    public static PasswordPolicy getPasswordPolicy() {
+        return passwordPolicy;
     }
 
-    private static boolean containsDigit(String str) {
-        char[] chars = str.toCharArray();
-        for (char c : chars) {
-            if (c >= '0' && c <= '9')
-                return true;
-        }
-        return false;
+    public static void validateCredential(CredentialsCheck credential) throws InvalidCredentialException {
+        passwordPolicy.validate(credential.getValue());
     }
 
-    private static boolean containsSpecialChar(String str) {
-        char[] chars = str.toCharArray();
-        for (char c : chars) {
-            if (!Character.isLetterOrDigit(c))
-                return true;
+    public static void setWorkFactor(int iterations) {
+        if (iterations <= 0)
+            throw new IllegalArgumentException("Iteration count must be positive.");
+        workFactor = iterations;
+    }
+
+    public static int getWorkFactor() {
+        return workFactor;
+    }
+
+    // Times the KDF at two iteration counts on this machine and solves for the count that takes about targetMillis
+    public static int calibrateWorkFactor(long targetMillis) {
+        if (targetMillis <= 0)
+            throw new IllegalArgumentException("Target latency must be positive.");
+        int lowIterations = 10_000;
+        int highIterations = 50_000;
+        for (int i = 0; i < 3; i++) {
+            // Warm-up rounds so the JIT has compiled the HMAC loop before timing
+            timeDerive(highIterations);
         }
-        return false;
+        long lowNanos = Long.MAX_VALUE;
+        long highNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            lowNanos = Math.min(lowNanos, timeDerive(lowIterations));
+            highNanos = Math.min(highNanos, timeDerive(highIterations));
+        }
+        double nanosPerIteration = Math.max(1.0, (double) (highNanos - lowNanos) / (highIterations - lowIterations));
+        double fixedNanos = Math.max(0.0, lowNanos - nanosPerIteration * lowIterations);
+        double iterations = (targetMillis * 1_000_000.0 - fixedNanos) / nanosPerIteration;
+        return (int) Math.max(10_000, Math.min(Integer.MAX_VALUE, iterations));
     }
 
-    public static void validateCredential(CredentialsCheck credential) throws InvalidCredentialException {
-        String credValue = credential.value;
+    private static long timeDerive(int rounds) {
+        long start = System.nanoTime();
+        derive("Calibrate1!", new byte[SALT_BYTES], rounds);
+        return System.nanoTime() - start;
+    }
 
-        if (getLength(credential) < 8)
-            throw new InvalidCredentialException();
+    public synchronized void protect() {
+        if (hash != null)
+            return;
+        if (value == null)
+            throw new IllegalStateException("There is no password to protect.");
+        byte[] newSalt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(newSalt);
+        int rounds = workFactor;
+        this.hash = derive(value, newSalt, rounds);
+        this.salt = newSalt;
+        this.iterations = rounds;
+        this.value = null;
+    }
+
+    public synchronized boolean isProtected() {
+        return hash != null;
+    }
 
-        boolean hasUpper = containsUppercase(credValue);
-        boolean hasLower = containsLowercase(credValue);
-        boolean hasNumber = containsDigit(credValue);
-        boolean hasSpecial = containsSpecialChar(credValue);
+    public boolean matches(String candidate) {
+        if (candidate == null)
+            return false;
+        byte[] storedSalt;
+        byte[] storedHash;
+        int rounds;
+        synchronized (this) {
+            if (hash == null)
+                return value.equals(candidate);
+            storedSalt = salt;
+            storedHash = hash;
+            rounds = iterations;
+        }
+        return MessageDigest.isEqual(storedHash, derive(candidate, storedSalt, rounds));
+    }
 
-        if (!(hasUpper && hasLower && hasNumber && hasSpecial))
-            throw new InvalidCredentialException(hasUpper, hasLower, hasNumber, hasSpecial);
+    // Identifies the stored secret without exposing it; changes whenever the credential is replaced or re-hashed
+    public synchronized byte[] fingerprint() {
+        return hash != null ? hash.clone() : null;
     }
 
     public boolean equals(CredentialsCheck other) {
-        return this.value.equals(other.value);
+        if (this == other)
+            return true;
+        String otherValue = other.getValue();
+        if (otherValue != null)
+            return matches(otherValue);
+        String ownValue = getValue();
+        if (ownValue != null)
+            return other.matches(ownValue);
+        synchronized (this) {
+            return Arrays.equals(hash, other.fingerprint());
+        }
+    }
+
+    // Stored form of a protected credential: iterations$salt$hash, with salt and hash in base64
+    public synchronized String toStoredForm() {
+        if (hash == null)
+            throw new IllegalStateException("Only a protected credential has a stored form.");
+        Base64.Encoder encoder = Base64.getEncoder();
+        return iterations + STORED_FORM_SEPARATOR + encoder.encodeToString(salt) + STORED_FORM_SEPARATOR + encoder.encodeToString(hash);
     }
-    
-    public String getValue() {
+
+    public static CredentialsCheck fromStoredForm(String storedForm) {
+        String[] parts = storedForm.split("\\" + STORED_FORM_SEPARATOR);
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Malformed stored credential.");
+        CredentialsCheck credential = new CredentialsCheck(null);
+        Base64.Decoder decoder = Base64.getDecoder();
+        credential.iterations = Integer.parseInt(parts[0]);
+        credential.salt = decoder.decode(parts[1]);
+        credential.hash = decoder.decode(parts[2]);
+        return credential;
+    }
+
+    public synchronized String getValue() {
         return value;
     }
-}
 
+    private static byte[] derive(String password, byte[] salt, int rounds) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(KDF_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing is unavailable: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
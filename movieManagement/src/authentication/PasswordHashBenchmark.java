@@ -0,0 +1,24 @@
+package movieManagement.src.authentication;
+
+// Picks a PBKDF2 iteration count for a target sign-in latency on this machine
+public class PasswordHashBenchmark {
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 100;
+        int iterations = CredentialsCheck.calibrateWorkFactor(targetMillis);
+        CredentialsCheck.setWorkFactor(iterations);
+
+        CredentialsCheck credential = new CredentialsCheck("Benchmark123!");
+        credential.protect();
+        int samples = 5;
+        long total = 0;
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            credential.matches("Benchmark123!");
+            total += System.nanoTime() - start;
+        }
+
+        System.out.println("Target sign-in latency: " + targetMillis + " ms");
+        System.out.println("Chosen iteration count: " + iterations);
+        System.out.printf("Measured verification latency: %.1f ms\n", total / (samples * 1_000_000.0));
+    }
+}
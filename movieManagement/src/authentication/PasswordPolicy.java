@@ -0,0 +1,148 @@
+package movieManagement.src.authentication;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import movieManagement.src.exceptions.InvalidCredentialException;
+
+// Checks every rule in one pass over the password's chars without copying it
+public class PasswordPolicy {
+    public static final int TOO_SHORT = 1;
+    public static final int MISSING_UPPERCASE = 1 << 1;
+    public static final int MISSING_LOWERCASE = 1 << 2;
+    public static final int MISSING_DIGIT = 1 << 3;
+    public static final int MISSING_SPECIAL = 1 << 4;
+    public static final int DENIED = 1 << 5;
+
+    private static final String[] COMMON_PASSWORDS = {
+        "Password1!", "Password123!", "Passw0rd!", "P@ssw0rd", "P@ssword1",
+        "Qwerty123!", "Welcome1!", "Welcome123!", "Letmein1!", "Abcd1234!",
+        "Iloveyou1!", "Admin123!", "Changeme1!", "Summer2024!", "Winter2024!"
+    };
+
+    private final int minLength;
+    private final boolean requireUppercase;
+    private final boolean requireLowercase;
+    private final boolean requireDigit;
+    private final boolean requireSpecial;
+    // Open-addressing table of lower-cased denied passwords; the parallel hash array avoids rehashing on lookup
+    private final String[] deniedTable;
+    private final int[] deniedHashes;
+    private final int deniedMask;
+
+    public PasswordPolicy(int minLength, boolean requireUppercase, boolean requireLowercase, boolean requireDigit,
+                          boolean requireSpecial, Collection<String> deniedPasswords) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("Minimum length cannot be negative.");
+        }
+        this.minLength = minLength;
+        this.requireUppercase = requireUppercase;
+        this.requireLowercase = requireLowercase;
+        this.requireDigit = requireDigit;
+        this.requireSpecial = requireSpecial;
+
+        int deniedCount = deniedPasswords != null ? deniedPasswords.size() : 0;
+        int capacity = Integer.highestOneBit(Math.max(1, deniedCount) * 2 - 1) << 1;
+        this.deniedTable = new String[capacity];
+        this.deniedHashes = new int[capacity];
+        this.deniedMask = capacity - 1;
+        if (deniedPasswords != null) {
+            for (String denied : deniedPasswords) {
+                addDenied(denied);
+            }
+        }
+    }
+
+    public static PasswordPolicy defaultPolicy() {
+        return new PasswordPolicy(8, true, true, true, true, Arrays.asList(COMMON_PASSWORDS));
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    // Returns a bitmask of every failed rule, or 0 when the password passes
+    public int check(String password) {
+        int length = password.length();
+        boolean hasUpper = false;
+        boolean hasLower = false;
+        boolean hasDigit = false;
+        boolean hasSpecial = false;
+        int foldedHash = 0;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            } else if (c >= 'a' && c <= 'z') {
+                hasLower = true;
+            } else if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (!Character.isLetterOrDigit(c)) {
+                hasSpecial = true;
+            }
+            foldedHash = 31 * foldedHash + Character.toLowerCase(c);
+        }
+
+        int failures = 0;
+        if (length < minLength)
+            failures |= TOO_SHORT;
+        if (requireUppercase && !hasUpper)
+            failures |= MISSING_UPPERCASE;
+        if (requireLowercase && !hasLower)
+            failures |= MISSING_LOWERCASE;
+        if (requireDigit && !hasDigit)
+            failures |= MISSING_DIGIT;
+        if (requireSpecial && !hasSpecial)
+            failures |= MISSING_SPECIAL;
+        if (isDenied(password, foldedHash))
+            failures |= DENIED;
+        return failures;
+    }
+
+    public void validate(String password) throws InvalidCredentialException {
+        int failures = check(password);
+        if (failures == 0)
+            return;
+        throw new InvalidCredentialException(minLength,
+                (failures & TOO_SHORT) != 0,
+                (failures & MISSING_UPPERCASE) == 0,
+                (failures & MISSING_LOWERCASE) == 0,
+                (failures & MISSING_DIGIT) == 0,
+                (failures & MISSING_SPECIAL) == 0,
+                (failures & DENIED) != 0);
+    }
+
+    private void addDenied(String denied) {
+        if (denied == null)
+            return;
+        // Folded one char at a time, as check() folds the password, so the hashes agree in any default locale
+        char[] chars = denied.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        String folded = new String(chars);
+        int hash = folded.hashCode();
+        int slot = spread(hash) & deniedMask;
+        while (deniedTable[slot] != null) {
+            if (deniedHashes[slot] == hash && deniedTable[slot].equals(folded))
+                return;
+            slot = (slot + 1) & deniedMask;
+        }
+        deniedTable[slot] = folded;
+        deniedHashes[slot] = hash;
+    }
+
+    private boolean isDenied(String password, int foldedHash) {
+        int slot = spread(foldedHash) & deniedMask;
+        while (deniedTable[slot] != null) {
+            if (deniedHashes[slot] == foldedHash && deniedTable[slot].equalsIgnoreCase(password))
+                return true;
+            slot = (slot + 1) & deniedMask;
+        }
+        return false;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,39 @@
+package movieManagement.src.authentication;
+
+import java.util.Collections;
+import java.util.List;
+
+import movieManagement.src.users.Customer;
+
+public class RegistrationBatchResult {
+    private final int submittedCount;
+    private final List<Customer> registered;
+    private final List<RegistrationRejection> rejections;
+
+    RegistrationBatchResult(int submittedCount, List<Customer> registered, List<RegistrationRejection> rejections) {
+        this.submittedCount = submittedCount;
+        this.registered = Collections.unmodifiableList(registered);
+        this.rejections = Collections.unmodifiableList(rejections);
+    }
+
+    public int getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public List<Customer> getRegistered() {
+        return registered;
+    }
+
+    public int getRegisteredCount() {
+        return registered.size();
+    }
+
+    // In batch order
+    public List<RegistrationRejection> getRejections() {
+        return rejections;
+    }
+
+    public int getRejectedCount() {
+        return rejections.size();
+    }
+}
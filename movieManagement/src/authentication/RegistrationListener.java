@@ -0,0 +1,18 @@
+package movieManagement.src.authentication;
+
+import java.util.List;
+
+import movieManagement.src.users.Customer;
+
+// Notified after a customer registers through AuthService, alone or in a batch, on the thread that registered them.
+// Users added with registerUser, such as ones restored at startup, are not announced.
+public interface RegistrationListener {
+    void customerRegistered(Customer customer);
+
+    // Once per committed batch, in batch order; a listener that can handle them together should override this
+    default void customersRegistered(List<Customer> customers) {
+        for (Customer customer : customers) {
+            customerRegistered(customer);
+        }
+    }
+}
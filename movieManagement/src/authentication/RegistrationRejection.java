@@ -0,0 +1,44 @@
+package movieManagement.src.authentication;
+
+// Why one request in a bulk registration batch was not registered. index is its position in the batch.
+public class RegistrationRejection {
+    public enum Reason {
+        INVALID_USERNAME,
+        DUPLICATE_IN_BATCH,
+        USERNAME_TAKEN,
+        INVALID_PASSWORD
+    }
+
+    private final int index;
+    private final String username;
+    private final Reason reason;
+    private final String message;
+
+    RegistrationRejection(int index, String username, Reason reason, String message) {
+        this.index = index;
+        this.username = username;
+        this.reason = reason;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + username + ": " + reason + " (" + message + ")";
+    }
+}
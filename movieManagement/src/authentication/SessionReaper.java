@@ -0,0 +1,153 @@
+package movieManagement.src.authentication;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hashed timing wheel: each session sits in the slot of its deadline tick, so a tick only touches what is due there
+public class SessionReaper {
+    public static final long DEFAULT_TICK_MILLIS = 1000L;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final AuthManager authManager;
+    private final long tickMillis;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Entry>[] slots;
+    private volatile long lastProcessedTick;
+    private final AtomicLong totalReaped;
+    private volatile long reapedLastInterval;
+    private ScheduledExecutorService executor;
+
+    private static class Entry {
+        private final AuthSession session;
+        private final long deadlineTick;
+
+        private Entry(AuthSession session, long deadlineTick) {
+            this.session = session;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    public SessionReaper(AuthManager authManager) {
+        this(authManager, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public SessionReaper(AuthManager authManager, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a positive power of two.");
+        }
+        this.authManager = authManager;
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = newSlots(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ConcurrentLinkedQueue<Entry>();
+        }
+        this.lastProcessedTick = System.currentTimeMillis() / tickMillis;
+        this.totalReaped = new AtomicLong();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLinkedQueue<Entry>[] newSlots(int wheelSize) {
+        return (ConcurrentLinkedQueue<Entry>[]) new ConcurrentLinkedQueue<?>[wheelSize];
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> advanceTo(System.currentTimeMillis()), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    public void schedule(AuthSession session) {
+        // Rounding up to the next tick keeps a rescheduled entry out of the tick that is being processed
+        long deadlineTick = authManager.getDeadline(session) / tickMillis + 1;
+        deadlineTick = Math.max(deadlineTick, lastProcessedTick + 1);
+        slots[(int) (deadlineTick & mask)].add(new Entry(session, deadlineTick));
+    }
+
+    // Only the reaper thread (or a test driving the wheel by hand) advances it, so ticks never run concurrently
+    public synchronized int advanceTo(long now) {
+        long targetTick = now / tickMillis;
+        int reaped = 0;
+        if (targetTick - lastProcessedTick > mask) {
+            // Fell more than a full revolution behind: one sweep of every slot covers all due entries
+            for (int i = 0; i <= mask; i++) {
+                reaped += processSlot(i, targetTick, now);
+            }
+        } else {
+            for (long tick = lastProcessedTick + 1; tick <= targetTick; tick++) {
+                reaped += processSlot((int) (tick & mask), tick, now);
+            }
+        }
+        if (targetTick > lastProcessedTick) {
+            lastProcessedTick = targetTick;
+        }
+        reapedLastInterval = reaped;
+        totalReaped.addAndGet(reaped);
+        return reaped;
+    }
+
+    private int processSlot(int slot, long tick, long now) {
+        int reaped = 0;
+        Iterator<Entry> iterator = slots[slot].iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.deadlineTick > tick) {
+                continue;
+            }
+            iterator.remove();
+            AuthSession session = entry.session;
+            if (!session.isActive()) {
+                continue;
+            }
+            if (authManager.getDeadline(session) <= now) {
+                if (authManager.expire(session)) {
+                    reaped++;
+                }
+            } else {
+                // Touched since it was scheduled: move it to its new deadline
+                schedule(session);
+            }
+        }
+        return reaped;
+    }
+
+    public long getReapedLastInterval() {
+        return reapedLastInterval;
+    }
+
+    public long getTotalReaped() {
+        return totalReaped.get();
+    }
+
+    public int getPendingCount() {
+        int pending = 0;
+        for (ConcurrentLinkedQueue<Entry> slot : slots) {
+            pending += slot.size();
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,52 @@
+package movieManagement.src.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU of recent successful sign-ins so a burst of re-authentication skips the full KDF
+class VerificationCache {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<String, Boolean> entries;
+
+    VerificationCache(int capacity) {
+        this.entries = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    synchronized void remember(String key) {
+        entries.put(key, Boolean.TRUE);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    // The key digests the stored hash together with the candidate, so a changed credential can never hit an old entry
+    static String keyFor(String userId, byte[] storedFingerprint, String candidate) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(storedFingerprint);
+            digest.update(candidate.getBytes(StandardCharsets.UTF_8));
+            return userId + ":" + Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable.", e);
+        }
+    }
+}
@@ -33,6 +33,18 @@ public class InvalidCredentialException extends Exception {
         return result + "\n";
     }
 
+    private static String buildMessage(int minLength, boolean tooShort, boolean hasUpper, boolean hasLower,
+                                       boolean hasNumber, boolean hasSpecial, boolean denied) {
+        String result = "";
+        if (tooShort)
+            result += "Password must be at least " + minLength + " characters long\n";
+        if (!(hasUpper && hasLower && hasNumber && hasSpecial))
+            result += buildMessage(hasUpper, hasLower, hasNumber, hasSpecial);
+        if (denied)
+            result += "Password is too common, please choose another one\n";
+        return result;
+    }
+
     public InvalidCredentialException() {
         super("Password must be at least 8 characters long\n");
     }
@@ -40,5 +52,10 @@ public class InvalidCredentialException extends Exception {
     public InvalidCredentialException(boolean hasUpper, boolean hasLower, boolean hasNumber, boolean hasSpecial) {
         super(buildMessage(hasUpper, hasLower, hasNumber, hasSpecial));
     }
+
+    public InvalidCredentialException(int minLength, boolean tooShort, boolean hasUpper, boolean hasLower,
+                                      boolean hasNumber, boolean hasSpecial, boolean denied) {
+        super(buildMessage(minLength, tooShort, hasUpper, hasLower, hasNumber, hasSpecial, denied));
+    }
 }
 
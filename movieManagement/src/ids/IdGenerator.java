@@ -0,0 +1,6 @@
+package movieManagement.src.ids;
+
+// Source of 64-bit ids. Ids are kept as longs and only rendered to text when someone asks for it.
+public interface IdGenerator {
+    long nextId();
+}
@@ -0,0 +1,80 @@
+package movieManagement.src.ids;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered ids: [41 bits millis since EPOCH][10 bits worker][12 bits sequence]. Ids from one generator
+// always increase, so they sort by creation time and can be range-scanned.
+public class SnowflakeIdGenerator implements IdGenerator {
+    public static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    public static final int MAX_WORKER_ID = 1023;
+    public static final int RENDERED_LENGTH = 16;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long workerBits;
+    // Packed [millis][sequence] of the last id handed out
+    private final AtomicLong lastState;
+
+    public SnowflakeIdGenerator() {
+        this(0);
+    }
+
+    public SnowflakeIdGenerator(int workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ".");
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.lastState = new AtomicLong();
+    }
+
+    // Lock-free. When a millisecond's sequence runs out, or the clock steps back, the id borrows the next
+    // millisecond instead of waiting, so ids never repeat or go backwards.
+    @Override
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long previous;
+        long next;
+        do {
+            previous = lastState.get();
+            next = (previous >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : previous + 1;
+        } while (!lastState.compareAndSet(previous, next));
+        return ((next >>> SEQUENCE_BITS) << (SEQUENCE_BITS + WORKER_BITS)) | workerBits | (next & SEQUENCE_MASK);
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (SEQUENCE_BITS + WORKER_BITS)) + EPOCH;
+    }
+
+    public static int workerOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_WORKER_ID);
+    }
+
+    // Fixed-width lowercase hex, so the text sorts the same way as the number
+    public static String format(long id) {
+        char[] chars = new char[RENDERED_LENGTH];
+        for (int i = RENDERED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    // Returns -1 for text that is not a rendered id
+    public static long parse(String text) {
+        if (text == null || text.length() != RENDERED_LENGTH) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < RENDERED_LENGTH; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0 || Character.isUpperCase(text.charAt(i))) {
+                return -1;
+            }
+            id = (id << 4) | digit;
+        }
+        return id < 0 ? -1 : id;
+    }
+}
@@ -0,0 +1,19 @@
+package movieManagement.src.movie;
+
+// Notified after a movie is added to or removed from a MovieCatalog, or rented, sold or reviewed in it, on the
+// thread that changed it
+public interface CatalogListener {
+    void movieAdded(Movie movie);
+
+    void movieRemoved(Movie movie);
+
+    default void movieRented(Movie movie) {
+    }
+
+    default void movieSold(Movie movie) {
+    }
+
+    // After a review is added or edited
+    default void movieReviewed(Movie movie) {
+    }
+}
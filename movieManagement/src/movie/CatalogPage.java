@@ -0,0 +1,28 @@
+package movieManagement.src.movie;
+
+import java.util.Collections;
+import java.util.List;
+
+// One page of a catalog listing. The token resumes right after the last movie looked at, so movies added in
+// the meantime never shift later pages; it is null once the listing is exhausted.
+public class CatalogPage {
+    private final List<Movie> movies;
+    private final String continuationToken;
+
+    CatalogPage(List<Movie> movies, String continuationToken) {
+        this.movies = Collections.unmodifiableList(movies);
+        this.continuationToken = continuationToken;
+    }
+
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasMore() {
+        return continuationToken != null;
+    }
+}
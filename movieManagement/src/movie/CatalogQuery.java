@@ -0,0 +1,151 @@
+package movieManagement.src.movie;
+
+import java.time.LocalDate;
+
+// What MovieCatalog.list returns: an order, a page size and optional filters. Ranges include both ends.
+// A continuation token is only valid for a query with the same order and filters.
+public class CatalogQuery {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final CatalogSort sort;
+    private final boolean descending;
+    private final int pageSize;
+    private String director;
+    private String studio;
+    private int minPrice;
+    private int maxPrice;
+    private LocalDate releasedFrom;
+    private LocalDate releasedTo;
+    private double minRating;
+
+    public CatalogQuery(CatalogSort sort) {
+        this(sort, false, DEFAULT_PAGE_SIZE);
+    }
+
+    public CatalogQuery(CatalogSort sort, boolean descending, int pageSize) {
+        if (sort == null) {
+            throw new IllegalArgumentException("Sort order cannot be null.");
+        }
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        this.sort = sort;
+        this.descending = descending;
+        this.pageSize = pageSize;
+        this.minPrice = 0;
+        this.maxPrice = Integer.MAX_VALUE;
+    }
+
+    public CatalogSort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getDirector() {
+        return director;
+    }
+
+    // Matched ignoring case; null lists every director
+    public void setDirector(String director) {
+        this.director = director;
+    }
+
+    public String getStudio() {
+        return studio;
+    }
+
+    public void setStudio(String studio) {
+        this.studio = studio;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setPriceRange(int minPrice, int maxPrice) {
+        if (minPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException("Price range must be non-negative and in order.");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public LocalDate getReleasedFrom() {
+        return releasedFrom;
+    }
+
+    public LocalDate getReleasedTo() {
+        return releasedTo;
+    }
+
+    // Either end may be null for an open range. Movies without a known release date never match a range.
+    public void setReleaseRange(LocalDate releasedFrom, LocalDate releasedTo) {
+        if (releasedFrom != null && releasedTo != null && releasedFrom.isAfter(releasedTo)) {
+            throw new IllegalArgumentException("Release range starts after it ends.");
+        }
+        this.releasedFrom = releasedFrom;
+        this.releasedTo = releasedTo;
+    }
+
+    public double getMinRating() {
+        return minRating;
+    }
+
+    // Above 0, unreviewed movies are left out
+    public void setMinRating(double minRating) {
+        if (minRating < 0 || minRating > 10) {
+            throw new IllegalArgumentException("Minimum rating must be between 0 and 10.");
+        }
+        this.minRating = minRating;
+    }
+
+    boolean hasReleaseRange() {
+        return releasedFrom != null || releasedTo != null;
+    }
+
+    boolean matches(Movie movie) {
+        if (director != null && !director.equalsIgnoreCase(movie.getDirector())) {
+            return false;
+        }
+        if (studio != null && !studio.equalsIgnoreCase(movie.getStudio())) {
+            return false;
+        }
+        if (movie.getMoviePrice() < minPrice || movie.getMoviePrice() > maxPrice) {
+            return false;
+        }
+        if (hasReleaseRange()) {
+            if (!movie.hasReleaseDay()) {
+                return false;
+            }
+            if (releasedFrom != null && movie.getReleaseDay() < releasedFrom.toEpochDay()) {
+                return false;
+            }
+            if (releasedTo != null && movie.getReleaseDay() > releasedTo.toEpochDay()) {
+                return false;
+            }
+        }
+        return minRating <= 0 || (movie.getReviewCount() > 0 && movie.getAverageRating() >= minRating);
+    }
+
+    // Ties a continuation token to the order and filters it was issued for
+    String fingerprint() {
+        return sort + "|" + descending + "|" + lower(director) + "|" + lower(studio) + "|" + minPrice + "|" + maxPrice
+                + "|" + releasedFrom + "|" + releasedTo + "|" + minRating;
+    }
+
+    private static String lower(String text) {
+        return text != null ? text.toLowerCase() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package movieManagement.src.movie;
+
+// Orders a catalog listing can be paged in. Movies that tie keep the order they were added in.
+public enum CatalogSort {
+    ADDED,
+    TITLE,
+    PRICE,
+    // Movies without a known release date come after all dated ones
+    RELEASE_DATE,
+    // Average review rating; unreviewed movies come before any rated one
+    RATING,
+    // Movie.getBayesianRating, so a handful of glowing reviews does not beat a long record of good ones
+    TOP_RATED
+}
@@ -0,0 +1,66 @@
+package movieManagement.src.movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Append-only history stored in fixed-size chunks so growing it never copies what is already there
+class ChunkedLog<T> {
+    static final int CHUNK_SIZE = 256;
+
+    private final Chunk<T> head;
+    private final AtomicReference<Chunk<T>> tail;
+    private final AtomicInteger size;
+
+    private static class Chunk<T> {
+        private final AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(CHUNK_SIZE);
+        private final AtomicInteger claimed = new AtomicInteger();
+        private final AtomicReference<Chunk<T>> next = new AtomicReference<>();
+    }
+
+    ChunkedLog() {
+        this.head = new Chunk<>();
+        this.tail = new AtomicReference<>(head);
+        this.size = new AtomicInteger();
+    }
+
+    void append(T item) {
+        while (true) {
+            Chunk<T> chunk = tail.get();
+            int slot = chunk.claimed.getAndIncrement();
+            if (slot < CHUNK_SIZE) {
+                chunk.slots.set(slot, item);
+                size.incrementAndGet();
+                return;
+            }
+            // Chunk is full: link a new one (or help whoever already did) and retry
+            Chunk<T> next = chunk.next.get();
+            if (next == null) {
+                Chunk<T> fresh = new Chunk<>();
+                next = chunk.next.compareAndSet(null, fresh) ? fresh : chunk.next.get();
+            }
+            tail.compareAndSet(chunk, next);
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    List<T> toList() {
+        List<T> items = new ArrayList<>(size.get());
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next.get()) {
+            int filled = Math.min(chunk.claimed.get(), CHUNK_SIZE);
+            for (int i = 0; i < filled; i++) {
+                T item = chunk.slots.get(i);
+                // A claimed slot can still be empty while its writer is between claim and set
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,16 @@
+package movieManagement.src.movie;
+
+import movieManagement.src.users.Customer;
+
+// Who holds a heap copy and until when. Swapped in as one reference, so a copy is never seen as taken without its
+// holder.
+final class CopyHolding {
+    final Customer customer;
+    // Epoch millis; 0 for sales
+    final long dueDate;
+
+    CopyHolding(Customer customer, long dueDate) {
+        this.customer = customer;
+        this.dueDate = dueDate;
+    }
+}
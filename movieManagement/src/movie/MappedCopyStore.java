@@ -0,0 +1,226 @@
+package movieManagement.src.movie;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import movieManagement.src.users.Customer;
+
+// Copy state kept off-heap in fixed-width records of a memory-mapped file, addressed by a dense copy number.
+// Record layout: [status int][kind int][holder id long][due date long][reserved 8 bytes]
+public class MappedCopyStore implements AutoCloseable {
+    public static final int RECORD_BYTES = 32;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+    public static final int FREE = 0;
+    public static final int RENTED = 1;
+    public static final int SOLD = 2;
+    public static final int KIND_RENTAL = 1;
+    public static final int KIND_SALE = 2;
+
+    // Held only while tryAcquire writes the holder, so RENTED or SOLD is never seen without one
+    private static final int ACQUIRING = -1;
+    private static final int MAGIC = 0x4D4D4353;
+    private static final int HEADER_BYTES = 64;
+    private static final int STATUS_OFFSET = 0;
+    private static final int KIND_OFFSET = 4;
+    private static final int HOLDER_OFFSET = 8;
+    private static final int DUE_DATE_OFFSET = 16;
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final int recordsPerSegment;
+    private final int segmentShift;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] segments;
+    // Holder ids are interned so a record stores 8 bytes instead of a reference the GC has to trace
+    private final Map<Customer, Long> holderIds;
+    private final Map<Long, Customer> holders;
+    private final AtomicLong nextHolderId;
+
+    private MappedCopyStore(FileChannel channel, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0 || Integer.bitCount(recordsPerSegment) != 1) {
+            throw new IllegalArgumentException("Records per segment must be a positive power of two.");
+        }
+        this.channel = channel;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segmentShift = Integer.numberOfTrailingZeros(recordsPerSegment);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        this.segments = new MappedByteBuffer[0];
+        this.holderIds = new ConcurrentHashMap<Customer, Long>();
+        this.holders = new ConcurrentHashMap<Long, Customer>();
+        this.nextHolderId = new AtomicLong();
+        int magic = (int) INT_VIEW.getVolatile(header, 0);
+        if (magic == 0) {
+            INT_VIEW.setVolatile(header, 4, recordsPerSegment);
+            INT_VIEW.setVolatile(header, 0, MAGIC);
+        } else if (magic != MAGIC || (int) INT_VIEW.getVolatile(header, 4) != recordsPerSegment) {
+            throw new IOException("Copy store has an unknown format or segment size.");
+        } else {
+            // A process that died inside tryAcquire never got the copy
+            for (int copyNumber = 0; copyNumber < size(); copyNumber++) {
+                INT_VIEW.compareAndSet(segmentFor(copyNumber), offsetOf(copyNumber) + STATUS_OFFSET, ACQUIRING, FREE);
+            }
+        }
+    }
+
+    public static MappedCopyStore open(Path path) throws IOException {
+        return open(path, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public static MappedCopyStore open(Path path, int recordsPerSegment) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MappedCopyStore(channel, recordsPerSegment);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // The record count lives in the header, so a reopened store keeps numbering where it stopped
+    public int allocate(int kind) {
+        if (kind != KIND_RENTAL && kind != KIND_SALE) {
+            throw new IllegalArgumentException("Unknown copy kind: " + kind);
+        }
+        long copyNumber = (long) LONG_VIEW.getAndAdd(header, 8, 1L);
+        if (copyNumber > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Copy store is full.");
+        }
+        int number = (int) copyNumber;
+        MappedByteBuffer segment = segmentFor(number);
+        int offset = offsetOf(number);
+        LONG_VIEW.setVolatile(segment, offset + HOLDER_OFFSET, 0L);
+        LONG_VIEW.setVolatile(segment, offset + DUE_DATE_OFFSET, 0L);
+        INT_VIEW.setVolatile(segment, offset + KIND_OFFSET, kind);
+        INT_VIEW.setVolatile(segment, offset + STATUS_OFFSET, FREE);
+        return number;
+    }
+
+    public int size() {
+        return (int) (long) LONG_VIEW.getVolatile(header, 8);
+    }
+
+    // Only the caller whose CAS moves the copy out of FREE owns it. The status is published after the holder.
+    public boolean tryAcquire(int copyNumber, int status, Customer holder, long dueDate) {
+        if (status != RENTED && status != SOLD) {
+            throw new IllegalArgumentException("Copies can only be rented or sold: " + status);
+        }
+        MappedByteBuffer segment = segmentFor(copyNumber);
+        int offset = offsetOf(copyNumber);
+        long holderId = internHolder(holder);
+        if (!INT_VIEW.compareAndSet(segment, offset + STATUS_OFFSET, FREE, ACQUIRING)) {
+            return false;
+        }
+        LONG_VIEW.setVolatile(segment, offset + DUE_DATE_OFFSET, dueDate);
+        LONG_VIEW.setVolatile(segment, offset + HOLDER_OFFSET, holderId);
+        INT_VIEW.setVolatile(segment, offset + STATUS_OFFSET, status);
+        return true;
+    }
+
+    public void release(int copyNumber) {
+        MappedByteBuffer segment = segmentFor(copyNumber);
+        int offset = offsetOf(copyNumber);
+        LONG_VIEW.setVolatile(segment, offset + HOLDER_OFFSET, 0L);
+        LONG_VIEW.setVolatile(segment, offset + DUE_DATE_OFFSET, 0L);
+        INT_VIEW.setVolatile(segment, offset + STATUS_OFFSET, FREE);
+    }
+
+    // Waits out an acquire in progress, which only has two stores left to make
+    public int getStatus(int copyNumber) {
+        MappedByteBuffer segment = segmentFor(copyNumber);
+        int offset = offsetOf(copyNumber);
+        int status;
+        while ((status = (int) INT_VIEW.getVolatile(segment, offset + STATUS_OFFSET)) == ACQUIRING) {
+            Thread.onSpinWait();
+        }
+        return status;
+    }
+
+    public int getKind(int copyNumber) {
+        return (int) INT_VIEW.getVolatile(segmentFor(copyNumber), offsetOf(copyNumber) + KIND_OFFSET);
+    }
+
+    public Customer getHolder(int copyNumber) {
+        long holderId = (long) LONG_VIEW.getVolatile(segmentFor(copyNumber), offsetOf(copyNumber) + HOLDER_OFFSET);
+        return holderId != 0 ? holders.get(holderId) : null;
+    }
+
+    public long getDueDate(int copyNumber) {
+        return (long) LONG_VIEW.getVolatile(segmentFor(copyNumber), offsetOf(copyNumber) + DUE_DATE_OFFSET);
+    }
+
+    public int getHolderCount() {
+        return holderIds.size();
+    }
+
+    // Id 0 means no holder
+    private long internHolder(Customer holder) {
+        if (holder == null) {
+            return 0L;
+        }
+        return holderIds.computeIfAbsent(holder, customer -> {
+            long id = nextHolderId.incrementAndGet();
+            holders.put(id, customer);
+            return id;
+        });
+    }
+
+    private int offsetOf(int copyNumber) {
+        return (copyNumber & (recordsPerSegment - 1)) * RECORD_BYTES;
+    }
+
+    private MappedByteBuffer segmentFor(int copyNumber) {
+        if (copyNumber < 0) {
+            throw new IndexOutOfBoundsException("Copy number cannot be negative: " + copyNumber);
+        }
+        int index = copyNumber >>> segmentShift;
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        return mapSegment(index);
+    }
+
+    // Growth is rare, so mapping new segments under a lock keeps the hot path to one volatile array read
+    private synchronized MappedByteBuffer mapSegment(int index) {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        MappedByteBuffer[] grown = new MappedByteBuffer[index + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        long segmentBytes = (long) recordsPerSegment * RECORD_BYTES;
+        try {
+            for (int i = current.length; i <= index; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * segmentBytes, segmentBytes);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map copy store segment: " + e.getMessage(), e);
+        }
+        segments = grown;
+        return grown[index];
+    }
+
+    public void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -1,141 +1,396 @@
 package movieManagement.src.movie;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import movieManagement.src.users.Customer;
 
 public class Movie {
+    public static final int DEFAULT_RENTAL_STOCK = 10;
+    public static final int DEFAULT_SALE_STOCK = 10;
+    // Release day of a movie whose release date is missing or not a real date
+    public static final int UNKNOWN_RELEASE_DAY = Integer.MIN_VALUE;
+    // Every movie starts as if it had this many reviews at this rating when ranked by getBayesianRating
+    public static final double BAYESIAN_PRIOR_RATING = 5.0;
+    public static final int BAYESIAN_PRIOR_WEIGHT = 10;
+
+    // When set, new copies are flyweight views over mapped records instead of heap objects
+    private static volatile MappedCopyStore defaultCopyStore;
+
 	private String imdbId;
     private String title;
     private String director;
     private String studio; 
     private String releaseDate; 
+    // The release date as days since 1970-01-01, parsed once so date ranges compare ints
+    private final int releaseDay;
     private String movieDescription;
     private int moviePrice;
-    private List<RentalMovieDuplicate> rentalCopies; 
-    private List<SalableMovieDuplicate> saleCopies; 
-    private ArrayList<SalableMovieDuplicate> soldCopies;
-    private List<Review> allReviews;
+    private final int initialRentalStock;
+    private final int initialSaleStock;
+    // Copies in stock that have no object yet; one is created only when it is rented, sold or looked at
+    private AtomicInteger unprovisionedRentalStock;
+    private AtomicInteger unprovisionedSaleStock;
+    private Queue<RentalMovieDuplicate> rentalCopies; 
+    private ConcurrentLinkedDeque<RentalMovieDuplicate> freeRentalCopies;
+    private AtomicInteger availableRentalCount;
+    private Map<Customer, ConcurrentLinkedDeque<RentalMovieDuplicate>> rentedCopiesByCustomer;
+    private Queue<SalableMovieDuplicate> saleCopies; 
+    private AtomicInteger availableSaleCount;
+    // Created on the first sale; most titles never sell one
+    private volatile ChunkedLog<SalableMovieDuplicate> soldCopies;
+    // Keyed by the reviewer's user id so the one-review-per-customer check is a lookup, not a scan of every
+    // review; linked so reviews still list in the order they were written. Guarded by itself.
+    private final Map<String, Review> reviewsByCustomer;
+    // Running totals over reviewsByCustomer, updated under the same lock so rating reads never scan reviews
+    private long ratingTotal;
+    private long ratingSquareTotal;
+    private final int[] ratingHistogram;
+    private final MappedCopyStore copyStore;
+    private final AtomicInteger rentalCount;
+    // The catalog holding this movie, told about rentals so its listeners can follow popularity
+    private volatile MovieCatalog catalog;
 
     public Movie(String imdbId, String title, String director, String studio, String releaseDate, String movieDescription, int price) {
+        this(imdbId, title, director, studio, releaseDate, movieDescription, price, DEFAULT_RENTAL_STOCK, DEFAULT_SALE_STOCK);
+    }
+
+    public Movie(String imdbId, String title, String director, String studio, String releaseDate, String movieDescription, int price,
+                 int rentalStock, int saleStock) {
+        if (rentalStock < 0 || saleStock < 0) {
+            throw new IllegalArgumentException("Initial stock cannot be negative.");
+        }
         this.imdbId = imdbId;
         this.title = title;
         this.director = director;
         this.studio = studio;
         this.releaseDate = releaseDate;
+        this.releaseDay = parseReleaseDay(releaseDate);
         this.movieDescription = movieDescription;
         this.moviePrice = price;
-        this.rentalCopies = new ArrayList<>();
-        this.saleCopies = new ArrayList<>();
-        this.soldCopies = new ArrayList<>();
-        this.allReviews = new ArrayList<>();
-        initializeDefaultCopies();
+        this.rentalCopies = new ConcurrentLinkedQueue<>();
+        this.freeRentalCopies = new ConcurrentLinkedDeque<>();
+        this.availableRentalCount = new AtomicInteger();
+        this.rentedCopiesByCustomer = new ConcurrentHashMap<>();
+        this.saleCopies = new ConcurrentLinkedQueue<>();
+        this.availableSaleCount = new AtomicInteger();
+        this.reviewsByCustomer = new LinkedHashMap<>();
+        this.ratingHistogram = new int[Review.MAX_RATING - Review.MIN_RATING + 1];
+        this.copyStore = defaultCopyStore;
+        this.initialRentalStock = rentalStock;
+        this.initialSaleStock = saleStock;
+        this.unprovisionedRentalStock = new AtomicInteger(rentalStock);
+        this.unprovisionedSaleStock = new AtomicInteger(saleStock);
+        this.rentalCount = new AtomicInteger();
     }
-    
-    private void initializeDefaultCopies() {
-        // Add 10 rental copies
-        for (int i = 0; i < 10; i++) {
-            rentalCopies.add(new RentalMovieDuplicate(this));
+
+    // Adds copies to stock without creating them
+    public void addRentalStock(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Stock to add cannot be negative.");
         }
-        // Add 10 sale copies
-        for (int i = 0; i < 10; i++) {
-            saleCopies.add(new SalableMovieDuplicate(this));
+        unprovisionedRentalStock.addAndGet(count);
+    }
+
+    public void addSaleStock(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Stock to add cannot be negative.");
         }
+        unprovisionedSaleStock.addAndGet(count);
+    }
+
+    public int getInitialRentalStock() {
+        return initialRentalStock;
+    }
+
+    public int getInitialSaleStock() {
+        return initialSaleStock;
+    }
+
+    private static boolean takeStock(AtomicInteger stock) {
+        int remaining;
+        do {
+            remaining = stock.get();
+            if (remaining == 0) {
+                return false;
+            }
+        } while (!stock.compareAndSet(remaining, remaining - 1));
+        return true;
+    }
+
+    public static void setDefaultCopyStore(MappedCopyStore store) {
+        defaultCopyStore = store;
+    }
+
+    public static MappedCopyStore getDefaultCopyStore() {
+        return defaultCopyStore;
+    }
+
+    public RentalMovieDuplicate createRentalCopy() {
+        return copyStore != null ? new RentalMovieDuplicate(this, copyStore) : new RentalMovieDuplicate(this);
+    }
+
+    public SalableMovieDuplicate createSaleCopy() {
+        return copyStore != null ? new SalableMovieDuplicate(this, copyStore) : new SalableMovieDuplicate(this);
     }
     
     //selling movie
     public boolean isSalable() {
-    	if (saleCopies.isEmpty()) {
-    		return false;
-    	}else {
-    		return true;
-    	}
+    	return availableSaleCount.get() > 0 || unprovisionedSaleStock.get() > 0;
     }
     
-    public void Buy(Customer customer) {
-        if (!isSalable()) {
+    public boolean Buy(Customer customer) {
+        boolean bought = buyCopy(customer);
+        if (!bought) {
         	System.out.print("No movie available for selling.\n"); 
         }else{
-        	SalableMovieDuplicate sellingCopy = saleCopies.remove(0);
-        	sellingCopy.sold(customer);
-        	soldCopies.add(sellingCopy);
            	System.out.print("Buying Successfully for movie\n");
         }
-    	
+        return bought;
+    }
+
+    public boolean buyCopy(Customer customer) {
+        SalableMovieDuplicate sellingCopy = reserveSaleCopy(customer);
+        if (sellingCopy == null) {
+            return false;
+        }
+        soldLog().append(sellingCopy);
+        MovieCatalog owner = catalog;
+        if (owner != null) {
+            owner.movieSold(this);
+        }
+        return true;
+    }
+
+    // Initial stock sells before copies stocked later, as it did when it was created up front
+    private SalableMovieDuplicate reserveSaleCopy(Customer customer) {
+        SalableMovieDuplicate copy;
+        if (takeStock(unprovisionedSaleStock)) {
+            copy = createSaleCopy();
+            copy.trySell(customer);
+            return copy;
+        }
+        while ((copy = saleCopies.poll()) != null) {
+            availableSaleCount.decrementAndGet();
+            if (copy.trySell(customer)) {
+                return copy;
+            }
+        }
+        return null;
+    }
+    
+    private void releaseSaleCopy(SalableMovieDuplicate copy) {
+        saleCopies.add(copy);
+        availableSaleCount.incrementAndGet();
     }
     
     public List<SalableMovieDuplicate> getSoldCopies() {
-        return new ArrayList<>(soldCopies);
+        ChunkedLog<SalableMovieDuplicate> log = soldCopies;
+        return log != null ? log.toList() : new ArrayList<>();
     } 
 
+    public int getSoldCopyCount() {
+        ChunkedLog<SalableMovieDuplicate> log = soldCopies;
+        return log != null ? log.size() : 0;
+    }
+
+    private ChunkedLog<SalableMovieDuplicate> soldLog() {
+        ChunkedLog<SalableMovieDuplicate> log = soldCopies;
+        if (log == null) {
+            synchronized (this) {
+                log = soldCopies;
+                if (log == null) {
+                    log = new ChunkedLog<>();
+                    soldCopies = log;
+                }
+            }
+        }
+        return log;
+    }
+
 	//renting movie
-    public void Lend(Customer customer) {
-    	RentalMovieDuplicate rentingCopy = getAvailableLendingCopy();
-        if (rentingCopy == null) { 
+    public boolean Lend(Customer customer) {
+        boolean lent = lendCopy(customer);
+        if (!lent) { 
             System.out.print("No movie available for lending.\n"); 
         }else{
-        	rentingCopy.rent(customer);
            	System.out.print("Lending Successfully for movie\n");
         }
-
+        return lent;
 	}
+
+    public boolean lendCopy(Customer customer) {
+        RentalMovieDuplicate rentingCopy = reserveRentalCopy(customer);
+        if (rentingCopy == null) {
+            return false;
+        }
+        holdRentalCopy(customer, rentingCopy);
+        rentalCount.incrementAndGet();
+        MovieCatalog owner = catalog;
+        if (owner != null) {
+            owner.movieRented(this);
+        }
+        return true;
+    }
+
+    // Every successful rental ever made, returned or not
+    public int getRentalCount() {
+        return rentalCount.get();
+    }
+
+    // Restores rentals counted before a restart without renting anything
+    public void addRentalCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Rental count cannot be negative.");
+        }
+        if (count == 0) {
+            return;
+        }
+        rentalCount.addAndGet(count);
+        MovieCatalog owner = catalog;
+        if (owner != null) {
+            owner.movieRented(this);
+        }
+    }
+
+    MovieCatalog getCatalog() {
+        return catalog;
+    }
+
+    void setCatalog(MovieCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    // Copies rented directly through RentalMovieDuplicate.rent may still sit in the pool. A lost CAS drops them
+    // here, and returnMovie puts them back.
+    private RentalMovieDuplicate reserveRentalCopy(Customer customer) {
+        RentalMovieDuplicate copy;
+        while ((copy = freeRentalCopies.pollFirst()) != null) {
+            availableRentalCount.decrementAndGet();
+            copy.leavePool();
+            if (copy.tryRent(customer)) {
+                return copy;
+            }
+        }
+        // Returned copies are reused first so new ones are only created when the pool runs dry
+        if (!takeStock(unprovisionedRentalStock)) {
+            return null;
+        }
+        copy = createRentalCopy();
+        copy.leavePool();
+        copy.tryRent(customer);
+        rentalCopies.add(copy);
+        return copy;
+    }
     
+    // Callers may rent the returned copy directly, so it has to exist and sit in the pool
     public RentalMovieDuplicate getAvailableLendingCopy() {
-    	for (RentalMovieDuplicate copy: this.rentalCopies) {
-    		if (!copy.isRented()) {
-    			return copy;
-    		}
-    	}
-		return null;
+        RentalMovieDuplicate copy = freeRentalCopies.peekFirst();
+        if (copy == null && takeStock(unprovisionedRentalStock)) {
+            copy = createRentalCopy();
+            rentalCopies.add(copy);
+            copy.enterPoolWhenStocked();
+            releaseRentalCopy(copy);
+        }
+    	return copy;
 	}
     
     public boolean hasAvailableRentalCopy() {
-        return getAvailableLendingCopy() != null;
+        return !freeRentalCopies.isEmpty() || unprovisionedRentalStock.get() > 0;
     }
     
     public RentalMovieDuplicate getRentedCopyByCustomer(Customer customer) {
-        for (RentalMovieDuplicate copy: this.rentalCopies) {
-            if (copy.isRented() && copy.getCustomer() != null && copy.getCustomer() == customer) {
-                return copy;
-            }
-        }
-        return null;
+        ConcurrentLinkedDeque<RentalMovieDuplicate> copies = rentedCopiesByCustomer.get(customer);
+        return copies != null ? copies.peekFirst() : null;
     }
     
     public boolean Return(Customer customer) {
-        RentalMovieDuplicate rentedCopy = getRentedCopyByCustomer(customer);
-        if (rentedCopy == null) {
+        boolean returned = returnCopy(customer);
+        if (!returned) {
             System.out.print("You have not rented this movie.\n");
-            return false;
         } else {
-            rentedCopy.returnMovie();
             System.out.print("Movie returned successfully.\n");
-            return true;
         }
+        return returned;
+    }
+
+    public boolean returnCopy(Customer customer) {
+        RentalMovieDuplicate[] returned = new RentalMovieDuplicate[1];
+        rentedCopiesByCustomer.computeIfPresent(customer, (c, copies) -> {
+            returned[0] = copies.pollFirst();
+            return copies.isEmpty() ? null : copies;
+        });
+        RentalMovieDuplicate rentedCopy = returned[0];
+        if (rentedCopy == null) {
+            return false;
+        }
+        rentedCopy.returnMovie();
+        return true;
+    }
+
+    // Appending inside compute keeps Return from dropping the customer's deque while a copy is being added to it
+    private void holdRentalCopy(Customer customer, RentalMovieDuplicate copy) {
+        rentedCopiesByCustomer.compute(customer, (c, copies) -> {
+            ConcurrentLinkedDeque<RentalMovieDuplicate> held = copies != null ? copies : new ConcurrentLinkedDeque<>();
+            held.addLast(copy);
+            return held;
+        });
+    }
+
+    // A copy already back in the pool, or never stocked here, is left alone
+    void rentalCopyReturned(RentalMovieDuplicate copy) {
+        if (copy.reenterPool()) {
+            releaseRentalCopy(copy);
+        }
+    }
+
+    private void releaseRentalCopy(RentalMovieDuplicate copy) {
+        freeRentalCopies.addLast(copy);
+        availableRentalCount.incrementAndGet();
     }
 	
     //rental copies add & get
     public String showAvailableRentalCopies() {
-    	int availableCount = 0;
-    	for (RentalMovieDuplicate rentalCopy: rentalCopies) {
-    		if (!rentalCopy.isRented())
-    			availableCount++;
-    	}
-        return availableCount + " available rentable copy";
+        return (availableRentalCount.get() + unprovisionedRentalStock.get()) + " available rentable copy";
     }
 
     public void addRentalCopy(RentalMovieDuplicate copy) {
-        rentalCopies.add(copy);
+        stockRentalCopy(copy);
         System.out.print("Add one rentable copy of movie\n");
     }
 
+    public void stockRentalCopy(RentalMovieDuplicate copy) {
+        rentalCopies.add(copy);
+        Customer holder = copy.getCustomer();
+        if (copy.isRented() && holder != null) {
+            copy.leavePool();
+            holdRentalCopy(holder, copy);
+        } else if (copy.enterPoolWhenStocked()) {
+            releaseRentalCopy(copy);
+        }
+    }
+
     //sale copies add & get
     public void addSaleableCopy(SalableMovieDuplicate copy) {
-        saleCopies.add(copy);
+        stockSaleCopy(copy);
         System.out.print("Add one seleable copy of movie\n");
     }
+
+    public void stockSaleCopy(SalableMovieDuplicate copy) {
+        if (!copy.isSold()) {
+            releaseSaleCopy(copy);
+        }
+    }
     public String showAvailableSellableCopies() {
-        return this.saleCopies.size() + " available sellable copy";
+        return (availableSaleCount.get() + unprovisionedSaleStock.get()) + " available sellable copy";
     }
 
     //review add & get
@@ -148,13 +403,15 @@ public class Movie {
         }
         
         // Check if customer already has a review for this movie
-        Review existingReview = getReviewByCustomer(review.getCustomer());
-        if (existingReview != null) {
-            System.out.print("Review already exists. You can edit your existing review.\n");
-            return false;
+        synchronized (reviewsByCustomer) {
+            if (reviewsByCustomer.putIfAbsent(review.getCustomer().getUserId(), review) != null) {
+                System.out.print("Review already exists. You can edit your existing review.\n");
+                return false;
+            }
+            countRating(review.getMovieRating(), 1);
+            review.setMovie(this);
         }
-        
-        allReviews.add(review);
+        reviewsChanged();
         return true;
     }
     
@@ -162,12 +419,9 @@ public class Movie {
         if (customer == null) {
             return null;
         }
-        for (Review review : allReviews) {
-            if (review.getCustomer() != null && review.getCustomer().equals(customer)) {
-                return review;
-            }
+        synchronized (reviewsByCustomer) {
+            return reviewsByCustomer.get(customer.getUserId());
         }
-        return null;
     }
     
     public boolean editReview(Customer customer, String newComments, int newRating) {
@@ -175,19 +429,117 @@ public class Movie {
             throw new IllegalArgumentException("Customer cannot be null.");
         }
         
-        Review existingReview = getReviewByCustomer(customer);
-        if (existingReview == null) {
+        if (!updateReview(customer, newComments, newRating)) {
             System.out.print("You have not reviewed this movie yet.\n");
             return false;
         }
-        
-        existingReview.setComments(newComments);
-        existingReview.setRating(newRating);
         System.out.print("Review updated successfully.\n");
         return true;
     }
+
+    // editReview without the console messages, for replaying history. A rating off the scale keeps the old one,
+    // while the new comment still applies.
+    public boolean updateReview(Customer customer, String newComments, int newRating) {
+        if (customer == null) {
+            return false;
+        }
+        synchronized (reviewsByCustomer) {
+            Review existingReview = reviewsByCustomer.get(customer.getUserId());
+            if (existingReview == null) {
+                return false;
+            }
+            existingReview.setComments(newComments);
+            if (Review.isOnScale(newRating)) {
+                rerateLocked(existingReview, newRating);
+            }
+        }
+        reviewsChanged();
+        return true;
+    }
+
+    // Review.setRating on a review this movie holds lands here
+    void rerate(Review review, int newRating) {
+        synchronized (reviewsByCustomer) {
+            rerateLocked(review, newRating);
+        }
+        reviewsChanged();
+    }
+
+    private void rerateLocked(Review review, int newRating) {
+        countRating(review.getMovieRating(), -1);
+        review.applyRating(newRating);
+        countRating(newRating, 1);
+    }
+
+    public int getReviewCount() {
+        synchronized (reviewsByCustomer) {
+            return reviewsByCustomer.size();
+        }
+    }
+
+    // 0 when there are no reviews yet
+    public double getAverageRating() {
+        synchronized (reviewsByCustomer) {
+            int count = reviewsByCustomer.size();
+            return count == 0 ? 0.0 : (double) ratingTotal / count;
+        }
+    }
+
+    // Population variance of the ratings; 0 with fewer than two reviews
+    public double getRatingVariance() {
+        synchronized (reviewsByCustomer) {
+            int count = reviewsByCustomer.size();
+            if (count < 2) {
+                return 0.0;
+            }
+            double mean = (double) ratingTotal / count;
+            return Math.max(0.0, (double) ratingSquareTotal / count - mean * mean);
+        }
+    }
+
+    // How many reviews gave each rating, indexed from Review.MIN_RATING
+    public int[] getRatingHistogram() {
+        synchronized (reviewsByCustomer) {
+            return ratingHistogram.clone();
+        }
+    }
+
+    // The average pulled towards the middle of the scale by a few imaginary reviews, so a title with one
+    // perfect review does not outrank one with hundreds of good ones
+    public double getBayesianRating() {
+        return getBayesianRating(BAYESIAN_PRIOR_RATING, BAYESIAN_PRIOR_WEIGHT);
+    }
+
+    public double getBayesianRating(double priorRating, int priorWeight) {
+        if (priorRating < Review.MIN_RATING || priorRating > Review.MAX_RATING || priorWeight < 0) {
+            throw new IllegalArgumentException("Prior rating must be on the review scale and its weight non-negative.");
+        }
+        synchronized (reviewsByCustomer) {
+            int count = reviewsByCustomer.size();
+            if (count + priorWeight == 0) {
+                return priorRating;
+            }
+            return (priorRating * priorWeight + ratingTotal) / (priorWeight + count);
+        }
+    }
+
+    // Caller holds the reviewsByCustomer lock
+    private void countRating(int rating, int delta) {
+        ratingTotal += (long) rating * delta;
+        ratingSquareTotal += (long) rating * rating * delta;
+        ratingHistogram[rating - Review.MIN_RATING] += delta;
+    }
+
+    // Lets the holding catalog re-rank this movie by rating
+    private void reviewsChanged() {
+        MovieCatalog owner = catalog;
+        if (owner != null) {
+            owner.movieReviewed(this);
+        }
+    }
     
     public void displayReviews() {
+        List<Review> allReviews = getAllReviews();
         if (allReviews.isEmpty()) {
             System.out.println("No reviews yet.");
         } else {
@@ -198,15 +550,94 @@ public class Movie {
     }
     
     public List<Review> getAllReviews() {
-        return new ArrayList<>(allReviews);
+        synchronized (reviewsByCustomer) {
+            return new ArrayList<>(reviewsByCustomer.values());
+        }
     }
     
     public int getMoviePrice() {
     	return this.moviePrice;
     }
+
+    public String getImdbId() {
+        return imdbId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDirector() {
+        return director;
+    }
+
+    public String getStudio() {
+        return studio;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    public int getReleaseDay() {
+        return releaseDay;
+    }
+
+    public boolean hasReleaseDay() {
+        return releaseDay != UNKNOWN_RELEASE_DAY;
+    }
+
+    // Accepts YYYY-MM-DD, or YYYY-MM and a bare YYYY (as IMDB gives it) counted from the first day of the month
+    // or year. Anything else, including dates that do not exist such as 1994-02-30, gives UNKNOWN_RELEASE_DAY.
+    public static int parseReleaseDay(String text) {
+        if (text == null) {
+            return UNKNOWN_RELEASE_DAY;
+        }
+        String date = text.trim();
+        int length = date.length();
+        if (length != 4 && length != 7 && length != 10) {
+            return UNKNOWN_RELEASE_DAY;
+        }
+        int year = digits(date, 0, 4);
+        int month = length >= 7 && date.charAt(4) == '-' ? digits(date, 5, 7) : length == 4 ? 1 : -1;
+        int day = length == 10 && date.charAt(7) == '-' ? digits(date, 8, 10) : length < 10 ? 1 : -1;
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return UNKNOWN_RELEASE_DAY;
+        }
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public String getMovieDescription() {
+        return movieDescription;
+    }
     
 	public String getDisplayText() {
 		return title + " by " + director + " IMDB ID: " + imdbId + " Studio: " + studio + " Release Date: " + releaseDate + " Price: " + moviePrice;
 	}
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Movie)) return false;
+        Movie other = (Movie) obj;
+        return imdbId != null && imdbId.equals(other.imdbId);
+    }
+
+    @Override
+    public int hashCode() {
+        return imdbId != null ? imdbId.hashCode() : System.identityHashCode(this);
+    }
 }
 
@@ -0,0 +1,416 @@
+package movieManagement.src.movie;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class MovieCatalog {
+    private static final long FIRST_RELEASE_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long LAST_RELEASE_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+    // Sorts movies without a known release date after every real one, outside any range a query can ask for
+    private static final int UNDATED_RELEASE_DAY = Integer.MAX_VALUE;
+    private static final int UNRATED = -1;
+    // Ratings are keyed in hundredths
+    private static final int RATING_KEY_SCALE = 100;
+    private static final String TOKEN_VERSION = "1";
+    // How many movies one page may look at before handing back a short page, so a filter that matches little
+    // still costs about the same per page
+    private static final int MIN_SCAN_BUDGET = 1024;
+    private static final int SCAN_BUDGET_PER_RESULT = 32;
+
+    private final Map<String, Entry> moviesById;
+    private final ConcurrentSkipListMap<Long, Movie> moviesInOrder;
+    private final Map<String, Set<Movie>> moviesByDirector;
+    private final Map<String, Set<Movie>> moviesByStudio;
+    // Keyed by releaseKey, so a year, decade or any date range is one ordered sub-map
+    private final ConcurrentSkipListMap<Long, Movie> moviesByRelease;
+    // Sorted views behind list(); every key ends in the insertion sequence so equal values keep a fixed order
+    private final ConcurrentSkipListMap<String, Movie> moviesByTitle;
+    private final ConcurrentSkipListMap<Long, Movie> moviesByPrice;
+    private final ConcurrentSkipListMap<Long, Movie> moviesByRating;
+    private final ConcurrentSkipListMap<Long, Movie> moviesByScore;
+    private final AtomicLong sequence;
+    private final List<CatalogListener> listeners;
+
+    // Insertion sequence is kept with the movie so removal does not need to scan the ordered view
+    private static class Entry {
+        private final Movie movie;
+        private final long sequence;
+        // Guarded by the entry itself, which add and remove hold for the whole multi-index update
+        private long ratingKey;
+        private long scoreKey;
+        private boolean ratingIndexed;
+        private boolean removed;
+
+        private Entry(Movie movie, long sequence) {
+            this.movie = movie;
+            this.sequence = sequence;
+        }
+    }
+
+    public MovieCatalog() {
+        this.moviesById = new ConcurrentHashMap<>();
+        this.moviesInOrder = new ConcurrentSkipListMap<>();
+        this.moviesByDirector = new ConcurrentHashMap<>();
+        this.moviesByStudio = new ConcurrentHashMap<>();
+        this.moviesByRelease = new ConcurrentSkipListMap<>();
+        this.moviesByTitle = new ConcurrentSkipListMap<>();
+        this.moviesByPrice = new ConcurrentSkipListMap<>();
+        this.moviesByRating = new ConcurrentSkipListMap<>();
+        this.moviesByScore = new ConcurrentSkipListMap<>();
+        this.sequence = new AtomicLong();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public void addListener(CatalogListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(CatalogListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean add(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            throw new IllegalArgumentException("Movie and IMDB ID cannot be null.");
+        }
+        Entry entry = new Entry(movie, sequence.incrementAndGet());
+        // Locked before it is published, so a remove of the same id waits until every index and listener has it
+        synchronized (entry) {
+            if (moviesById.putIfAbsent(movie.getImdbId(), entry) != null) {
+                return false;
+            }
+            moviesInOrder.put(entry.sequence, movie);
+            addToIndex(moviesByDirector, movie.getDirector(), movie);
+            addToIndex(moviesByStudio, movie.getStudio(), movie);
+            moviesByRelease.put(releaseKey(releaseDayOf(movie), entry.sequence), movie);
+            moviesByTitle.put(titleKey(movie.getTitle(), entry.sequence), movie);
+            moviesByPrice.put(packedKey(movie.getMoviePrice(), entry.sequence), movie);
+            movie.setCatalog(this);
+            // Indexed only once the movie points here, so a review landing in between is not lost
+            indexRating(entry);
+            for (CatalogListener listener : listeners) {
+                listener.movieAdded(movie);
+            }
+        }
+        return true;
+    }
+
+    // Returns how many were added; movies whose IMDB ID is already present are skipped
+    public int addAll(List<Movie> movies) {
+        int added = 0;
+        for (Movie movie : movies) {
+            if (add(movie)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    public boolean remove(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            return false;
+        }
+        Entry entry = moviesById.get(movie.getImdbId());
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.removed || !moviesById.remove(movie.getImdbId(), entry)) {
+                return false;
+            }
+            entry.removed = true;
+            moviesInOrder.remove(entry.sequence);
+            removeFromIndex(moviesByDirector, entry.movie.getDirector(), entry.movie);
+            removeFromIndex(moviesByStudio, entry.movie.getStudio(), entry.movie);
+            moviesByRelease.remove(releaseKey(releaseDayOf(entry.movie), entry.sequence));
+            moviesByTitle.remove(titleKey(entry.movie.getTitle(), entry.sequence));
+            moviesByPrice.remove(packedKey(entry.movie.getMoviePrice(), entry.sequence));
+            if (entry.ratingIndexed) {
+                moviesByRating.remove(entry.ratingKey);
+                moviesByScore.remove(entry.scoreKey);
+            }
+            if (entry.movie.getCatalog() == this) {
+                entry.movie.setCatalog(null);
+            }
+            for (CatalogListener listener : listeners) {
+                listener.movieRemoved(entry.movie);
+            }
+        }
+        return true;
+    }
+
+    void movieRented(Movie movie) {
+        for (CatalogListener listener : listeners) {
+            listener.movieRented(movie);
+        }
+    }
+
+    void movieSold(Movie movie) {
+        for (CatalogListener listener : listeners) {
+            listener.movieSold(movie);
+        }
+    }
+
+    // Moves the movie to its new place in the rating order after a review is added or edited
+    void movieReviewed(Movie movie) {
+        Entry entry = moviesById.get(movie.getImdbId());
+        if (entry != null && entry.movie == movie) {
+            indexRating(entry);
+        }
+        for (CatalogListener listener : listeners) {
+            listener.movieReviewed(movie);
+        }
+    }
+
+    public boolean contains(Movie movie) {
+        return movie != null && movie.getImdbId() != null && moviesById.containsKey(movie.getImdbId());
+    }
+
+    public Movie findByImdbId(String imdbId) {
+        if (imdbId == null) {
+            return null;
+        }
+        Entry entry = moviesById.get(imdbId);
+        return entry != null ? entry.movie : null;
+    }
+
+    public List<Movie> findByDirector(String director) {
+        return lookup(moviesByDirector, director);
+    }
+
+    public List<Movie> findByStudio(String studio) {
+        return lookup(moviesByStudio, studio);
+    }
+
+    // Release-date queries return movies oldest first; movies without a known release date are never included
+    public List<Movie> findByReleaseYear(int year) {
+        return findReleasedBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    // Any year of the decade works: 1994 and 1990 both give 1990 to 1999
+    public List<Movie> findByDecade(int year) {
+        int start = Math.floorDiv(year, 10) * 10;
+        return findReleasedBetween(LocalDate.of(start, 1, 1), LocalDate.of(start + 9, 12, 31));
+    }
+
+    // Both ends are included
+    public List<Movie> findReleasedBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null.");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Date range starts after it ends.");
+        }
+        return new ArrayList<>(moviesByRelease.subMap(releaseKey(releaseDayOf(from), 0), true,
+                releaseKey(releaseDayOf(to) + 1, 0), false).values());
+    }
+
+    // The latest releases up to and including the given day, newest first
+    public List<Movie> getNewReleases(LocalDate asOf, int limit) {
+        if (asOf == null || limit <= 0) {
+            throw new IllegalArgumentException("Date cannot be null and limit must be positive.");
+        }
+        List<Movie> releases = new ArrayList<>(Math.min(limit, 64));
+        for (Movie movie : moviesByRelease.headMap(releaseKey(releaseDayOf(asOf) + 1, 0), false).descendingMap().values()) {
+            if (releases.size() == limit) {
+                break;
+            }
+            releases.add(movie);
+        }
+        return releases;
+    }
+
+    // One page of the catalog in the query's order. Pass null for the first page and the page's continuation
+    // token for each one after. The token is a position in the order rather than an offset, so movies added
+    // or removed between calls never repeat or skip the others; only a movie whose rating changes mid-listing
+    // can move past the cursor.
+    public CatalogPage list(CatalogQuery query, String continuationToken) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null.");
+        }
+        switch (query.getSort()) {
+            case TITLE:
+                return page(moviesByTitle, query, continuationToken, key -> key);
+            case PRICE:
+                return page(moviesByPrice.subMap(packedKey(query.getMinPrice(), 0), true,
+                        packedKey(query.getMaxPrice(), 0xFFFFFFFFL), true), query, continuationToken, Long::valueOf);
+            case RELEASE_DATE:
+                return page(releaseView(query), query, continuationToken, Long::valueOf);
+            case RATING:
+                NavigableMap<Long, Movie> rated = moviesByRating;
+                if (query.getMinRating() > 0) {
+                    // Rounded keys can sit just above the true average, so the filter still has the final say
+                    rated = moviesByRating.tailMap(packedKey((long) Math.floor(query.getMinRating() * RATING_KEY_SCALE), 0), true);
+                }
+                return page(rated, query, continuationToken, Long::valueOf);
+            case TOP_RATED:
+                return page(moviesByScore, query, continuationToken, Long::valueOf);
+            default:
+                return page(moviesInOrder, query, continuationToken, Long::valueOf);
+        }
+    }
+
+    public List<Movie> getAllMovies() {
+        return new ArrayList<>(moviesInOrder.values());
+    }
+
+    public int size() {
+        return moviesById.size();
+    }
+
+    public boolean isEmpty() {
+        return moviesById.isEmpty();
+    }
+
+    private NavigableMap<Long, Movie> releaseView(CatalogQuery query) {
+        if (!query.hasReleaseRange()) {
+            return moviesByRelease;
+        }
+        long from = query.getReleasedFrom() != null ? releaseDayOf(query.getReleasedFrom()) : FIRST_RELEASE_DAY - 1;
+        long to = query.getReleasedTo() != null ? releaseDayOf(query.getReleasedTo()) : LAST_RELEASE_DAY + 1;
+        return moviesByRelease.subMap(packedKey(from, 0), true, packedKey(to + 1, 0), false);
+    }
+
+    private <K> CatalogPage page(NavigableMap<K, Movie> index, CatalogQuery query, String continuationToken,
+            Function<String, K> parseKey) {
+        String fingerprint = Integer.toHexString(query.fingerprint().hashCode());
+        NavigableMap<K, Movie> view = query.isDescending() ? index.descendingMap() : index;
+        if (continuationToken != null) {
+            view = view.tailMap(parseKey.apply(decodeToken(continuationToken, fingerprint)), false);
+        }
+        int pageSize = query.getPageSize();
+        int budget = Math.max(MIN_SCAN_BUDGET, pageSize * SCAN_BUDGET_PER_RESULT);
+        List<Movie> movies = new ArrayList<>(pageSize);
+        K lastKey = null;
+        boolean more = false;
+        for (Map.Entry<K, Movie> candidate : view.entrySet()) {
+            if (movies.size() == pageSize || budget == 0) {
+                more = true;
+                break;
+            }
+            budget--;
+            lastKey = candidate.getKey();
+            if (query.matches(candidate.getValue())) {
+                movies.add(candidate.getValue());
+            }
+        }
+        return new CatalogPage(movies, more ? encodeToken(fingerprint, String.valueOf(lastKey)) : null);
+    }
+
+    private static String encodeToken(String fingerprint, String key) {
+        String token = TOKEN_VERSION + "|" + fingerprint + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeToken(String continuationToken, String fingerprint) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Continuation token is not valid.", e);
+        }
+        if (parts.length != 3 || !TOKEN_VERSION.equals(parts[0]) || !fingerprint.equals(parts[1])) {
+            throw new IllegalArgumentException("Continuation token does not belong to this listing.");
+        }
+        return parts[2];
+    }
+
+    private void indexRating(Entry entry) {
+        synchronized (entry) {
+            if (entry.removed) {
+                return;
+            }
+            Movie movie = entry.movie;
+            int rating = movie.getReviewCount() == 0 ? UNRATED : (int) Math.round(movie.getAverageRating() * RATING_KEY_SCALE);
+            long ratingKey = packedKey(rating, entry.sequence);
+            long scoreKey = packedKey(Math.round(movie.getBayesianRating() * RATING_KEY_SCALE), entry.sequence);
+            if (entry.ratingIndexed && entry.ratingKey == ratingKey && entry.scoreKey == scoreKey) {
+                return;
+            }
+            if (entry.ratingIndexed) {
+                moviesByRating.remove(entry.ratingKey);
+                moviesByScore.remove(entry.scoreKey);
+            }
+            moviesByRating.put(ratingKey, movie);
+            moviesByScore.put(scoreKey, movie);
+            entry.ratingKey = ratingKey;
+            entry.scoreKey = scoreKey;
+            entry.ratingIndexed = true;
+        }
+    }
+
+    private static int releaseDayOf(Movie movie) {
+        return movie.hasReleaseDay() ? movie.getReleaseDay() : UNDATED_RELEASE_DAY;
+    }
+
+    // Release days only come from four-digit years, so anything further out is clamped just past that range
+    private static int releaseDayOf(LocalDate date) {
+        return (int) Math.max(FIRST_RELEASE_DAY - 1, Math.min(LAST_RELEASE_DAY + 1, date.toEpochDay()));
+    }
+
+    // The day in the high half and the insertion sequence in the low half keep movies released on the same day
+    // apart, ordered as they were added
+    private static long releaseKey(int releaseDay, long sequence) {
+        return packedKey(releaseDay, sequence);
+    }
+
+    private static long packedKey(long value, long sequence) {
+        return (value << 32) | (sequence & 0xFFFFFFFFL);
+    }
+
+    // The NUL separator sorts a title before any longer title it is a prefix of, and the fixed-width
+    // sequence keeps equal titles in insertion order
+    private static String titleKey(String title, long sequence) {
+        String hex = Long.toHexString(sequence);
+        StringBuilder key = new StringBuilder(title != null ? title.toLowerCase() : "").append('\0');
+        for (int i = hex.length(); i < 16; i++) {
+            key.append('0');
+        }
+        return key.append(hex).toString();
+    }
+
+    private static <K> void addToIndex(Map<K, Set<Movie>> index, K key, Movie movie) {
+        if (key == null) {
+            return;
+        }
+        // Mutate inside compute so a concurrent removal cannot drop the bucket between lookup and add
+        index.compute(key, (k, movies) -> {
+            Set<Movie> bucket = movies != null ? movies : ConcurrentHashMap.newKeySet();
+            bucket.add(movie);
+            return bucket;
+        });
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Movie>> index, K key, Movie movie) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, movies) -> {
+            movies.remove(movie);
+            return movies.isEmpty() ? null : movies;
+        });
+    }
+
+    private static <K> List<Movie> lookup(Map<K, Set<Movie>> index, K key) {
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        Set<Movie> movies = index.get(key);
+        return movies != null ? new ArrayList<>(movies) : Collections.emptyList();
+    }
+}
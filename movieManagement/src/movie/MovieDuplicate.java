@@ -1,18 +1,49 @@
 package movieManagement.src.movie;
 
-import java.util.UUID;
+import movieManagement.src.ids.IdGenerator;
+import movieManagement.src.ids.SnowflakeIdGenerator;
 
 public abstract class MovieDuplicate {
-    private final String copyId; 
+    private static volatile IdGenerator idGenerator = new SnowflakeIdGenerator();
+
+    private final long id;
+    // Rendered on first use; most copies are never shown to anyone
+    private String copyId; 
     private Movie movie;
 
     public MovieDuplicate(Movie movie) {
-        this.copyId = UUID.randomUUID().toString();
+        this(movie, idGenerator.nextId());
+    }
+
+    protected MovieDuplicate(Movie movie, long id) {
+        this.id = id;
         this.movie = movie;
     }
 
+    public static void setIdGenerator(IdGenerator generator) {
+        if (generator == null)
+            throw new IllegalArgumentException("Id generator cannot be null.");
+        idGenerator = generator;
+    }
+
+    public static IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    Movie getMovie() {
+        return movie;
+    }
+
+    public long getId() {
+        return id;
+    }
+
     public String getCopyId() {
-        return copyId;
+        String rendered = copyId;
+        if (rendered == null) {
+            rendered = SnowflakeIdGenerator.format(id);
+            copyId = rendered;
+        }
+        return rendered;
     }
 }
-
@@ -2,50 +2,134 @@ package movieManagement.src.movie;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import movieManagement.src.users.Customer;
 
 public class RentalMovieDuplicate extends MovieDuplicate {
-    private boolean isRented; 
-    private Customer customer;
-    private final List<RentalRecord> rentalHistory; 
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int UNSTOCKED = 0;
+    private static final int POOLED = 1;
+    private static final int OUT_OF_POOL = 2;
+
+    // Heap copies keep their renter here; views over a copy store leave it unset and read the mapped record
+    private final AtomicReference<CopyHolding> holding;
+    private final MappedCopyStore store;
+    private final int copyNumber;
+    private volatile List<RentalRecord> rentalHistory; 
+    // Where the copy stands with its movie's free pool; a copy no movie has stocked never enters it
+    private final AtomicInteger poolState = new AtomicInteger(UNSTOCKED);
 
     public RentalMovieDuplicate(Movie movie) {
         super(movie);
-        this.isRented = false; 
-        this.customer = null; 
-        this.rentalHistory = new ArrayList<>();
+        this.holding = new AtomicReference<>();
+        this.store = null;
+        this.copyNumber = -1;
+    }
+
+    public RentalMovieDuplicate(Movie movie, MappedCopyStore store) {
+        this(movie, store, store.allocate(MappedCopyStore.KIND_RENTAL));
+    }
+
+    private RentalMovieDuplicate(Movie movie, MappedCopyStore store, int copyNumber) {
+        super(movie, copyNumber);
+        this.holding = null;
+        this.store = store;
+        this.copyNumber = copyNumber;
+    }
+
+    @Override
+    public String getCopyId() {
+        return store != null ? "R" + copyNumber : super.getCopyId();
+    }
+
+    public int getCopyNumber() {
+        return copyNumber;
     }
 
-    
     public boolean isRented() {
-        return isRented;
+        if (store != null) {
+            return store.getStatus(copyNumber) == MappedCopyStore.RENTED;
+        }
+        return holding.get() != null;
     }
 
 	public void rent(Customer customer) {
-		if (isRented) {
+		if (!tryRent(customer)) {
             System.out.print("This copy is already rented out");
-        }else {
-        	this.isRented = true;
-    		this.customer = customer;
         }
 	}
 
+	// Only the thread that wins the CAS owns the copy, so two kiosks can never hand out the same one
+	public boolean tryRent(Customer customer) {
+		long due = customer != null ? System.currentTimeMillis() + customer.getMembership().getRentalDays() * DAY_MILLIS : 0L;
+		if (store != null) {
+			return store.tryAcquire(copyNumber, MappedCopyStore.RENTED, customer, due);
+		}
+		return holding.compareAndSet(null, new CopyHolding(customer, due));
+	}
+
+	// Also puts the copy back in its movie's pool, so one rented directly is not lost to the inventory
 	public void returnMovie() {
-		this.isRented = false;
-		this.customer = null;
+		if (store != null) {
+			store.release(copyNumber);
+		} else {
+			holding.set(null);
+		}
+		Movie movie = getMovie();
+		if (movie != null) {
+			movie.rentalCopyReturned(this);
+		}
+	}
+
+	boolean enterPoolWhenStocked() {
+		return poolState.compareAndSet(UNSTOCKED, POOLED);
+	}
+
+	boolean reenterPool() {
+		return poolState.compareAndSet(OUT_OF_POOL, POOLED);
+	}
+
+	void leavePool() {
+		poolState.set(OUT_OF_POOL);
 	}
 	
 	public Customer getCustomer() {
-		return customer;
+		if (store != null) {
+			return store.getHolder(copyNumber);
+		}
+		CopyHolding current = holding.get();
+		return current != null ? current.customer : null;
+	}
+
+	// Epoch millis, or 0 when the copy is not rented
+	public long getDueDate() {
+		if (store != null) {
+			return store.getDueDate(copyNumber);
+		}
+		CopyHolding current = holding.get();
+		return current != null ? current.dueDate : 0L;
 	}
 	
+	// Most copies never get a record, so the history list is only created on first use
 	public void addRentalRecord(RentalRecord record) {
         if (record == null) {
             throw new IllegalArgumentException("Rental record cannot be null");
         }
-        rentalHistory.add(record);
+        List<RentalRecord> history = rentalHistory;
+        if (history == null) {
+            synchronized (this) {
+                history = rentalHistory;
+                if (history == null) {
+                    history = Collections.synchronizedList(new ArrayList<>());
+                    rentalHistory = history;
+                }
+            }
+        }
+        history.add(record);
     }
 	
 	public void displayCopyDetails() {
@@ -3,15 +3,26 @@ package movieManagement.src.movie;
 import movieManagement.src.users.Customer;
 
 public class Review {
+    public static final int MIN_RATING = 0;
+    public static final int MAX_RATING = 10;
 
+    // When set, reviews written afterwards keep long comments compressed off-heap instead of as a String
+    private static volatile ReviewTextStore defaultTextStore;
+
+    private final ReviewTextStore textStore;
+    // Short comments, or every comment without a store; null while the comment is in the store
     private String comments;
+    private long commentsReference;
     private int rating;
     private Customer customer;
+    // Set once a movie accepts the review, so the reviewer's list can name it without searching the catalog
+    private volatile Movie movie;
 
     public Review(String comments, int rating, Customer customer) {
-        this.comments = comments;
+        this.textStore = defaultTextStore;
+        setComments(comments);
         this.customer = customer;
-        if (rating < 0 || rating > 10) {
+        if (rating < MIN_RATING || rating > MAX_RATING) {
             System.out.print("Rating should be 0 to 10");
         }
         else{
@@ -19,8 +30,18 @@ public class Review {
         }
     }
 
+    public static void setDefaultTextStore(ReviewTextStore store) {
+        defaultTextStore = store;
+    }
+
+    public static ReviewTextStore getDefaultTextStore() {
+        return defaultTextStore;
+    }
+
+    // Inflated from the store on each call when the comment is kept there
     public String getComments() {
-        return comments;
+        long reference = commentsReference;
+        return reference != ReviewTextStore.NO_TEXT ? textStore.read(reference) : comments;
     }
 
     public int getMovieRating() {
@@ -31,21 +52,58 @@ public class Review {
         return customer;
     }
 
+    // The movie this review was added to; null until then
+    public Movie getMovie() {
+        return movie;
+    }
+
+    void setMovie(Movie movie) {
+        this.movie = movie;
+    }
+
     public void setComments(String comments) {
-        this.comments = comments;
+        if (textStore == null) {
+            this.comments = comments;
+            this.commentsReference = ReviewTextStore.NO_TEXT;
+        } else if (ReviewTextStore.isInline(comments)) {
+            this.comments = textStore.intern(comments);
+            this.commentsReference = ReviewTextStore.NO_TEXT;
+        } else {
+            this.commentsReference = textStore.append(comments);
+            this.comments = null;
+        }
     }
 
+    // Once a movie holds the review the change goes through it, so the movie's running totals follow
     public void setRating(int rating) {
-        if (rating < 0 || rating > 10) {
-            System.out.print("Rating should be 0 to 10");
+        if (!isOnScale(rating)) {
+            return;
+        }
+        Movie owner = movie;
+        if (owner != null) {
+            owner.rerate(this, rating);
         } else {
             this.rating = rating;
         }
     }
 
+    // Prints the console message for a rating off the scale
+    static boolean isOnScale(int rating) {
+        if (rating < MIN_RATING || rating > MAX_RATING) {
+            System.out.print("Rating should be 0 to 10");
+            return false;
+        }
+        return true;
+    }
+
+    // Caller holds the owning movie's review lock and adjusts its totals
+    void applyRating(int rating) {
+        this.rating = rating;
+    }
+
     @Override
     public String toString() {
-        return "Movie Review\nMovie Rating: " + rating + "\n" +  "Comment: " + comments;
+        return "Movie Review\nMovie Rating: " + rating + "\n" +  "Comment: " + getComments();
     }
 }
 
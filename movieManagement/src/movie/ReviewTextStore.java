@@ -0,0 +1,317 @@
+package movieManagement.src.movie;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Review comments kept off-heap. Short comments stay on the heap as interned strings, so the same "Great!" is one
+// object however many reviews say it. Longer ones are appended to an open block, and a full block is deflated into
+// direct memory; a review keeps only a reference: [block index 32 bits][offset in the block 32 bits].
+// A block record is [UTF-8 length varint][UTF-8 bytes]. A repeated comment is found by a 64-bit hash of its bytes
+// and an unrelated 32-bit one, then compared byte for byte with the stored text before its reference is reused, so a
+// hash collision can never hand out another comment. The store is append-only: edited comments leave their old text
+// behind.
+// Reads inflate the block and keep the last few around, since a movie's reviews tend to be read together.
+public class ReviewTextStore {
+    // Small blocks keep a read to one short inflate; larger ones compress a little better
+    public static final int DEFAULT_BLOCK_BYTES = 4 * 1024;
+    // Comments up to this many characters are cheaper to keep as a String than to compress
+    public static final int INLINE_CHARS = 32;
+    public static final long NO_TEXT = -1L;
+
+    private static final int ARENA_CHUNK_BYTES = 4 * 1024 * 1024;
+    private static final int CACHED_BLOCKS = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long CHECK_SEED = 0x9E3779B97F4A7C15L;
+
+    private final int blockBytes;
+    private final Map<String, String> inlined;
+    private final List<ByteBuffer> arena;
+    // Per sealed block: the arena chunk and offset its compressed bytes start at, how many there are and how many
+    // they inflate to
+    private int[] blockChunks;
+    private int[] blockOffsets;
+    private int[] compressedLengths;
+    private int[] rawLengths;
+    private int sealedBlocks;
+    private byte[] openBlock;
+    private int openLength;
+    private long arenaBytes;
+    private long storedBytes;
+    // Open addressing from content hash to reference; a zero key marks an empty slot
+    private long[] hashes;
+    private int[] checks;
+    private long[] references;
+    private int hashCount;
+    private final Map<Integer, byte[]> inflatedBlocks;
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    public ReviewTextStore() {
+        this(DEFAULT_BLOCK_BYTES);
+    }
+
+    public ReviewTextStore(int blockBytes) {
+        if (blockBytes < 64) {
+            throw new IllegalArgumentException("Blocks must hold at least 64 bytes.");
+        }
+        this.blockBytes = blockBytes;
+        this.inlined = new ConcurrentHashMap<>();
+        this.arena = new ArrayList<>();
+        this.blockChunks = new int[16];
+        this.blockOffsets = new int[16];
+        this.compressedLengths = new int[16];
+        this.rawLengths = new int[16];
+        this.openBlock = new byte[blockBytes];
+        this.hashes = new long[1024];
+        this.checks = new int[1024];
+        this.references = new long[1024];
+        this.inflatedBlocks = new LinkedHashMap<Integer, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > CACHED_BLOCKS;
+            }
+        };
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.inflater = new Inflater();
+    }
+
+    public static boolean isInline(String text) {
+        return text == null || text.length() <= INLINE_CHARS;
+    }
+
+    // The shared copy of a short comment
+    public String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (!isInline(text)) {
+            throw new IllegalArgumentException("Only comments of up to " + INLINE_CHARS + " characters are inlined.");
+        }
+        String shared = inlined.putIfAbsent(text, text);
+        return shared != null ? shared : text;
+    }
+
+    // Stores a long comment, or finds the identical one stored before, and returns its reference
+    public synchronized long append(String text) {
+        if (isInline(text)) {
+            throw new IllegalArgumentException("Comments of up to " + INLINE_CHARS + " characters are inlined, not stored.");
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes);
+        int check = check(bytes);
+        int slot = slotOf(hash);
+        while (hashes[slot] != 0) {
+            // Confirming a match may inflate the block holding it; a mismatch just probes on
+            if (hashes[slot] == hash && checks[slot] == check && Arrays.equals(recordAt(references[slot]), bytes)) {
+                return references[slot];
+            }
+            slot = (slot + 1) & (hashes.length - 1);
+        }
+        int recordLength = varintLength(bytes.length) + bytes.length;
+        if (openLength + recordLength > openBlock.length) {
+            sealOpenBlock();
+            if (recordLength > openBlock.length) {
+                // A comment longer than a block gets a block of its own
+                openBlock = new byte[recordLength];
+            }
+        }
+        long reference = ((long) sealedBlocks << 32) | openLength;
+        openLength = writeVarint(openBlock, openLength, bytes.length);
+        System.arraycopy(bytes, 0, openBlock, openLength, bytes.length);
+        openLength += bytes.length;
+        storedBytes += bytes.length;
+        hashes[slot] = hash;
+        checks[slot] = check;
+        references[slot] = reference;
+        if (++hashCount * 4L > hashes.length * 3L) {
+            growHashes();
+        }
+        return reference;
+    }
+
+    public synchronized String read(long reference) {
+        if (reference == NO_TEXT) {
+            return null;
+        }
+        return new String(recordAt(reference), StandardCharsets.UTF_8);
+    }
+
+    // Distinct long comments stored
+    public synchronized int getStoredCount() {
+        return hashCount;
+    }
+
+    // UTF-8 bytes of the distinct long comments before compression
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    // Off-heap bytes holding the sealed blocks, plus the open block still being filled
+    public synchronized long getCompressedBytes() {
+        return arenaBytes + openLength;
+    }
+
+    public int getInlinedCount() {
+        return inlined.size();
+    }
+
+    // Caller holds the lock
+    private byte[] recordAt(long reference) {
+        int block = (int) (reference >>> 32);
+        int offset = (int) reference;
+        if (block < 0 || block > sealedBlocks || offset < 0) {
+            throw new IllegalArgumentException("Unknown comment reference: " + reference);
+        }
+        byte[] bytes = block == sealedBlocks ? openBlock : inflate(block);
+        int length = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = bytes[offset++];
+            length |= (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    private byte[] inflate(int block) {
+        byte[] raw = inflatedBlocks.get(block);
+        if (raw != null) {
+            return raw;
+        }
+        byte[] compressed = new byte[compressedLengths[block]];
+        ByteBuffer chunk = arena.get(blockChunks[block]).duplicate();
+        chunk.position(blockOffsets[block]);
+        chunk.get(compressed);
+        raw = new byte[rawLengths[block]];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                int count = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated");
+                }
+                inflated += count;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Comment block " + block + " is corrupt.", e);
+        }
+        inflatedBlocks.put(block, raw);
+        return raw;
+    }
+
+    private void sealOpenBlock() {
+        if (openLength == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(openBlock, 0, openLength);
+        deflater.finish();
+        byte[] compressed = new byte[openLength + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        if (sealedBlocks == blockChunks.length) {
+            blockChunks = Arrays.copyOf(blockChunks, sealedBlocks * 2);
+            blockOffsets = Arrays.copyOf(blockOffsets, sealedBlocks * 2);
+            compressedLengths = Arrays.copyOf(compressedLengths, sealedBlocks * 2);
+            rawLengths = Arrays.copyOf(rawLengths, sealedBlocks * 2);
+        }
+        place(sealedBlocks, compressed, length);
+        compressedLengths[sealedBlocks] = length;
+        rawLengths[sealedBlocks] = openLength;
+        sealedBlocks++;
+        openBlock = new byte[blockBytes];
+        openLength = 0;
+    }
+
+    // A block never straddles two chunks; one bigger than a chunk gets a chunk of its own
+    private void place(int block, byte[] compressed, int length) {
+        ByteBuffer chunk = arena.isEmpty() ? null : arena.get(arena.size() - 1);
+        if (chunk == null || chunk.remaining() < length) {
+            chunk = ByteBuffer.allocateDirect(Math.max(ARENA_CHUNK_BYTES, length));
+            arena.add(chunk);
+        }
+        blockChunks[block] = arena.size() - 1;
+        blockOffsets[block] = chunk.position();
+        chunk.put(compressed, 0, length);
+        arenaBytes += length;
+    }
+
+    private void growHashes() {
+        long[] oldHashes = hashes;
+        int[] oldChecks = checks;
+        long[] oldReferences = references;
+        hashes = new long[oldHashes.length * 2];
+        checks = new int[oldHashes.length * 2];
+        references = new long[oldHashes.length * 2];
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                int slot = slotOf(oldHashes[i]);
+                while (hashes[slot] != 0) {
+                    slot = (slot + 1) & (hashes.length - 1);
+                }
+                hashes[slot] = oldHashes[i];
+                checks[slot] = oldChecks[i];
+                references[slot] = oldReferences[i];
+            }
+        }
+    }
+
+    private int slotOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (hashes.length - 1);
+    }
+
+    // FNV-1a, never 0 so it cannot be mistaken for an empty slot
+    private static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    // A multiply-xorshift hash unrelated to FNV, with the length mixed in, to confirm a match
+    private static int check(byte[] bytes) {
+        long check = CHECK_SEED ^ bytes.length;
+        for (byte b : bytes) {
+            check = (check ^ (b & 0xFF)) * CHECK_SEED;
+            check ^= check >>> 29;
+        }
+        return (int) (check ^ (check >>> 32));
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static int writeVarint(byte[] bytes, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+}
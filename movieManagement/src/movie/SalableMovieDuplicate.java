@@ -1,22 +1,66 @@
 package movieManagement.src.movie;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import movieManagement.src.users.Customer;
 
 public class SalableMovieDuplicate extends MovieDuplicate {
-	private boolean isSold;  
+	// Heap copies keep their buyer here; views over a copy store read the mapped record
+	private final AtomicReference<CopyHolding> sale;
+	private final MappedCopyStore store;
+	private final int copyNumber;
     
     public SalableMovieDuplicate(Movie movie) {
         super(movie);
-        this.isSold = false;
+        this.sale = new AtomicReference<>();
+        this.store = null;
+        this.copyNumber = -1;
+    }
+
+    public SalableMovieDuplicate(Movie movie, MappedCopyStore store) {
+        this(movie, store, store.allocate(MappedCopyStore.KIND_SALE));
+    }
+
+    private SalableMovieDuplicate(Movie movie, MappedCopyStore store, int copyNumber) {
+        super(movie, copyNumber);
+        this.sale = null;
+        this.store = store;
+        this.copyNumber = copyNumber;
+    }
+
+    @Override
+    public String getCopyId() {
+        return store != null ? "S" + copyNumber : super.getCopyId();
+    }
+
+    public int getCopyNumber() {
+        return copyNumber;
     }
    
 	public boolean isSold() {
-		return isSold;
+		if (store != null) {
+			return store.getStatus(copyNumber) == MappedCopyStore.SOLD;
+		}
+		return sale.get() != null;
 	}
 	
 	public void sold(Customer customer) {
-		isSold = true;
-		
+		trySell(customer);
+	}
+
+	public boolean trySell(Customer customer) {
+		if (store != null) {
+			return store.tryAcquire(copyNumber, MappedCopyStore.SOLD, customer, 0L);
+		}
+		return sale.compareAndSet(null, new CopyHolding(customer, 0L));
+	}
+
+	public Customer getBuyer() {
+		if (store != null) {
+			return store.getHolder(copyNumber);
+		}
+		CopyHolding current = sale.get();
+		return current != null ? current.customer : null;
 	}
 	
 }
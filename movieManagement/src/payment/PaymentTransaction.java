@@ -39,6 +39,15 @@ public class PaymentTransaction {
         }
     }
 
+    // Reapplies a recorded outcome without running the processors again
+    public void restoreState(boolean paymentCompleted, boolean refundCompleted) {
+        this.paymentCompleted = paymentCompleted;
+        this.refundCompleted = refundCompleted;
+        if (paymentCompleted) {
+            transactionRegistry.put(transactionId, !refundCompleted);
+        }
+    }
+
     public boolean isPaymentCompleted() {
         return this.paymentCompleted;
     }
@@ -0,0 +1,125 @@
+package movieManagement.src.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.payment.PaymentTransaction;
+
+// Startup loads the latest snapshot and replays only the journal tail. A checkpoint folds the durable journal
+// tail into the state of the previous checkpoint, kept in memory, off to the side, so live traffic keeps appending
+// while it runs, then compacts the journal down to what the new snapshot does not cover.
+public class Checkpointer {
+    public static final long DEFAULT_INTERVAL_MILLIS = 5 * 60 * 1000L;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final List<Movie> baselineMovies;
+    private EventJournal journal;
+    // Plain-data state folded through the last checkpoint; may run ahead of the file if writing it failed
+    private SnapshotState folded;
+    private ScheduledExecutorService executor;
+    private volatile long lastCheckpointSequence;
+    private volatile long lastCheckpointMillis;
+    private volatile long lastReclaimedBytes;
+
+    public Checkpointer(Path snapshotPath, Path journalPath, List<Movie> baselineMovies) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+        this.baselineMovies = baselineMovies;
+    }
+
+    public synchronized EventJournal recover(MovieCatalog catalog, AuthService authService,
+                                             List<PaymentTransaction> transactions) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("Journal has already been recovered.");
+        }
+        SnapshotState snapshot = loadSnapshot();
+        snapshot.restoreInto(catalog, authService, transactions);
+        JournalReplayer replayer = new JournalReplayer(catalog, authService, transactions);
+        journal = EventJournal.open(journalPath, replayer, snapshot.getSequence(), EventJournal.DEFAULT_MAX_BATCH);
+        folded = snapshot;
+        lastCheckpointSequence = snapshot.getSequence();
+        return journal;
+    }
+
+    private SnapshotState loadSnapshot() throws IOException {
+        if (Files.exists(snapshotPath)) {
+            return SnapshotState.readFrom(snapshotPath);
+        }
+        return SnapshotState.baseline(baselineMovies);
+    }
+
+    // Returns the sequence the snapshot now covers
+    public synchronized long checkpoint() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Recover the journal before checkpointing.");
+        }
+        long start = System.nanoTime();
+        journal.readDurable(folded.getSequence(), folded::apply);
+        if (folded.getSequence() == lastCheckpointSequence) {
+            return lastCheckpointSequence;
+        }
+        folded.writeTo(snapshotPath);
+        lastReclaimedBytes = journal.compact(folded.getSequence());
+        lastCheckpointSequence = folded.getSequence();
+        lastCheckpointMillis = (System.nanoTime() - start) / 1_000_000;
+        return lastCheckpointSequence;
+    }
+
+    public synchronized void start(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive.");
+        }
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("⚠ Checkpoint failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getLastCheckpointSequence() {
+        return lastCheckpointSequence;
+    }
+
+    public long getLastCheckpointMillis() {
+        return lastCheckpointMillis;
+    }
+
+    public long getLastReclaimedBytes() {
+        return lastReclaimedBytes;
+    }
+}
@@ -0,0 +1,109 @@
+package movieManagement.src.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.movie.MovieCatalog;
+
+// Cold start at scale: replaying the full history versus loading a snapshot. Both paths then build the same
+// live objects, so that step is timed once. Run with a large heap, e.g. -Xmx4g, for the default sizes.
+public class ColdStartBenchmark {
+    public static void main(String[] args) throws IOException {
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int titles = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        Path dir = Files.createTempDirectory("cold-start");
+        Path journalPath = dir.resolve("history.journal");
+        Path snapshotPath = dir.resolve("state.snapshot");
+        try {
+            long start = System.nanoTime();
+            long events = writeHistory(journalPath, customers, titles);
+            System.out.printf("History: %d events, %.1f MB journal, written in %d ms\n", events,
+                    Files.size(journalPath) / (1024.0 * 1024.0), elapsedMillis(start));
+
+            start = System.nanoTime();
+            SnapshotState replayed = new SnapshotState();
+            EventJournal.open(journalPath, replayed::apply).close();
+            System.out.println("Cold start from full journal replay: " + elapsedMillis(start) + " ms");
+            replayed = null;
+
+            start = System.nanoTime();
+            SnapshotState checkpoint = new SnapshotState();
+            long reclaimed;
+            try (EventJournal journal = EventJournal.open(journalPath, checkpoint::apply)) {
+                checkpoint.writeTo(snapshotPath);
+                reclaimed = journal.compact(checkpoint.getSequence());
+            }
+            System.out.printf("Checkpoint: %.1f MB snapshot at sequence %d, %.1f MB of journal compacted, in %d ms\n",
+                    Files.size(snapshotPath) / (1024.0 * 1024.0), checkpoint.getSequence(), reclaimed / (1024.0 * 1024.0),
+                    elapsedMillis(start));
+            checkpoint = null;
+
+            start = System.nanoTime();
+            SnapshotState loaded = SnapshotState.readFrom(snapshotPath);
+            EventJournal.open(journalPath, null, loaded.getSequence(), EventJournal.DEFAULT_MAX_BATCH).close();
+            System.out.println("Cold start from snapshot + journal tail: " + elapsedMillis(start) + " ms");
+
+            // Hash the predefined admins' passwords up front so the directory start-up cost is not counted below
+            AuthService authService = AuthService.getInstance();
+            start = System.nanoTime();
+            loaded.restoreInto(new MovieCatalog(), authService, new ArrayList<>());
+            System.out.printf("Building live objects for %d customers and %d titles: %d ms\n",
+                    loaded.getCustomerCount(), loaded.getMovieCount(), elapsedMillis(start));
+        } finally {
+            Files.deleteIfExists(journalPath);
+            Files.deleteIfExists(snapshotPath);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    // Every customer registers and rents once; half return, a third buy and a quarter leave a review
+    private static long writeHistory(Path journalPath, int customers, int titles) throws IOException {
+        Base64.Encoder encoder = Base64.getEncoder();
+        String credential = "10000$" + encoder.encodeToString(new byte[16]) + "$" + encoder.encodeToString(new byte[32]);
+        long events = 0;
+        try (EventJournal journal = EventJournal.open(journalPath, null, 8192)) {
+            CompletableFuture<Long> last = null;
+            for (int i = 0; i < titles; i++) {
+                last = journal.appendAsync(new JournalEvent(EventType.MOVIE_ADDED, imdbId(i), "Title " + i,
+                        "Director " + (i % 1000), "Studio " + (i % 50), (1950 + i % 75) + "-01-01", "Description " + i, "15"));
+                events++;
+            }
+            for (int c = 0; c < customers; c++) {
+                String userId = "customer-" + c;
+                String movieId = imdbId(c % titles);
+                journal.appendAsync(new JournalEvent(EventType.CUSTOMER_REGISTERED, userId, "user" + c, credential));
+                last = journal.appendAsync(new JournalEvent(EventType.COPY_RENTED, movieId, userId));
+                events += 2;
+                if (c % 2 == 0) {
+                    last = journal.appendAsync(new JournalEvent(EventType.COPY_RETURNED, movieId, userId));
+                    events++;
+                }
+                if (c % 3 == 0) {
+                    last = journal.appendAsync(new JournalEvent(EventType.COPY_SOLD, movieId, userId));
+                    events++;
+                }
+                if (c % 4 == 0) {
+                    last = journal.appendAsync(new JournalEvent(EventType.REVIEW_ADDED, movieId, userId, "8", "Worth watching"));
+                    events++;
+                }
+            }
+            if (last != null) {
+                last.join();
+            }
+        }
+        return events;
+    }
+
+    private static String imdbId(int index) {
+        return String.format("tt%07d", index);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,456 @@
+package movieManagement.src.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+// Append-only log of domain events. Each record is [payload length][CRC32C of payload][payload], and the
+// payload is [type][sequence][timestamp][field count][length-prefixed UTF-8 fields]
+public class EventJournal implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATCH = 1024;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+    private static final PendingWrite SHUTDOWN = new PendingWrite(null, -1);
+
+    private final Path path;
+    private FileChannel channel;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<PendingWrite> pending;
+    private final Thread writer;
+    private final AtomicLong batchCount;
+    private final AtomicLong eventCount;
+    private final long replayedCount;
+    private volatile long lastSequence;
+    private volatile long durableLength;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private ByteBuffer batchBuffer;
+
+    // Either an event to append or, with a null event, a request to compact through the given sequence
+    private static class PendingWrite {
+        private final JournalEvent event;
+        private final long compactThrough;
+        private final CompletableFuture<Long> durable;
+
+        private PendingWrite(JournalEvent event, long compactThrough) {
+            this.event = event;
+            this.compactThrough = compactThrough;
+            this.durable = new CompletableFuture<Long>();
+        }
+    }
+
+    private EventJournal(Path path, FileChannel channel, int maxBatch, long lastSequence, long replayedCount, long durableLength) {
+        this.path = path;
+        this.channel = channel;
+        this.maxBatch = maxBatch;
+        this.pending = new LinkedBlockingQueue<PendingWrite>();
+        this.batchCount = new AtomicLong();
+        this.eventCount = new AtomicLong();
+        this.lastSequence = lastSequence;
+        this.replayedCount = replayedCount;
+        this.durableLength = durableLength;
+        this.batchBuffer = ByteBuffer.allocate(64 * 1024);
+        this.writer = new Thread(this::runWriter, "journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    public static EventJournal open(Path path, Consumer<JournalEvent> replayHandler) throws IOException {
+        return open(path, replayHandler, 0L, DEFAULT_MAX_BATCH);
+    }
+
+    public static EventJournal open(Path path, Consumer<JournalEvent> replayHandler, int maxBatch) throws IOException {
+        return open(path, replayHandler, 0L, maxBatch);
+    }
+
+    // Replays every intact record after afterSequence into the handler, cuts off a torn or corrupt tail, then
+    // starts accepting appends. afterSequence is the point a snapshot already covers; numbering continues past it
+    // even when compaction has left the file empty.
+    public static EventJournal open(Path path, Consumer<JournalEvent> replayHandler, long afterSequence, int maxBatch) throws IOException {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long[] replayState = replay(channel, replayHandler, afterSequence);
+            long validLength = replayState[0];
+            if (channel.size() > validLength) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+            EventJournal journal = new EventJournal(path, channel, maxBatch, Math.max(afterSequence, replayState[1]),
+                    replayState[2], validLength);
+            journal.writer.start();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Returns {valid length, last sequence, replayed count}
+    private static long[] replay(FileChannel channel, Consumer<JournalEvent> replayHandler, long afterSequence) throws IOException {
+        return scan(channel, Long.MAX_VALUE, replayHandler, afterSequence);
+    }
+
+    private static long[] scan(FileChannel channel, long limit, Consumer<JournalEvent> handler, long afterSequence) throws IOException {
+        channel.position(0);
+        InputStream input = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+        DataInputStream in = new DataInputStream(input);
+        long validLength = 0;
+        long lastSequence = 0;
+        long replayed = 0;
+        CRC32C crc = new CRC32C();
+        byte[] payload = new byte[256];
+        while (validLength + HEADER_BYTES <= limit) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD_BYTES || validLength + HEADER_BYTES + length > limit) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException e) {
+                break;
+            }
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            JournalEvent event = decode(ByteBuffer.wrap(payload, 0, length));
+            validLength += HEADER_BYTES + length;
+            lastSequence = event.getSequence();
+            if (event.getSequence() > afterSequence) {
+                if (handler != null) {
+                    handler.accept(event);
+                }
+                replayed++;
+            }
+        }
+        return new long[] { validLength, lastSequence, replayed };
+    }
+
+    private static JournalEvent decode(ByteBuffer buffer) {
+        EventType type = EventType.fromCode(buffer.get());
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        String[] fields = new String[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < fields.length; i++) {
+            int length = buffer.getInt();
+            fields[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        return new JournalEvent(type, sequence, timestamp, fields);
+    }
+
+    private static byte[][] encodeFields(JournalEvent event) {
+        String[] fields = event.getFields();
+        byte[][] encoded = new byte[fields.length][];
+        for (int i = 0; i < fields.length; i++) {
+            encoded[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    // Blocks until the batch holding this event has been forced to disk, then returns its sequence
+    public long append(JournalEvent event) {
+        try {
+            return appendAsync(event).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public CompletableFuture<Long> appendAsync(JournalEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null.");
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed.");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Journal write failed: " + failure.getMessage(), failure);
+        }
+        PendingWrite write = new PendingWrite(event, -1);
+        pending.add(write);
+        return write.durable;
+    }
+
+    // Streams the records already forced to disk, after afterSequence, through a separate read-only channel.
+    // Must not overlap with compact(), which replaces the file.
+    public long readDurable(long afterSequence, Consumer<JournalEvent> handler) throws IOException {
+        long limit = durableLength;
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            return scan(reader, limit, handler, afterSequence)[2];
+        }
+    }
+
+    // Drops every record up to and including throughSequence once a snapshot covers them. Runs on the writer
+    // thread between batches, so appends simply queue behind it. Returns the number of bytes reclaimed.
+    public long compact(long throughSequence) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed.");
+        }
+        PendingWrite request = new PendingWrite(null, throughSequence);
+        pending.add(request);
+        try {
+            return request.durable.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while compacting the journal.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal compaction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Whatever queued up while the previous fsync was running goes out as one write and one fsync
+    private void runWriter() {
+        List<PendingWrite> drained = new ArrayList<PendingWrite>(maxBatch);
+        List<PendingWrite> batch = new ArrayList<PendingWrite>(maxBatch);
+        boolean running = true;
+        while (running) {
+            try {
+                drained.add(pending.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(drained, maxBatch - 1);
+            try {
+                for (PendingWrite write : drained) {
+                    if (write == SHUTDOWN) {
+                        running = false;
+                    } else if (write.event == null) {
+                        // Events queued ahead of the compaction request must land before the file is rewritten
+                        flush(batch);
+                        compactFile(write);
+                    } else {
+                        batch.add(write);
+                    }
+                }
+                flush(batch);
+            } catch (RuntimeException | Error e) {
+                // The journal is broken from here on, but the writer keeps draining so that nothing waits forever:
+                // every later write is failed with the same cause
+                failure = new IOException("Journal writer failed: " + e, e);
+                failAll(drained, failure);
+                batch.clear();
+            }
+            drained.clear();
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void compactFile(PendingWrite request) {
+        if (failure != null) {
+            request.durable.completeExceptionally(failure);
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        long before = durableLength;
+        try {
+            long kept = copyTail(temp, request.compactThrough, before);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(path);
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(kept);
+            durableLength = kept;
+            request.durable.complete(before - kept);
+        } catch (IOException e) {
+            failure = e;
+            request.durable.completeExceptionally(e);
+        }
+    }
+
+    // A rename is only durable once the directory holding it is forced
+    static void forceDirectory(Path file) throws IOException {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    // Copies intact records newer than throughSequence byte for byte; only the sequence is decoded
+    private long copyTail(Path temp, long throughSequence, long limit) throws IOException {
+        long kept = 0;
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 9);
+            long position = 0;
+            while (position + HEADER_BYTES <= limit) {
+                header.clear();
+                if (!readFully(source, header, position)) {
+                    break;
+                }
+                int length = header.getInt(0);
+                long sequence = header.getLong(HEADER_BYTES + 1);
+                long recordLength = HEADER_BYTES + (long) length;
+                if (sequence > throughSequence) {
+                    long copied = 0;
+                    while (copied < recordLength) {
+                        copied += source.transferTo(position + copied, recordLength - copied, target);
+                    }
+                    kept += recordLength;
+                }
+                position += recordLength;
+            }
+            target.force(true);
+        }
+        return kept;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        if (failure != null) {
+            failAll(batch, failure);
+            return;
+        }
+        long sequence = lastSequence;
+        long[] sequences = new long[batch.size()];
+        batchBuffer.clear();
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < batch.size(); i++) {
+            JournalEvent event = batch.get(i).event;
+            byte[][] fields = encodeFields(event);
+            int payloadLength = 1 + 8 + 8 + 2;
+            for (byte[] field : fields) {
+                payloadLength += 4 + field.length;
+            }
+            ensureCapacity(HEADER_BYTES + payloadLength);
+            int headerPosition = batchBuffer.position();
+            batchBuffer.position(headerPosition + HEADER_BYTES);
+            int payloadStart = batchBuffer.position();
+            sequences[i] = ++sequence;
+            batchBuffer.put(event.getType().getCode());
+            batchBuffer.putLong(sequences[i]);
+            batchBuffer.putLong(event.getTimestamp());
+            batchBuffer.putShort((short) fields.length);
+            for (byte[] field : fields) {
+                batchBuffer.putInt(field.length);
+                batchBuffer.put(field);
+            }
+            crc.reset();
+            crc.update(batchBuffer.array(), payloadStart, payloadLength);
+            batchBuffer.putInt(headerPosition, payloadLength);
+            batchBuffer.putInt(headerPosition + 4, (int) crc.getValue());
+        }
+        batchBuffer.flip();
+        try {
+            while (batchBuffer.hasRemaining()) {
+                channel.write(batchBuffer);
+            }
+            channel.force(false);
+            durableLength = channel.position();
+        } catch (IOException e) {
+            failure = e;
+            failAll(batch, e);
+            return;
+        }
+        lastSequence = sequence;
+        batchCount.incrementAndGet();
+        eventCount.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).durable.complete(sequences[i]);
+        }
+    }
+
+    private static boolean readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (batchBuffer.remaining() >= extra) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(batchBuffer.capacity() * 2, batchBuffer.position() + extra));
+        batchBuffer.flip();
+        larger.put(batchBuffer);
+        batchBuffer = larger;
+    }
+
+    private static void failAll(List<PendingWrite> batch, IOException cause) {
+        for (PendingWrite write : batch) {
+            write.durable.completeExceptionally(cause);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getDurableLength() {
+        return durableLength;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    // Flushes everything appended so far before releasing the file
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.add(SHUTDOWN);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite> leftover = new ArrayList<PendingWrite>();
+        pending.drainTo(leftover);
+        failAll(leftover, new IOException("Journal is closed."));
+        channel.close();
+    }
+}
@@ -0,0 +1,42 @@
+package movieManagement.src.persistence;
+
+// The code is what goes on disk, so existing codes must never be renumbered
+public enum EventType {
+    CUSTOMER_REGISTERED(1),
+    MOVIE_ADDED(2),
+    RENTAL_COPY_ADDED(3),
+    SALE_COPY_ADDED(4),
+    COPY_RENTED(5),
+    COPY_RETURNED(6),
+    COPY_SOLD(7),
+    PAYMENT_COMPLETED(8),
+    PAYMENT_REFUNDED(9),
+    REVIEW_ADDED(10),
+    REVIEW_EDITED(11);
+
+    private static final EventType[] BY_CODE = new EventType[16];
+
+    static {
+        for (EventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    EventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static EventType fromCode(byte code) {
+        EventType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown journal event type: " + code);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,114 @@
+package movieManagement.src.persistence;
+
+import java.util.Arrays;
+
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.Review;
+import movieManagement.src.payment.PaymentTransaction;
+import movieManagement.src.users.Customer;
+
+public class JournalEvent {
+    private final EventType type;
+    private final long sequence;
+    private final long timestamp;
+    private final String[] fields;
+
+    public JournalEvent(EventType type, String... fields) {
+        this(type, 0L, System.currentTimeMillis(), fields);
+    }
+
+    // The sequence is only known once the journal writer has placed the event in the log
+    JournalEvent(EventType type, long sequence, long timestamp, String[] fields) {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type cannot be null.");
+        }
+        for (String field : fields) {
+            if (field == null) {
+                throw new IllegalArgumentException("Event fields cannot be null.");
+            }
+        }
+        this.type = type;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.fields = fields.clone();
+    }
+
+    public static JournalEvent customerRegistered(Customer customer) {
+        return new JournalEvent(EventType.CUSTOMER_REGISTERED, customer.getUserId(), customer.getUsername(),
+                customer.getCredential().toStoredForm());
+    }
+
+    public static JournalEvent movieAdded(Movie movie) {
+        return new JournalEvent(EventType.MOVIE_ADDED, movie.getImdbId(), movie.getTitle(), movie.getDirector(),
+                movie.getStudio(), movie.getReleaseDate(), movie.getMovieDescription(), String.valueOf(movie.getMoviePrice()),
+                String.valueOf(movie.getInitialRentalStock()), String.valueOf(movie.getInitialSaleStock()));
+    }
+
+    public static JournalEvent rentalCopyAdded(Movie movie) {
+        return new JournalEvent(EventType.RENTAL_COPY_ADDED, movie.getImdbId());
+    }
+
+    public static JournalEvent saleCopyAdded(Movie movie) {
+        return new JournalEvent(EventType.SALE_COPY_ADDED, movie.getImdbId());
+    }
+
+    public static JournalEvent copyRented(Movie movie, Customer customer) {
+        return new JournalEvent(EventType.COPY_RENTED, movie.getImdbId(), customer.getUserId());
+    }
+
+    public static JournalEvent copyReturned(Movie movie, Customer customer) {
+        return new JournalEvent(EventType.COPY_RETURNED, movie.getImdbId(), customer.getUserId());
+    }
+
+    public static JournalEvent copySold(Movie movie, Customer customer) {
+        return new JournalEvent(EventType.COPY_SOLD, movie.getImdbId(), customer.getUserId());
+    }
+
+    public static JournalEvent paymentCompleted(PaymentTransaction transaction, String paymentType) {
+        return new JournalEvent(EventType.PAYMENT_COMPLETED, transaction.getTransactionId(),
+                String.valueOf(transaction.getAmount()), paymentType);
+    }
+
+    public static JournalEvent paymentRefunded(PaymentTransaction transaction) {
+        return new JournalEvent(EventType.PAYMENT_REFUNDED, transaction.getTransactionId());
+    }
+
+    public static JournalEvent reviewAdded(Movie movie, Review review) {
+        return new JournalEvent(EventType.REVIEW_ADDED, movie.getImdbId(), review.getCustomer().getUserId(),
+                String.valueOf(review.getMovieRating()), review.getComments());
+    }
+
+    public static JournalEvent reviewEdited(Movie movie, Review review) {
+        return new JournalEvent(EventType.REVIEW_EDITED, movie.getImdbId(), review.getCustomer().getUserId(),
+                String.valueOf(review.getMovieRating()), review.getComments());
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    public String getField(int index) {
+        return fields[index];
+    }
+
+    String[] getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEvent [sequence=" + sequence + ", type=" + type + ", fields=" + Arrays.toString(fields) + "]";
+    }
+}
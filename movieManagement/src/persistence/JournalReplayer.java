@@ -0,0 +1,159 @@
+package movieManagement.src.persistence;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.movie.Review;
+import movieManagement.src.payment.PaymentServiceFactory;
+import movieManagement.src.payment.PaymentTransaction;
+import movieManagement.src.users.Customer;
+import movieManagement.src.users.User;
+
+// Rebuilds in-memory state from journal events; applies them quietly, without the console output of the live paths
+public class JournalReplayer implements Consumer<JournalEvent> {
+    private final MovieCatalog catalog;
+    private final AuthService authService;
+    private final List<PaymentTransaction> transactions;
+    private final Map<String, PaymentTransaction> transactionsById;
+    private long appliedCount;
+    private long skippedCount;
+
+    public JournalReplayer(MovieCatalog catalog, AuthService authService, List<PaymentTransaction> transactions) {
+        this.catalog = catalog;
+        this.authService = authService;
+        this.transactions = transactions;
+        this.transactionsById = new HashMap<String, PaymentTransaction>();
+        for (PaymentTransaction transaction : transactions) {
+            transactionsById.put(transaction.getTransactionId(), transaction);
+        }
+    }
+
+    @Override
+    public void accept(JournalEvent event) {
+        if (apply(event)) {
+            appliedCount++;
+        } else {
+            skippedCount++;
+        }
+    }
+
+    private boolean apply(JournalEvent event) {
+        switch (event.getType()) {
+            case CUSTOMER_REGISTERED:
+                return registerCustomer(event);
+            case MOVIE_ADDED:
+                return catalog.add(new Movie(event.getField(0), event.getField(1), event.getField(2), event.getField(3),
+                        event.getField(4), event.getField(5), Integer.parseInt(event.getField(6)),
+                        rentalStockOf(event), saleStockOf(event)));
+            case RENTAL_COPY_ADDED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                if (movie == null)
+                    return false;
+                movie.addRentalStock(1);
+                return true;
+            }
+            case SALE_COPY_ADDED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                if (movie == null)
+                    return false;
+                movie.addSaleStock(1);
+                return true;
+            }
+            case COPY_RENTED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                Customer customer = findCustomer(event.getField(1));
+                if (movie == null || customer == null || !movie.lendCopy(customer))
+                    return false;
+                customer.addRentedMovie(movie);
+                return true;
+            }
+            case COPY_RETURNED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                Customer customer = findCustomer(event.getField(1));
+                if (movie == null || customer == null || !movie.returnCopy(customer))
+                    return false;
+                customer.removeRentedMovie(movie);
+                return true;
+            }
+            case COPY_SOLD: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                Customer customer = findCustomer(event.getField(1));
+                if (movie == null || customer == null || !movie.buyCopy(customer))
+                    return false;
+                customer.restorePurchasedMovie(movie);
+                return true;
+            }
+            case PAYMENT_COMPLETED: {
+                PaymentTransaction transaction = PaymentServiceFactory.createPaymentTransaction(event.getField(0),
+                        Double.parseDouble(event.getField(1)), event.getField(2));
+                transaction.restoreState(true, false);
+                transactions.add(transaction);
+                transactionsById.put(transaction.getTransactionId(), transaction);
+                return true;
+            }
+            case PAYMENT_REFUNDED: {
+                PaymentTransaction transaction = transactionsById.get(event.getField(0));
+                if (transaction == null)
+                    return false;
+                transaction.restoreState(true, true);
+                return true;
+            }
+            case REVIEW_ADDED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                Customer customer = findCustomer(event.getField(1));
+                if (movie == null || customer == null)
+                    return false;
+                Review review = new Review(event.getField(3), Integer.parseInt(event.getField(2)), customer);
+                if (!movie.addReview(review))
+                    return false;
+                customer.addReview(review);
+                return true;
+            }
+            case REVIEW_EDITED: {
+                Movie movie = catalog.findByImdbId(event.getField(0));
+                Customer customer = findCustomer(event.getField(1));
+                if (movie == null || customer == null)
+                    return false;
+                return movie.updateReview(customer, event.getField(3), Integer.parseInt(event.getField(2)));
+            }
+            default:
+                return false;
+        }
+    }
+
+    private boolean registerCustomer(JournalEvent event) {
+        if (authService.findUserById(event.getField(0)) != null)
+            return false;
+        Customer customer = new Customer(event.getField(0), event.getField(1), CredentialsCheck.fromStoredForm(event.getField(2)));
+        authService.registerUser(customer);
+        return true;
+    }
+
+    private Customer findCustomer(String userId) {
+        User user = authService.findUserById(userId);
+        return user instanceof Customer ? (Customer) user : null;
+    }
+
+    // Journals written before stock levels were recorded only carry the first seven movie fields
+    static int rentalStockOf(JournalEvent event) {
+        return event.getFieldCount() > 7 ? Integer.parseInt(event.getField(7)) : Movie.DEFAULT_RENTAL_STOCK;
+    }
+
+    static int saleStockOf(JournalEvent event) {
+        return event.getFieldCount() > 8 ? Integer.parseInt(event.getField(8)) : Movie.DEFAULT_SALE_STOCK;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+}
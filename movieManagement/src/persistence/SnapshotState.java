@@ -0,0 +1,522 @@
+package movieManagement.src.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.movie.Review;
+import movieManagement.src.payment.PaymentServiceFactory;
+import movieManagement.src.payment.PaymentTransaction;
+import movieManagement.src.users.Customer;
+import movieManagement.src.users.User;
+
+// Plain-data image of everything the journal records, as of one journal sequence.
+// It is folded from the previous snapshot plus journal events, never read from the live objects.
+public class SnapshotState {
+    private static final int MAGIC = 0x4D4D534E;
+    private static final int VERSION = 3;
+    // Version 1 snapshots have no rental counts; they are read with every count at zero
+    private static final int FIRST_VERSION = 1;
+    // Before version 3 reviews carry no order; they are restored in the order the file lists them
+    private static final int ORDERED_REVIEWS_VERSION = 3;
+
+    private long sequence;
+    private final Map<String, MovieState> movies;
+    private final Map<String, CustomerState> customers;
+    private final Map<String, TransactionState> transactions;
+
+    static class MovieState {
+        String imdbId;
+        String title;
+        String director;
+        String studio;
+        String releaseDate;
+        String description;
+        int price;
+        int rentalCopies;
+        int rentedOut;
+        int saleCopies;
+        int soldCopies;
+        int timesRented;
+        final Map<String, ReviewState> reviews = new LinkedHashMap<String, ReviewState>();
+    }
+
+    static class ReviewState {
+        String imdbId;
+        String userId;
+        // The sequence that first wrote it, so a restore adds reviews in the order customers wrote them
+        long order;
+        int rating;
+        String comments;
+    }
+
+    static class CustomerState {
+        String userId;
+        String username;
+        String credential;
+        final List<String> rented = new ArrayList<String>();
+        final List<String> purchased = new ArrayList<String>();
+    }
+
+    static class TransactionState {
+        String transactionId;
+        double amount;
+        String paymentType;
+        boolean refunded;
+    }
+
+    public SnapshotState() {
+        this.movies = new LinkedHashMap<String, MovieState>();
+        this.customers = new LinkedHashMap<String, CustomerState>();
+        this.transactions = new LinkedHashMap<String, TransactionState>();
+    }
+
+    // Movies that exist before any event, such as the predefined catalog
+    public static SnapshotState baseline(List<Movie> movies) {
+        SnapshotState state = new SnapshotState();
+        for (Movie movie : movies) {
+            state.addMovie(movie.getImdbId(), movie.getTitle(), movie.getDirector(), movie.getStudio(),
+                    movie.getReleaseDate(), movie.getMovieDescription(), movie.getMoviePrice(),
+                    movie.getInitialRentalStock(), movie.getInitialSaleStock());
+        }
+        return state;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getMovieCount() {
+        return movies.size();
+    }
+
+    public int getCustomerCount() {
+        return customers.size();
+    }
+
+    public int getTransactionCount() {
+        return transactions.size();
+    }
+
+    public boolean addMovie(String imdbId, String title, String director, String studio, String releaseDate,
+                            String description, int price, int rentalStock, int saleStock) {
+        if (movies.containsKey(imdbId)) {
+            return false;
+        }
+        MovieState movie = new MovieState();
+        movie.imdbId = imdbId;
+        movie.title = title;
+        movie.director = director;
+        movie.studio = studio;
+        movie.releaseDate = releaseDate;
+        movie.description = description;
+        movie.price = price;
+        movie.rentalCopies = rentalStock;
+        movie.saleCopies = saleStock;
+        movies.put(imdbId, movie);
+        return true;
+    }
+
+    public boolean addCustomer(String userId, String username, String storedCredential) {
+        if (customers.containsKey(userId)) {
+            return false;
+        }
+        CustomerState customer = new CustomerState();
+        customer.userId = userId;
+        customer.username = username;
+        customer.credential = storedCredential;
+        customers.put(userId, customer);
+        return true;
+    }
+
+    // Mirrors JournalReplayer: an event the live state would have rejected is ignored here too
+    public void apply(JournalEvent event) {
+        if (event.getSequence() <= sequence) {
+            return;
+        }
+        sequence = event.getSequence();
+        switch (event.getType()) {
+            case CUSTOMER_REGISTERED:
+                addCustomer(event.getField(0), event.getField(1), event.getField(2));
+                break;
+            case MOVIE_ADDED:
+                addMovie(event.getField(0), event.getField(1), event.getField(2), event.getField(3),
+                        event.getField(4), event.getField(5), Integer.parseInt(event.getField(6)),
+                        JournalReplayer.rentalStockOf(event), JournalReplayer.saleStockOf(event));
+                break;
+            case RENTAL_COPY_ADDED: {
+                MovieState movie = movies.get(event.getField(0));
+                if (movie != null)
+                    movie.rentalCopies++;
+                break;
+            }
+            case SALE_COPY_ADDED: {
+                MovieState movie = movies.get(event.getField(0));
+                if (movie != null)
+                    movie.saleCopies++;
+                break;
+            }
+            case COPY_RENTED: {
+                MovieState movie = movies.get(event.getField(0));
+                CustomerState customer = customers.get(event.getField(1));
+                if (movie != null && customer != null && movie.rentedOut < movie.rentalCopies) {
+                    movie.rentedOut++;
+                    movie.timesRented++;
+                    customer.rented.add(movie.imdbId);
+                }
+                break;
+            }
+            case COPY_RETURNED: {
+                MovieState movie = movies.get(event.getField(0));
+                CustomerState customer = customers.get(event.getField(1));
+                if (movie != null && customer != null && customer.rented.remove(movie.imdbId)) {
+                    movie.rentedOut--;
+                }
+                break;
+            }
+            case COPY_SOLD: {
+                MovieState movie = movies.get(event.getField(0));
+                CustomerState customer = customers.get(event.getField(1));
+                if (movie != null && customer != null && movie.soldCopies < movie.saleCopies) {
+                    movie.soldCopies++;
+                    customer.purchased.add(movie.imdbId);
+                }
+                break;
+            }
+            case PAYMENT_COMPLETED: {
+                TransactionState transaction = new TransactionState();
+                transaction.transactionId = event.getField(0);
+                transaction.amount = Double.parseDouble(event.getField(1));
+                transaction.paymentType = event.getField(2);
+                transactions.put(transaction.transactionId, transaction);
+                break;
+            }
+            case PAYMENT_REFUNDED: {
+                TransactionState transaction = transactions.get(event.getField(0));
+                if (transaction != null)
+                    transaction.refunded = true;
+                break;
+            }
+            case REVIEW_ADDED: {
+                MovieState movie = movies.get(event.getField(0));
+                if (movie != null && customers.containsKey(event.getField(1)) && !movie.reviews.containsKey(event.getField(1))) {
+                    ReviewState review = new ReviewState();
+                    review.imdbId = movie.imdbId;
+                    review.userId = event.getField(1);
+                    review.order = sequence;
+                    review.rating = Integer.parseInt(event.getField(2));
+                    review.comments = event.getField(3);
+                    movie.reviews.put(review.userId, review);
+                }
+                break;
+            }
+            case REVIEW_EDITED: {
+                MovieState movie = movies.get(event.getField(0));
+                ReviewState review = movie != null ? movie.reviews.get(event.getField(1)) : null;
+                if (review != null) {
+                    review.rating = Integer.parseInt(event.getField(2));
+                    review.comments = event.getField(3);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    // Builds the live objects; movies already in the catalog (the predefined ones) are topped up rather than replaced.
+    // Stock is restored as counts, so only copies that are rented out get objects.
+    public void restoreInto(MovieCatalog catalog, AuthService authService, List<PaymentTransaction> transactionList) {
+        for (MovieState state : movies.values()) {
+            Movie movie = catalog.findByImdbId(state.imdbId);
+            if (movie == null) {
+                movie = new Movie(state.imdbId, state.title, state.director, state.studio, state.releaseDate,
+                        state.description, state.price, state.rentalCopies, state.saleCopies);
+                catalog.add(movie);
+            } else {
+                movie.addRentalStock(Math.max(0, state.rentalCopies - movie.getInitialRentalStock()));
+                movie.addSaleStock(Math.max(0, state.saleCopies - movie.getInitialSaleStock()));
+            }
+        }
+        for (CustomerState state : customers.values()) {
+            User existing = authService.findUserById(state.userId);
+            Customer customer;
+            if (existing instanceof Customer) {
+                customer = (Customer) existing;
+            } else {
+                customer = new Customer(state.userId, state.username, CredentialsCheck.fromStoredForm(state.credential));
+                authService.registerUser(customer);
+            }
+            for (String imdbId : state.rented) {
+                Movie movie = catalog.findByImdbId(imdbId);
+                if (movie.lendCopy(customer))
+                    customer.addRentedMovie(movie);
+            }
+            for (String imdbId : state.purchased) {
+                Movie movie = catalog.findByImdbId(imdbId);
+                if (movie.buyCopy(customer))
+                    customer.restorePurchasedMovie(movie);
+            }
+        }
+        // Copies still rented out were counted again when they were lent above
+        for (MovieState state : movies.values()) {
+            Movie movie = catalog.findByImdbId(state.imdbId);
+            movie.addRentalCount(Math.max(0, state.timesRented - movie.getRentalCount()));
+        }
+        // Across all movies at once, so each customer's reviews and each movie's come back in the order they were written
+        List<ReviewState> reviews = new ArrayList<ReviewState>();
+        for (MovieState state : movies.values()) {
+            reviews.addAll(state.reviews.values());
+        }
+        reviews.sort(Comparator.comparingLong(review -> review.order));
+        for (ReviewState state : reviews) {
+            User user = authService.findUserById(state.userId);
+            if (!(user instanceof Customer))
+                continue;
+            Customer customer = (Customer) user;
+            Movie movie = catalog.findByImdbId(state.imdbId);
+            Review review = new Review(state.comments, state.rating, customer);
+            if (movie.addReview(review))
+                customer.addReview(review);
+        }
+        for (TransactionState state : transactions.values()) {
+            PaymentTransaction transaction = PaymentServiceFactory.createPaymentTransaction(state.transactionId,
+                    state.amount, state.paymentType);
+            transaction.restoreState(true, state.refunded);
+            transactionList.add(transaction);
+        }
+    }
+
+    // Written to a sibling temp file, forced, then renamed over the old snapshot so a crash leaves one intact copy.
+    // The directory is forced too, so the new snapshot is durable before the Checkpointer compacts the journal.
+    public void writeTo(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (OutputStream file = Files.newOutputStream(temp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(movies.size());
+            for (MovieState movie : movies.values()) {
+                writeString(out, movie.imdbId);
+                writeString(out, movie.title);
+                writeString(out, movie.director);
+                writeString(out, movie.studio);
+                writeString(out, movie.releaseDate);
+                writeString(out, movie.description);
+                out.writeInt(movie.price);
+                out.writeInt(movie.rentalCopies);
+                out.writeInt(movie.saleCopies);
+                out.writeInt(movie.timesRented);
+                out.writeInt(movie.reviews.size());
+                for (ReviewState review : movie.reviews.values()) {
+                    writeString(out, review.userId);
+                    out.writeLong(review.order);
+                    out.writeByte(review.rating);
+                    writeString(out, review.comments);
+                }
+            }
+            out.writeInt(customers.size());
+            for (CustomerState customer : customers.values()) {
+                writeString(out, customer.userId);
+                writeString(out, customer.username);
+                writeString(out, customer.credential);
+                writeStrings(out, customer.rented);
+                writeStrings(out, customer.purchased);
+            }
+            out.writeInt(transactions.size());
+            for (TransactionState transaction : transactions.values()) {
+                writeString(out, transaction.transactionId);
+                out.writeDouble(transaction.amount);
+                writeString(out, transaction.paymentType);
+                out.writeBoolean(transaction.refunded);
+            }
+            out.flush();
+            // The trailer is outside the checksum it carries
+            file.write(intBytes((int) crc.getValue()));
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        EventJournal.forceDirectory(path);
+    }
+
+    public static SnapshotState readFrom(Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < 4) {
+            throw new IOException("Snapshot " + path + " is truncated.");
+        }
+        CRC32C crc = new CRC32C();
+        SnapshotState state = new SnapshotState();
+        try (InputStream file = Files.newInputStream(path)) {
+            BoundedInputStream body = new BoundedInputStream(file, size - 4);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new CheckedInputStream(body, crc), 64 * 1024));
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version < FIRST_VERSION || version > VERSION) {
+                throw new IOException("Snapshot " + path + " has an unknown format.");
+            }
+            state.sequence = in.readLong();
+            long fileOrder = 0;
+            int movieCount = in.readInt();
+            for (int i = 0; i < movieCount; i++) {
+                MovieState movie = new MovieState();
+                movie.imdbId = readString(in, size);
+                movie.title = readString(in, size);
+                movie.director = readString(in, size);
+                movie.studio = readString(in, size);
+                movie.releaseDate = readString(in, size);
+                movie.description = readString(in, size);
+                movie.price = in.readInt();
+                movie.rentalCopies = in.readInt();
+                movie.saleCopies = in.readInt();
+                movie.timesRented = version > FIRST_VERSION ? in.readInt() : 0;
+                int reviewCount = in.readInt();
+                for (int r = 0; r < reviewCount; r++) {
+                    ReviewState review = new ReviewState();
+                    review.imdbId = movie.imdbId;
+                    review.userId = readString(in, size);
+                    review.order = version >= ORDERED_REVIEWS_VERSION ? in.readLong() : ++fileOrder;
+                    review.rating = in.readByte();
+                    review.comments = readString(in, size);
+                    movie.reviews.put(review.userId, review);
+                }
+                state.movies.put(movie.imdbId, movie);
+            }
+            int customerCount = in.readInt();
+            for (int i = 0; i < customerCount; i++) {
+                CustomerState customer = new CustomerState();
+                customer.userId = readString(in, size);
+                customer.username = readString(in, size);
+                customer.credential = readString(in, size);
+                readStrings(in, customer.rented, size);
+                readStrings(in, customer.purchased, size);
+                for (String imdbId : customer.rented) {
+                    state.requireMovie(imdbId).rentedOut++;
+                }
+                for (String imdbId : customer.purchased) {
+                    state.requireMovie(imdbId).soldCopies++;
+                }
+                state.customers.put(customer.userId, customer);
+            }
+            int transactionCount = in.readInt();
+            for (int i = 0; i < transactionCount; i++) {
+                TransactionState transaction = new TransactionState();
+                transaction.transactionId = readString(in, size);
+                transaction.amount = in.readDouble();
+                transaction.paymentType = readString(in, size);
+                transaction.refunded = in.readBoolean();
+                state.transactions.put(transaction.transactionId, transaction);
+            }
+            if (in.read() != -1) {
+                throw new IOException("Snapshot " + path + " has trailing data.");
+            }
+            byte[] trailer = file.readNBytes(4);
+            if (trailer.length != 4 || toInt(trailer) != (int) crc.getValue()) {
+                throw new IOException("Snapshot " + path + " failed its checksum.");
+            }
+        }
+        return state;
+    }
+
+    private MovieState requireMovie(String imdbId) throws IOException {
+        MovieState movie = movies.get(imdbId);
+        if (movie == null) {
+            throw new IOException("Snapshot refers to unknown movie " + imdbId + ".");
+        }
+        return movie;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // A length can never exceed the file, so a corrupt one fails here instead of allocating a huge array
+    private static String readString(DataInputStream in, long limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit) {
+            throw new IOException("Snapshot is corrupt.");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void readStrings(DataInputStream in, List<String> values, long limit) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in, limit));
+        }
+    }
+
+    private static byte[] intBytes(int value) {
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+    }
+
+    private static int toInt(byte[] bytes) {
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    // Stops the checksummed body before the trailer without buffering the whole file
+    private static class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0)
+                return -1;
+            int b = in.read();
+            if (b >= 0)
+                remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0)
+                return -1;
+            int n = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0)
+                remaining -= n;
+            return n;
+        }
+    }
+}
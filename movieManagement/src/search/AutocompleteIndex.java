@@ -0,0 +1,525 @@
+package movieManagement.src.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import movieManagement.src.movie.CatalogListener;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+
+// Type-ahead over titles and director names, ranked by rentals. Names are normalized (lowercase, punctuation
+// folded into single spaces) into a radix trie, where a chain of single-child nodes is one edge. Every node caches
+// its best MAX_COMPLETIONS entries, so a query walks the typed prefix and copies one list: the cost is the prefix
+// length plus k, whatever the catalog size, and nothing is allocated. Each word start is also a key, so "knight"
+// finds "The Dark Knight" and "nolan" finds "Christopher Nolan".
+// Attached to a catalog, it follows adds, removes and rentals.
+public class AutocompleteIndex implements CatalogListener {
+    public static final int MAX_COMPLETIONS = 10;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+
+    private final ReentrantReadWriteLock lock;
+    private final Node root;
+    private final Map<String, Completion> titlesById;
+    // Keyed by normalized name, so "Nolan, Christopher" and "nolan christopher" are one director
+    private final Map<String, Completion> directorsByName;
+    private long nextOrder;
+
+    public AutocompleteIndex() {
+        this.lock = new ReentrantReadWriteLock();
+        this.root = new Node(new char[0]);
+        this.titlesById = new HashMap<String, Completion>();
+        this.directorsByName = new HashMap<String, Completion>();
+    }
+
+    // Listens first and then indexes what is already there; a movie caught by both is only indexed once
+    public void attach(MovieCatalog catalog) {
+        catalog.addListener(this);
+        for (Movie movie : catalog.getAllMovies()) {
+            add(movie);
+        }
+    }
+
+    @Override
+    public void movieAdded(Movie movie) {
+        add(movie);
+    }
+
+    @Override
+    public void movieRemoved(Movie movie) {
+        remove(movie);
+    }
+
+    @Override
+    public void movieRented(Movie movie) {
+        updatePopularity(movie);
+    }
+
+    public boolean add(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            throw new IllegalArgumentException("Movie and IMDB ID cannot be null.");
+        }
+        List<String> titleKeys = keys(normalize(movie.getTitle()));
+        String directorName = normalize(movie.getDirector());
+        lock.writeLock().lock();
+        try {
+            if (titlesById.containsKey(movie.getImdbId())) {
+                return false;
+            }
+            Completion title = new Completion(Completion.Kind.TITLE, movie.getTitle(), movie, nextOrder++);
+            title.popularity = movie.getRentalCount();
+            title.movieCount = 1;
+            titlesById.put(movie.getImdbId(), title);
+            for (String key : titleKeys) {
+                insert(key, title);
+            }
+            if (directorName.isEmpty()) {
+                return true;
+            }
+            Completion director = directorsByName.get(directorName);
+            if (director == null) {
+                director = new Completion(Completion.Kind.DIRECTOR, movie.getDirector().trim(), null, nextOrder++);
+                director.popularity = title.popularity;
+                director.movieCount = 1;
+                directorsByName.put(directorName, director);
+                for (String key : keys(directorName)) {
+                    insert(key, director);
+                }
+            } else {
+                director.movieCount++;
+                director.popularity += title.popularity;
+                promote(keys(directorName), director);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Completion title = titlesById.remove(movie.getImdbId());
+            if (title == null) {
+                return false;
+            }
+            // The keys come from the movie that was indexed, which may not be the instance passed in
+            String directorName = normalize(title.getMovie().getDirector());
+            for (String key : keys(normalize(title.getMovie().getTitle()))) {
+                delete(key, title);
+            }
+            Completion director = directorsByName.get(directorName);
+            if (director == null) {
+                return true;
+            }
+            director.movieCount--;
+            director.popularity -= title.popularity;
+            if (director.movieCount == 0) {
+                directorsByName.remove(directorName);
+                for (String key : keys(directorName)) {
+                    delete(key, director);
+                }
+            } else if (title.popularity > 0) {
+                // A lower score can drop the director out of a cached list, which then needs the next best entry
+                for (String key : keys(directorName)) {
+                    rebuild(key);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void updatePopularity(Movie movie) {
+        List<String> titleKeys = keys(normalize(movie.getTitle()));
+        String directorName = normalize(movie.getDirector());
+        lock.writeLock().lock();
+        try {
+            Completion title = titlesById.get(movie.getImdbId());
+            if (title == null || title.getMovie() != movie) {
+                return;
+            }
+            // Rentals reported out of order must not move the count backwards
+            int gained = movie.getRentalCount() - title.popularity;
+            if (gained <= 0) {
+                return;
+            }
+            title.popularity += gained;
+            promote(titleKeys, title);
+            Completion director = directorsByName.get(directorName);
+            if (director != null) {
+                director.popularity += gained;
+                promote(keys(directorName), director);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return titlesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Fills results with the best completions of the prefix, most rented first, and returns how many it wrote.
+    // An empty prefix gives the most rented overall. Completions are shared, so reusing one results array per
+    // search box keeps every keystroke free of allocation.
+    public int complete(CharSequence prefix, Completion[] results) {
+        if (results == null) {
+            throw new IllegalArgumentException("Results array cannot be null.");
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int offset = 0;
+            boolean separated = false;
+            int length = prefix != null ? prefix.length() : 0;
+            // Normalizes while it walks: the same folding as normalize, one character at a time
+            for (int i = 0; i < length; i++) {
+                char c = prefix.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    separated = node != root || offset > 0;
+                    continue;
+                }
+                for (int pass = separated ? 0 : 1; pass < 2; pass++) {
+                    char next = pass == 0 ? ' ' : Character.toLowerCase(c);
+                    if (offset == node.label.length) {
+                        node = node.child(next);
+                        if (node == null) {
+                            return 0;
+                        }
+                        offset = 1;
+                    } else if (node.label[offset++] != next) {
+                        return 0;
+                    }
+                }
+                separated = false;
+            }
+            int count = Math.min(results.length, node.topCount);
+            System.arraycopy(node.top, 0, results, 0, count);
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Completion> complete(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Completion limit must be positive.");
+        }
+        Completion[] results = new Completion[Math.min(limit, MAX_COMPLETIONS)];
+        int count = complete(prefix, results);
+        return new ArrayList<Completion>(Arrays.asList(results).subList(0, count));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean separated = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                separated = normalized.length() > 0;
+                continue;
+            }
+            if (separated) {
+                normalized.append(' ');
+                separated = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    // The whole name and every tail that starts at a word
+    private static List<String> keys(String normalized) {
+        List<String> keys = new ArrayList<String>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private void insert(String key, Completion completion) {
+        Node node = root;
+        root.offer(completion);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i).toCharArray());
+                node.addChild(child);
+                i = key.length();
+            } else {
+                int matched = 1;
+                while (matched < child.label.length && i + matched < key.length()
+                        && child.label[matched] == key.charAt(i + matched)) {
+                    matched++;
+                }
+                if (matched < child.label.length) {
+                    child = split(node, child, matched);
+                }
+                i += matched;
+            }
+            node = child;
+            node.offer(completion);
+        }
+        node.addTerminal(completion);
+    }
+
+    // The new upper node covers exactly the old child's subtree, so it starts with the same cached list
+    private static Node split(Node parent, Node child, int at) {
+        Node upper = new Node(Arrays.copyOfRange(child.label, 0, at));
+        child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+        upper.children = new Node[] {child};
+        upper.childCount = 1;
+        upper.top = Arrays.copyOf(child.top, child.top.length);
+        upper.topCount = child.topCount;
+        parent.replaceChild(child, upper);
+        return upper;
+    }
+
+    private void promote(List<String> keys, Completion completion) {
+        Node[] path = new Node[maxLength(keys) + 1];
+        for (String key : keys) {
+            int depth = path(key, path);
+            for (int d = 0; d < depth; d++) {
+                path[d].offer(completion);
+            }
+        }
+    }
+
+    private void delete(String key, Completion completion) {
+        Node[] path = new Node[key.length() + 1];
+        int depth = path(key, path);
+        int last = depth - 1;
+        Node node = path[last];
+        if (node.label.length + depthLength(path, last) != key.length()) {
+            return;
+        }
+        node.removeTerminal(completion);
+        if (last > 0 && node.terminalCount == 0 && node.childCount == 0) {
+            path[last - 1].removeChild(node);
+            last--;
+        }
+        Node parent = path[last];
+        if (last > 0 && parent.terminalCount == 0 && parent.childCount == 1) {
+            // Folds the only remaining child into its parent's edge; the child's own list is still right
+            Node only = parent.children[0];
+            char[] label = Arrays.copyOf(parent.label, parent.label.length + only.label.length);
+            System.arraycopy(only.label, 0, label, parent.label.length, only.label.length);
+            only.label = label;
+            path[last - 1].replaceChild(parent, only);
+            last--;
+        }
+        for (int d = last; d >= 0; d--) {
+            path[d].rebuild();
+        }
+    }
+
+    private void rebuild(String key) {
+        Node[] path = new Node[key.length() + 1];
+        for (int d = path(key, path) - 1; d >= 0; d--) {
+            path[d].rebuild();
+        }
+    }
+
+    // Fills path with the nodes from the root towards the key, as far as they match, and returns how many
+    private int path(String key, Node[] path) {
+        Node node = root;
+        int depth = 0;
+        path[depth++] = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !startsWith(key, i, child.label)) {
+                break;
+            }
+            i += child.label.length;
+            node = child;
+            path[depth++] = node;
+        }
+        return depth;
+    }
+
+    private static boolean startsWith(String key, int offset, char[] label) {
+        if (offset + label.length > key.length()) {
+            return false;
+        }
+        for (int i = 0; i < label.length; i++) {
+            if (key.charAt(offset + i) != label[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int depthLength(Node[] path, int last) {
+        int length = 0;
+        for (int d = 0; d < last; d++) {
+            length += path[d].label.length;
+        }
+        return length;
+    }
+
+    private static int maxLength(List<String> keys) {
+        int length = 0;
+        for (String key : keys) {
+            length = Math.max(length, key.length());
+        }
+        return length;
+    }
+
+    // One trie edge and the node it leads to. Children are sorted by the first character of their label.
+    private static final class Node {
+        char[] label;
+        Node[] children;
+        int childCount;
+        // Completions whose key ends exactly here
+        Completion[] terminals;
+        int terminalCount;
+        // Best completions anywhere below, best first, at most MAX_COMPLETIONS
+        Completion[] top;
+        int topCount;
+
+        Node(char[] label) {
+            this.label = label;
+            this.children = NO_CHILDREN;
+            this.terminals = NO_COMPLETIONS;
+            this.top = NO_COMPLETIONS;
+        }
+
+        Node child(char first) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label[0];
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return children[middle];
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            int index = childCount;
+            while (index > 0 && children[index - 1].label[0] > child.label[0]) {
+                children[index] = children[index - 1];
+                index--;
+            }
+            children[index] = child;
+            childCount++;
+        }
+
+        // The replacement's label starts with the same character, so the order is kept
+        void replaceChild(Node child, Node replacement) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i] == child) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        void removeChild(Node child) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i] == child) {
+                    System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+                    children[--childCount] = null;
+                    return;
+                }
+            }
+        }
+
+        void addTerminal(Completion completion) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == completion) {
+                    return;
+                }
+            }
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, Math.max(1, terminalCount * 2));
+            }
+            terminals[terminalCount++] = completion;
+        }
+
+        void removeTerminal(Completion completion) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == completion) {
+                    System.arraycopy(terminals, i + 1, terminals, i, terminalCount - i - 1);
+                    terminals[--terminalCount] = null;
+                    return;
+                }
+            }
+        }
+
+        // Places a new or more popular completion in the cached list, dropping the weakest when it is full
+        void offer(Completion completion) {
+            int index = 0;
+            while (index < topCount && top[index] != completion) {
+                index++;
+            }
+            if (index == topCount) {
+                if (topCount == MAX_COMPLETIONS) {
+                    if (!completion.ranksAbove(top[topCount - 1])) {
+                        return;
+                    }
+                    index = topCount - 1;
+                } else {
+                    if (topCount == top.length) {
+                        top = Arrays.copyOf(top, Math.min(MAX_COMPLETIONS, Math.max(1, topCount * 2)));
+                    }
+                    topCount++;
+                }
+                top[index] = completion;
+            }
+            while (index > 0 && completion.ranksAbove(top[index - 1])) {
+                top[index] = top[index - 1];
+                top[--index] = completion;
+            }
+        }
+
+        // Recomputes the cached list from this node's own completions and its children's lists, which already
+        // hold the best of everything below them
+        void rebuild() {
+            Arrays.fill(top, 0, topCount, null);
+            topCount = 0;
+            for (int i = 0; i < terminalCount; i++) {
+                offer(terminals[i]);
+            }
+            for (int c = 0; c < childCount; c++) {
+                Node child = children[c];
+                for (int i = 0; i < child.topCount; i++) {
+                    offer(child.top[i]);
+                }
+            }
+        }
+    }
+}
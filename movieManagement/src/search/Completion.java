@@ -0,0 +1,54 @@
+package movieManagement.src.search;
+
+import movieManagement.src.movie.Movie;
+
+// One suggestion in the type-ahead: a movie title, or a director with the rentals of all their movies.
+// The same instance is handed out on every query, so callers should not hold on to its popularity.
+public class Completion {
+    public enum Kind {
+        TITLE,
+        DIRECTOR
+    }
+
+    private final Kind kind;
+    private final String text;
+    private final Movie movie;
+    // Breaks ties in a fixed order, so the cached rankings inside the trie never disagree with each other
+    final long order;
+    int popularity;
+    int movieCount;
+
+    Completion(Kind kind, String text, Movie movie, long order) {
+        this.kind = kind;
+        this.text = text;
+        this.movie = movie;
+        this.order = order;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // The titled movie; null for a director
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public int getPopularity() {
+        return popularity;
+    }
+
+    // Ranks higher first: more rentals, then the one indexed earlier
+    boolean ranksAbove(Completion other) {
+        return popularity != other.popularity ? popularity > other.popularity : order < other.order;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.DIRECTOR ? text + " (director, " + popularity + " rentals)" : text + " (" + popularity + " rentals)";
+    }
+}
@@ -0,0 +1,90 @@
+package movieManagement.src.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToIntFunction;
+
+import movieManagement.src.movie.Movie;
+
+// Movies ranked by a score that changes one movie at a time. Each movie sits in a skip list under a key that
+// sorts the highest score first, so an update is a remove and a put, O(log n), and the top k is the first k
+// entries, whatever the catalog size. Movies scoring zero or less are not ranked.
+// Updates are serialized; reads never block. A read racing a move may miss the movie, or meet it at both its old
+// and its new key, so top() skips a movie it has already listed.
+public class Leaderboard {
+    private final ConcurrentSkipListMap<Long, Movie> ranking;
+    private final Map<Movie, Long> keys;
+    // Ties rank the movie that scored first higher
+    private long nextOrder;
+
+    public Leaderboard() {
+        this.ranking = new ConcurrentSkipListMap<>();
+        this.keys = new ConcurrentHashMap<>();
+    }
+
+    public List<Movie> top(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Number of movies must be positive.");
+        }
+        List<Movie> top = new ArrayList<>(Math.min(k, 64));
+        Set<Movie> listed = new HashSet<>();
+        for (Movie movie : ranking.values()) {
+            if (top.size() == k) {
+                break;
+            }
+            if (listed.add(movie)) {
+                top.add(movie);
+            }
+        }
+        return top;
+    }
+
+    // 0 when the movie is not ranked
+    public int getScore(Movie movie) {
+        Long key = keys.get(movie);
+        return key != null ? scoreOf(key) : 0;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    // Reads the score under the lock, so when two updates race the later one always sees the newer value
+    synchronized void update(Movie movie, ToIntFunction<Movie> score) {
+        set(movie, score.applyAsInt(movie));
+    }
+
+    synchronized void set(Movie movie, int score) {
+        Long previous = keys.get(movie);
+        if (previous != null && scoreOf(previous) == score) {
+            return;
+        }
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (score <= 0) {
+            keys.remove(movie);
+            return;
+        }
+        long order = previous != null ? previous & 0xFFFFFFFFL : nextOrder++ & 0xFFFFFFFFL;
+        long key = ((long) (Integer.MAX_VALUE - score) << 32) | order;
+        ranking.put(key, movie);
+        keys.put(movie, key);
+    }
+
+    synchronized void remove(Movie movie) {
+        Long previous = keys.remove(movie);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+    }
+
+    private static int scoreOf(long key) {
+        return Integer.MAX_VALUE - (int) (key >>> 32);
+    }
+}
@@ -0,0 +1,128 @@
+package movieManagement.src.search;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import movieManagement.src.movie.CatalogListener;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+
+// The home-screen carousels: top rated, most rented and best selling, all time and over the last week.
+// Attached to a catalog, each rental, sale or review moves one movie on the boards it affects, and every
+// carousel is read in O(k). The weekly boards only count activity seen while attached, so they fill up
+// over the first week after a restart.
+public class Leaderboards implements CatalogListener {
+    public static final Duration WEEK = Duration.ofDays(7);
+    // Hourly buckets, so the weekly boards drop an event within an hour of it turning a week old
+    private static final int WEEK_BUCKETS = 7 * 24;
+    // Bayesian ratings are ranked in hundredths
+    private static final int RATING_SCALE = 100;
+
+    private final Leaderboard topRated;
+    private final Leaderboard mostRented;
+    private final Leaderboard bestSelling;
+    private final WindowedLeaderboard rentedThisWeek;
+    private final WindowedLeaderboard soldThisWeek;
+    // Last rental and sale counts seen per movie, to turn absolute counts into events for the weekly boards.
+    // They hold exactly the attached movies: a movie is only re-ranked inside its entry here, and movieRemoved
+    // drops the entries before the rankings, so a removed movie is never ranked again.
+    private final Map<Movie, Integer> rentalsSeen;
+    private final Map<Movie, Integer> salesSeen;
+
+    public Leaderboards() {
+        this(Clock.systemUTC());
+    }
+
+    public Leaderboards(Clock clock) {
+        this.topRated = new Leaderboard();
+        this.mostRented = new Leaderboard();
+        this.bestSelling = new Leaderboard();
+        this.rentedThisWeek = new WindowedLeaderboard(WEEK, WEEK_BUCKETS, clock);
+        this.soldThisWeek = new WindowedLeaderboard(WEEK, WEEK_BUCKETS, clock);
+        this.rentalsSeen = new ConcurrentHashMap<>();
+        this.salesSeen = new ConcurrentHashMap<>();
+    }
+
+    // Listens first and then ranks what is already there, counting past rentals and sales as all-time only
+    public void attach(MovieCatalog catalog) {
+        catalog.addListener(this);
+        for (Movie movie : catalog.getAllMovies()) {
+            movieAdded(movie);
+        }
+    }
+
+    public List<Movie> getTopRated(int k) {
+        return topRated.top(k);
+    }
+
+    public List<Movie> getMostRented(int k) {
+        return mostRented.top(k);
+    }
+
+    public List<Movie> getMostRentedThisWeek(int k) {
+        return rentedThisWeek.top(k);
+    }
+
+    public List<Movie> getBestSelling(int k) {
+        return bestSelling.top(k);
+    }
+
+    public List<Movie> getBestSellingThisWeek(int k) {
+        return soldThisWeek.top(k);
+    }
+
+    @Override
+    public void movieAdded(Movie movie) {
+        rentalsSeen.putIfAbsent(movie, movie.getRentalCount());
+        salesSeen.putIfAbsent(movie, movie.getSoldCopyCount());
+        mostRented.update(movie, Movie::getRentalCount);
+        bestSelling.update(movie, Movie::getSoldCopyCount);
+        movieReviewed(movie);
+    }
+
+    // Waits for any update running inside the movie's entries, then drops the movie everywhere
+    @Override
+    public void movieRemoved(Movie movie) {
+        rentalsSeen.remove(movie);
+        salesSeen.remove(movie);
+        topRated.remove(movie);
+        mostRented.remove(movie);
+        bestSelling.remove(movie);
+        rentedThisWeek.remove(movie);
+        soldThisWeek.remove(movie);
+    }
+
+    // Counts only rise, so keeping the highest seen means two racing events never count the same one twice
+    @Override
+    public void movieRented(Movie movie) {
+        rentalsSeen.computeIfPresent(movie, (key, before) -> {
+            int count = movie.getRentalCount();
+            mostRented.update(movie, Movie::getRentalCount);
+            rentedThisWeek.record(movie, Math.max(0, count - before));
+            return Math.max(before, count);
+        });
+    }
+
+    @Override
+    public void movieSold(Movie movie) {
+        salesSeen.computeIfPresent(movie, (key, before) -> {
+            int count = movie.getSoldCopyCount();
+            bestSelling.update(movie, Movie::getSoldCopyCount);
+            soldThisWeek.record(movie, Math.max(0, count - before));
+            return Math.max(before, count);
+        });
+    }
+
+    // Unreviewed movies score 0 and are left off rather than ranked at the prior
+    @Override
+    public void movieReviewed(Movie movie) {
+        rentalsSeen.computeIfPresent(movie, (key, rentals) -> {
+            topRated.update(movie, reviewed -> reviewed.getReviewCount() == 0 ? 0
+                    : (int) Math.round(reviewed.getBayesianRating() * RATING_SCALE));
+            return rentals;
+        });
+    }
+}
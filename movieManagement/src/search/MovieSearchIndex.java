@@ -0,0 +1,488 @@
+package movieManagement.src.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import movieManagement.src.movie.CatalogListener;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+
+// Inverted index over title, director, studio and description, ranked with BM25. Field matches are weighted
+// (a title hit counts three times a description hit). The last query word also matches as a prefix, so results
+// follow typing, and a word that matches nothing falls back to titles, directors and studios one typo away.
+// Attached to a catalog, it follows every add and remove without rescanning.
+public class MovieSearchIndex implements CatalogListener {
+    public static final double K1 = 1.2;
+    public static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DIRECTOR_WEIGHT = 2;
+    private static final int STUDIO_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final ReentrantReadWriteLock lock;
+    // Sorted so a prefix is one subMap range
+    private final TreeMap<String, PostingList> terms;
+    // Every one-character deletion of a typo-matchable term, pointing back at the terms that produce it
+    private final Map<String, List<String>> deletions;
+    private final Map<String, Integer> documentIds;
+    private Movie[] documents;
+    private int[] documentLengths;
+    private int nextDocument;
+    private int liveDocuments;
+    private long totalLength;
+
+    public MovieSearchIndex() {
+        this.lock = new ReentrantReadWriteLock();
+        this.terms = new TreeMap<String, PostingList>();
+        this.deletions = new HashMap<String, List<String>>();
+        this.documentIds = new HashMap<String, Integer>();
+        this.documents = new Movie[16];
+        this.documentLengths = new int[16];
+    }
+
+    // Listens first and then indexes what is already there; a movie caught by both is only indexed once
+    public void attach(MovieCatalog catalog) {
+        catalog.addListener(this);
+        for (Movie movie : catalog.getAllMovies()) {
+            add(movie);
+        }
+    }
+
+    @Override
+    public void movieAdded(Movie movie) {
+        add(movie);
+    }
+
+    @Override
+    public void movieRemoved(Movie movie) {
+        remove(movie);
+    }
+
+    public boolean add(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            throw new IllegalArgumentException("Movie and IMDB ID cannot be null.");
+        }
+        Map<String, int[]> frequencies = new HashMap<String, int[]>();
+        int length = countTerms(frequencies, movie.getTitle(), TITLE_WEIGHT)
+                + countTerms(frequencies, movie.getDirector(), DIRECTOR_WEIGHT)
+                + countTerms(frequencies, movie.getStudio(), STUDIO_WEIGHT)
+                + countTerms(frequencies, movie.getMovieDescription(), DESCRIPTION_WEIGHT);
+        lock.writeLock().lock();
+        try {
+            if (documentIds.containsKey(movie.getImdbId())) {
+                return false;
+            }
+            int document = nextDocument++;
+            if (document == documents.length) {
+                documents = Arrays.copyOf(documents, document * 2);
+                documentLengths = Arrays.copyOf(documentLengths, document * 2);
+            }
+            documents[document] = movie;
+            documentLengths[document] = length;
+            documentIds.put(movie.getImdbId(), document);
+            liveDocuments++;
+            totalLength += length;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                String term = entry.getKey();
+                int[] counts = entry.getValue();
+                PostingList postings = terms.get(term);
+                if (postings == null) {
+                    postings = new PostingList();
+                    terms.put(term, postings);
+                }
+                postings.add(document, counts[0], length);
+                if (counts[1] != 0 && !postings.fuzzy && term.length() >= MIN_FUZZY_LENGTH) {
+                    postings.fuzzy = true;
+                    addDeletions(term);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(Movie movie) {
+        if (movie == null || movie.getImdbId() == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer document = documentIds.remove(movie.getImdbId());
+            if (document == null) {
+                return false;
+            }
+            Movie indexed = documents[document];
+            documents[document] = null;
+            liveDocuments--;
+            totalLength -= documentLengths[document];
+            Map<String, int[]> frequencies = new HashMap<String, int[]>();
+            countTerms(frequencies, indexed.getTitle(), TITLE_WEIGHT);
+            countTerms(frequencies, indexed.getDirector(), DIRECTOR_WEIGHT);
+            countTerms(frequencies, indexed.getStudio(), STUDIO_WEIGHT);
+            countTerms(frequencies, indexed.getMovieDescription(), DESCRIPTION_WEIGHT);
+            for (String term : frequencies.keySet()) {
+                PostingList postings = terms.get(term);
+                postings.markRemoved(documents, documentLengths);
+                if (postings.size() == 0) {
+                    terms.remove(term);
+                    if (postings.fuzzy) {
+                        removeDeletions(term);
+                    }
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best matches first. Documents are visited in id order across all matching terms (Block-Max WAND): once the
+    // result list is full, a document is only scored when the upper bounds of the terms it could contain, per
+    // term and then per block, beat the weakest result so far. Common terms therefore skip most of their postings.
+    public List<SearchResult> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Result limit must be positive.");
+        }
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            if (liveDocuments == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalLength / liveDocuments;
+            List<Cursor> cursors = new ArrayList<Cursor>();
+            for (int t = 0; t < tokens.size(); t++) {
+                String token = tokens.get(t);
+                PostingList exact = terms.get(token);
+                boolean matched = exact != null;
+                if (exact != null) {
+                    addCursor(cursors, exact, 1.0, averageLength);
+                }
+                if (t == tokens.size() - 1) {
+                    matched |= addPrefixCursors(cursors, token, averageLength);
+                }
+                if (!matched && token.length() >= MIN_FUZZY_LENGTH) {
+                    for (String similar : similarTerms(token)) {
+                        addCursor(cursors, terms.get(similar), FUZZY_WEIGHT, averageLength);
+                    }
+                }
+            }
+            return topResults(cursors.toArray(new Cursor[0]), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean addPrefixCursors(List<Cursor> cursors, String prefix, double averageLength) {
+        NavigableMap<String, PostingList> range = terms.subMap(prefix, false, prefix + Character.MAX_VALUE, false);
+        int expanded = 0;
+        for (PostingList postings : range.values()) {
+            if (expanded++ == MAX_PREFIX_TERMS) {
+                break;
+            }
+            addCursor(cursors, postings, PREFIX_WEIGHT, averageLength);
+        }
+        return expanded > 0;
+    }
+
+    private void addCursor(List<Cursor> cursors, PostingList postings, double weight, double averageLength) {
+        int documentFrequency = postings.documentFrequency();
+        double idf = Math.log(1.0 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        cursors.add(new Cursor(postings, weight * idf, averageLength));
+    }
+
+    private List<SearchResult> topResults(Cursor[] cursors, int limit) {
+        PriorityQueue<SearchResult> best = new PriorityQueue<SearchResult>(Math.min(limit, 1024) + 1,
+                (a, b) -> Double.compare(a.getScore(), b.getScore()));
+        double threshold = 0.0;
+        while (true) {
+            sortByDocument(cursors);
+            // The pivot is the first document whose terms, at their best, could beat the threshold
+            double bound = 0.0;
+            int pivot = -1;
+            for (int i = 0; i < cursors.length && cursors[i].document != Cursor.END; i++) {
+                bound += cursors[i].maxScore;
+                if (bound > threshold) {
+                    pivot = i;
+                    break;
+                }
+            }
+            if (pivot < 0) {
+                break;
+            }
+            int pivotDocument = cursors[pivot].document;
+            while (pivot + 1 < cursors.length && cursors[pivot + 1].document == pivotDocument) {
+                pivot++;
+            }
+            double blockBound = 0.0;
+            for (int i = 0; i <= pivot; i++) {
+                blockBound += cursors[i].blockMaxScore(pivotDocument);
+            }
+            if (blockBound > threshold) {
+                if (cursors[0].document == pivotDocument) {
+                    double score = 0.0;
+                    for (int i = 0; i <= pivot; i++) {
+                        score += cursors[i].score(documentLengths);
+                        cursors[i].next();
+                    }
+                    Movie movie = documents[pivotDocument];
+                    if (movie != null && (best.size() < limit || score > threshold)) {
+                        best.add(new SearchResult(movie, score));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                        if (best.size() == limit) {
+                            threshold = best.peek().getScore();
+                        }
+                    }
+                } else {
+                    strongest(cursors, pivot, pivotDocument).advance(pivotDocument);
+                }
+            } else {
+                // Nothing up to the end of the shortest of these blocks can make the list, so skip past it
+                int next = pivot + 1 < cursors.length ? cursors[pivot + 1].document : Cursor.END;
+                for (int i = 0; i <= pivot; i++) {
+                    next = Math.min(next, cursors[i].blockLastDocument() + 1);
+                }
+                strongest(cursors, pivot, Integer.MAX_VALUE).advance(Math.max(next, pivotDocument + 1));
+            }
+        }
+        List<SearchResult> results = new ArrayList<SearchResult>(best);
+        results.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return results;
+    }
+
+    // The highest-weighted cursor up to the pivot that is still before the given document
+    private static Cursor strongest(Cursor[] cursors, int pivot, int before) {
+        Cursor strongest = null;
+        for (int i = 0; i <= pivot; i++) {
+            if (cursors[i].document < before && (strongest == null || cursors[i].maxScore > strongest.maxScore)) {
+                strongest = cursors[i];
+            }
+        }
+        return strongest;
+    }
+
+    // Only a few cursors move per step, so insertion sort is close to linear here
+    private static void sortByDocument(Cursor[] cursors) {
+        for (int i = 1; i < cursors.length; i++) {
+            Cursor cursor = cursors[i];
+            int j = i - 1;
+            while (j >= 0 && cursors[j].document > cursor.document) {
+                cursors[j + 1] = cursors[j];
+                j--;
+            }
+            cursors[j + 1] = cursor;
+        }
+    }
+
+    // counts[0] is the weighted frequency; counts[1] records whether a typo-matchable field contained the term
+    private static int countTerms(Map<String, int[]> frequencies, String text, int weight) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (String token : tokens) {
+            int[] counts = frequencies.get(token);
+            if (counts == null) {
+                counts = new int[2];
+                frequencies.put(token, counts);
+            }
+            counts[0] += weight;
+            if (weight > DESCRIPTION_WEIGHT) {
+                counts[1] = 1;
+            }
+        }
+        return tokens.size() * weight;
+    }
+
+    private void addDeletions(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            String deletion = deleteAt(term, i);
+            List<String> sources = deletions.get(deletion);
+            if (sources == null) {
+                sources = new ArrayList<String>(1);
+                deletions.put(deletion, sources);
+            }
+            if (!sources.contains(term)) {
+                sources.add(term);
+            }
+        }
+    }
+
+    private void removeDeletions(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            String deletion = deleteAt(term, i);
+            List<String> sources = deletions.get(deletion);
+            if (sources != null) {
+                sources.remove(term);
+                if (sources.isEmpty()) {
+                    deletions.remove(deletion);
+                }
+            }
+        }
+    }
+
+    // Terms one insertion, deletion, substitution or adjacent swap away, found through shared deletions
+    private List<String> similarTerms(String token) {
+        List<String> similar = new ArrayList<String>();
+        collectSimilar(token, token, similar);
+        for (int i = 0; i < token.length(); i++) {
+            collectSimilar(token, deleteAt(token, i), similar);
+        }
+        return similar;
+    }
+
+    private void collectSimilar(String token, String variant, List<String> similar) {
+        PostingList direct = terms.get(variant);
+        if (direct != null && direct.fuzzy && !variant.equals(token) && !similar.contains(variant)) {
+            similar.add(variant);
+        }
+        List<String> sources = deletions.get(variant);
+        if (sources == null) {
+            return;
+        }
+        for (String term : sources) {
+            if (!term.equals(token) && !similar.contains(term) && withinOneEdit(token, term)) {
+                similar.add(term);
+            }
+        }
+    }
+
+    private static String deleteAt(String term, int index) {
+        return term.substring(0, index) + term.substring(index + 1);
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > 1) {
+            return false;
+        }
+        int prefix = 0;
+        int shorter = Math.min(lengthA, lengthB);
+        while (prefix < shorter && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (lengthA != lengthB) {
+            String longer = lengthA > lengthB ? a : b;
+            String other = lengthA > lengthB ? b : a;
+            return longer.regionMatches(prefix + 1, other, prefix, other.length() - prefix);
+        }
+        if (prefix == lengthA) {
+            return true;
+        }
+        if (a.regionMatches(prefix + 1, b, prefix + 1, lengthA - prefix - 1)) {
+            return true;
+        }
+        return prefix + 1 < lengthA && a.charAt(prefix) == b.charAt(prefix + 1) && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.regionMatches(prefix + 2, b, prefix + 2, lengthA - prefix - 2);
+    }
+
+    // A position in one term's postings. BM25 rises with frequency and falls with document length, so a block's
+    // largest frequency and shortest document give an upper bound for every document in it.
+    private static class Cursor {
+        static final int END = Integer.MAX_VALUE;
+
+        final PostingList postings;
+        final double weight;
+        final double averageLength;
+        final double maxScore;
+        int position;
+        int block;
+        int document;
+
+        Cursor(PostingList postings, double weight, double averageLength) {
+            this.postings = postings;
+            this.weight = weight;
+            this.averageLength = averageLength;
+            this.maxScore = bound(postings.maxFrequency(), postings.minLength());
+            this.document = postings.size() > 0 ? postings.documentAt(0) : END;
+        }
+
+        double score(int[] documentLengths) {
+            return bound(postings.frequencyAt(position), documentLengths[document]);
+        }
+
+        private double bound(int frequency, int length) {
+            double norm = K1 * (1.0 - B + B * length / averageLength);
+            return weight * frequency * (K1 + 1.0) / (frequency + norm);
+        }
+
+        // Moves the block, but not the position, to the block that would hold the target
+        double blockMaxScore(int target) {
+            block = Math.max(block, position / PostingList.BLOCK_SIZE);
+            int last = postings.blockCount() - 1;
+            while (block < last && postings.blockLastDocument(block) < target) {
+                block++;
+            }
+            return bound(postings.blockMaxFrequency(block), postings.blockMinLength(block));
+        }
+
+        int blockLastDocument() {
+            return postings.blockLastDocument(block);
+        }
+
+        void next() {
+            position++;
+            document = position < postings.size() ? postings.documentAt(position) : END;
+        }
+
+        // Gallops ahead, then binary searches, to the first posting at or after the target
+        void advance(int target) {
+            int size = postings.size();
+            int low = position;
+            int step = 1;
+            int high = position + 1;
+            while (high < size && postings.documentAt(high) < target) {
+                low = high;
+                step <<= 1;
+                high = position + step;
+            }
+            high = Math.min(high, size);
+            low++;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (postings.documentAt(middle) < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            position = low;
+            document = position < size ? postings.documentAt(position) : END;
+        }
+    }
+}
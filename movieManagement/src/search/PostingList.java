@@ -0,0 +1,117 @@
+package movieManagement.src.search;
+
+import java.util.Arrays;
+
+import movieManagement.src.movie.Movie;
+
+// Documents containing one term, in ascending document id order, with the term's weighted frequency in each.
+// Every BLOCK_SIZE postings also keep their largest frequency and shortest document, which bounds the score
+// any document in the block can get, so a query can skip whole blocks that cannot reach its top results.
+// Removed documents stay in the list until more than half of it is dead, then it is compacted in one pass.
+class PostingList {
+    static final int BLOCK_SIZE = 64;
+
+    private int[] documents;
+    private int[] frequencies;
+    private int[] blockMaxFrequency;
+    private int[] blockMinLength;
+    private int size;
+    private int dead;
+    private int maxFrequency;
+    private int minLength;
+    // Set once the term has appeared in a field that typo matching covers
+    boolean fuzzy;
+
+    PostingList() {
+        this.documents = new int[2];
+        this.frequencies = new int[2];
+        this.blockMaxFrequency = new int[1];
+        this.blockMinLength = new int[1];
+        this.minLength = Integer.MAX_VALUE;
+    }
+
+    void add(int document, int frequency, int length) {
+        if (size == documents.length) {
+            int capacity = size + (size >> 1) + 1;
+            documents = Arrays.copyOf(documents, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        documents[size] = document;
+        frequencies[size] = frequency;
+        int block = size / BLOCK_SIZE;
+        if (block == blockMaxFrequency.length) {
+            blockMaxFrequency = Arrays.copyOf(blockMaxFrequency, block * 2);
+            blockMinLength = Arrays.copyOf(blockMinLength, block * 2);
+        }
+        if (size % BLOCK_SIZE == 0) {
+            blockMaxFrequency[block] = frequency;
+            blockMinLength[block] = length;
+        } else {
+            blockMaxFrequency[block] = Math.max(blockMaxFrequency[block], frequency);
+            blockMinLength[block] = Math.min(blockMinLength[block], length);
+        }
+        maxFrequency = Math.max(maxFrequency, frequency);
+        minLength = Math.min(minLength, length);
+        size++;
+    }
+
+    // A removed document's slot in live is already null
+    void markRemoved(Movie[] live, int[] lengths) {
+        dead++;
+        if (dead * 2 <= size) {
+            return;
+        }
+        int kept = size;
+        size = 0;
+        dead = 0;
+        maxFrequency = 0;
+        minLength = Integer.MAX_VALUE;
+        // Surviving postings only move towards the front, so re-adding them in place is safe
+        for (int i = 0; i < kept; i++) {
+            int document = documents[i];
+            if (live[document] != null) {
+                add(document, frequencies[i], lengths[document]);
+            }
+        }
+    }
+
+    int documentFrequency() {
+        return size - dead;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int documentAt(int index) {
+        return documents[index];
+    }
+
+    int frequencyAt(int index) {
+        return frequencies[index];
+    }
+
+    int maxFrequency() {
+        return maxFrequency;
+    }
+
+    int minLength() {
+        return minLength;
+    }
+
+    int blockMaxFrequency(int block) {
+        return blockMaxFrequency[block];
+    }
+
+    int blockMinLength(int block) {
+        return blockMinLength[block];
+    }
+
+    int blockCount() {
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    int blockLastDocument(int block) {
+        return documents[Math.min((block + 1) * BLOCK_SIZE, size) - 1];
+    }
+}
@@ -0,0 +1,26 @@
+package movieManagement.src.search;
+
+import movieManagement.src.movie.Movie;
+
+public class SearchResult {
+    private final Movie movie;
+    private final double score;
+
+    public SearchResult(Movie movie, double score) {
+        this.movie = movie;
+        this.score = score;
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.2f)", movie.getTitle(), score);
+    }
+}
@@ -0,0 +1,35 @@
+package movieManagement.src.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits text into lowercase runs of letters and digits; everything else separates tokens
+public final class Tokenizer {
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int start = -1;
+        boolean needsLowerCase = false;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                    needsLowerCase = false;
+                }
+                needsLowerCase |= Character.isUpperCase(c);
+            } else if (start >= 0) {
+                String token = text.substring(start, i);
+                tokens.add(needsLowerCase ? token.toLowerCase() : token);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,92 @@
+package movieManagement.src.search;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import movieManagement.src.movie.Movie;
+
+// Counts events per movie over a sliding window, e.g. rentals in the last seven days. The window is a ring of
+// equal time buckets; a movie's score is its count over the live ones. When the clock passes into a new bucket
+// the oldest one expires, which only touches the movies counted in it, so each event is added once and taken
+// off once however often the board is read. The window slides a bucket at a time.
+public class WindowedLeaderboard extends Leaderboard {
+    private final Clock clock;
+    private final long bucketMillis;
+    private final List<Map<Movie, Integer>> buckets;
+    // Index of the bucket the clock was last in, counted from the epoch; written under the lock
+    private volatile long currentBucket;
+
+    public WindowedLeaderboard(Duration window, int bucketCount, Clock clock) {
+        if (window == null || clock == null || bucketCount <= 0 || window.toMillis() < bucketCount) {
+            throw new IllegalArgumentException("Window must be at least a millisecond per bucket.");
+        }
+        this.clock = clock;
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new HashMap<>());
+        }
+        this.currentBucket = bucketOf(clock.millis());
+    }
+
+    @Override
+    public List<Movie> top(int k) {
+        // Reads only lock when a bucket is due to expire
+        if (bucketOf(clock.millis()) > currentBucket) {
+            synchronized (this) {
+                slide();
+            }
+        }
+        return super.top(k);
+    }
+
+    // Counts events happening now
+    public synchronized void record(Movie movie, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative.");
+        }
+        if (count == 0) {
+            return;
+        }
+        slide();
+        buckets.get(slot(currentBucket)).merge(movie, count, Integer::sum);
+        set(movie, getScore(movie) + count);
+    }
+
+    @Override
+    synchronized void remove(Movie movie) {
+        for (Map<Movie, Integer> bucket : buckets) {
+            bucket.remove(movie);
+        }
+        super.remove(movie);
+    }
+
+    // Caller holds the lock. A clock stepping backwards keeps counting into the current bucket.
+    private void slide() {
+        long now = bucketOf(clock.millis());
+        if (now <= currentBucket) {
+            return;
+        }
+        long expired = Math.min(now - currentBucket, buckets.size());
+        for (long i = 1; i <= expired; i++) {
+            Map<Movie, Integer> bucket = buckets.get(slot(currentBucket + i));
+            for (Map.Entry<Movie, Integer> counted : bucket.entrySet()) {
+                set(counted.getKey(), getScore(counted.getKey()) - counted.getValue());
+            }
+            bucket.clear();
+        }
+        currentBucket = now;
+    }
+
+    private long bucketOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.size());
+    }
+}
@@ -2,6 +2,7 @@ package movieManagement.src.users;
 
 import java.util.List;
 import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
 import movieManagement.src.authentication.CredentialsCheck;
 import movieManagement.data.PredefinedAdmins;
 
@@ -36,4 +37,20 @@ public class Admin extends User {
             System.out.println("Movie not found in catalog: " + movie.getDisplayText());
         }
     }
+
+    public void addMovie(Movie movie, MovieCatalog movieCatalog) {
+        if (movieCatalog.add(movie)) {
+            System.out.println("Movie added to catalog: " + movie.getDisplayText());
+        } else {
+            System.out.println("Movie already exists in catalog: " + movie.getDisplayText());
+        }
+    }
+
+    public void removeMovie(Movie movie, MovieCatalog movieCatalog) {
+        if (movieCatalog.remove(movie)) {
+            System.out.println("Movie removed from catalog: " + movie.getDisplayText());
+        } else {
+            System.out.println("Movie not found in catalog: " + movie.getDisplayText());
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package movieManagement.src.users;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import movieManagement.src.movie.Movie;
@@ -15,6 +15,7 @@ import movieManagement.src.users.MembershipState;
 public class Customer extends User {
     private ArrayList<Movie> rentedMovies;
     private ArrayList<Movie> purchasedMovies;
+    // In the order they were written; each review knows its movie, so listing them never touches the catalog
     private Set<Review> reviews;
     private Membership membership;
 
@@ -22,7 +23,7 @@ public class Customer extends User {
         super(username, credential);
         this.rentedMovies = new ArrayList<>();
         this.purchasedMovies = new ArrayList<>();
-        this.reviews = new HashSet<>();
+        this.reviews = new LinkedHashSet<>();
         this.membership = new Membership();
     }
     
@@ -30,7 +31,16 @@ public class Customer extends User {
         super(username, new CredentialsCheck("defaultPass123!"));
         this.rentedMovies = new ArrayList<>();
         this.purchasedMovies = new ArrayList<>();
-        this.reviews = new HashSet<>();
+        this.reviews = new LinkedHashSet<>();
+        this.membership = new Membership();
+    }
+
+    // Rebuilds a customer whose id was issued earlier, e.g. when replaying the journal
+    public Customer(String userId, String username, CredentialsCheck credential) {
+        super(userId, username, credential);
+        this.rentedMovies = new ArrayList<>();
+        this.purchasedMovies = new ArrayList<>();
+        this.reviews = new LinkedHashSet<>();
         this.membership = new Membership();
     }
 
@@ -38,7 +48,7 @@ public class Customer extends User {
         super(username, id);
         this.rentedMovies = new ArrayList<>();
         this.purchasedMovies = new ArrayList<>();
-        this.reviews = new HashSet<>();
+        this.reviews = new LinkedHashSet<>();
         this.membership = new Membership();
     }
 
@@ -67,6 +77,18 @@ public class Customer extends User {
         checkMembershipUpgrade();
     }
     
+    // Same upgrade rules as addPurchasedMovie, applied quietly for state that is being restored
+    public void restorePurchasedMovie(Movie movie) {
+        purchasedMovies.add(movie);
+        int purchaseCount = purchasedMovies.size();
+        MembershipState currentState = membership.getState();
+        if (purchaseCount >= 3 && currentState instanceof NonMemberState) {
+            membership.restoreState(new GoldMemberState());
+        } else if (purchaseCount >= 10 && currentState instanceof GoldMemberState) {
+            membership.restoreState(new PlatinumMemberState());
+        }
+    }
+
     private void checkMembershipUpgrade() {
         int purchaseCount = purchasedMovies.size();
         MembershipState currentState = membership.getState();
@@ -12,6 +12,10 @@ public class Membership {
         System.out.println("Membership changed to: " + state.getType());
     }
 
+    public void restoreState(MembershipState state) {
+        this.state = state;
+    }
+
     public MembershipState getState() {
         return state;
     }
@@ -1,27 +1,61 @@
 package movieManagement.src.users;
 
-import java.util.UUID;
 import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.ids.IdGenerator;
+import movieManagement.src.ids.SnowflakeIdGenerator;
 
 public abstract class User {
-    private final String userId;
+    private static volatile IdGenerator idGenerator = new SnowflakeIdGenerator();
+
+    private final long id;
+    // Rendered from id on first use
+    private volatile String userId;
     private final String username;
     private CredentialsCheck credential;
 
     public User(String username, CredentialsCheck credential) {
-        this.userId = UUID.randomUUID().toString();
+        this.id = idGenerator.nextId();
+        this.username = username;
+        this.credential = credential;
+    }
+    
+    // Ids restored from older saves that were not generated keep their text form and have no numeric id
+    protected User(String userId, String username, CredentialsCheck credential) {
+        long parsed = SnowflakeIdGenerator.parse(userId);
+        this.id = parsed >= 0 ? parsed : 0L;
+        this.userId = userId;
         this.username = username;
         this.credential = credential;
     }
     
     public User(String username, Integer id) {
         this.username = username;
+        this.id = id;
         this.userId = String.valueOf(id);
         this.credential = new CredentialsCheck("defaultPass123!");
     }
 
+    public static void setIdGenerator(IdGenerator generator) {
+        if (generator == null)
+            throw new IllegalArgumentException("Id generator cannot be null.");
+        idGenerator = generator;
+    }
+
+    public static IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public long getId() {
+        return id;
+    }
+
     public String getUserId() {
-        return userId;
+        String rendered = userId;
+        if (rendered == null) {
+            rendered = SnowflakeIdGenerator.format(id);
+            userId = rendered;
+        }
+        return rendered;
     }
 
     public String getUsername() {
@@ -37,17 +71,17 @@ public abstract class User {
         if (this == obj) return true;
         if (!(obj instanceof User)) return false;
         User other = (User) obj;
-        return userId.equals(other.userId);
+        return getUserId().equals(other.getUserId());
     }
 
     @Override
     public int hashCode() {
-        return userId.hashCode();
+        return getUserId().hashCode();
     }
 
     @Override
     public String toString() {
-        return "User [userId=" + userId + ", username=" + username + "]";
+        return "User [userId=" + getUserId() + ", username=" + username + "]";
     }
 }
 
@@ -2,7 +2,7 @@ package movieManagement.test.authentication;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.ArrayList;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,13 +26,17 @@ public class AuthManagerTest {
         
         // Clear active sessions using reflection
         try {
-            java.lang.reflect.Field sessionsField = AuthManager.class.getDeclaredField("activeSessions");
-            sessionsField.setAccessible(true);
-            ArrayList<?> sessions = (ArrayList<?>) sessionsField.get(authManager);
-            sessions.clear();
+            for (String fieldName : new String[] {"activeSessions", "sessionsByUser"}) {
+                java.lang.reflect.Field sessionsField = AuthManager.class.getDeclaredField(fieldName);
+                sessionsField.setAccessible(true);
+                Map<?, ?> sessions = (Map<?, ?>) sessionsField.get(authManager);
+                sessions.clear();
+            }
         } catch (Exception e) {
             fail("Failed to clear AuthManager sessions: " + e.getMessage());
         }
+        authManager.setMaxSessionsPerUser(AuthManager.DEFAULT_MAX_SESSIONS_PER_USER);
+        authManager.setSessionTtlMillis(AuthManager.DEFAULT_SESSION_TTL_MILLIS);
         
         CredentialsCheck cred1 = new CredentialsCheck("TestPass123!");
         CredentialsCheck cred2 = new CredentialsCheck("Another123!");
@@ -217,5 +221,63 @@ public class AuthManagerTest {
         assertNotNull(foundSession);
         assertEquals(customer2, foundSession.getUser());
     }
-}
 
+    @Test
+    public void testValidateSessionByToken() {
+        AuthSession session = authManager.createSession(customer1);
+        assertSame(session, authManager.validateSession(session.getSessionToken()));
+        assertNull(authManager.validateSession(java.util.UUID.randomUUID()));
+        assertNull(authManager.validateSession(null));
+    }
+
+    @Test
+    public void testTerminateSessionByToken() {
+        AuthSession first = authManager.createSession(customer1);
+        AuthSession second = authManager.createSession(customer1);
+
+        assertTrue(authManager.terminateSession(second.getSessionToken()));
+        assertFalse(second.isActive());
+        assertFalse(authManager.terminateSession(second.getSessionToken()));
+        assertEquals(1, authManager.getActiveSessionCount());
+        assertSame(first, authManager.findSessionByUser(customer1));
+    }
+
+    @Test
+    public void testSessionCapEvictsOldestSession() {
+        authManager.setMaxSessionsPerUser(2);
+        try {
+            AuthSession oldest = authManager.createSession(customer1);
+            AuthSession middle = authManager.createSession(customer1);
+            AuthSession newest = authManager.createSession(customer1);
+
+            assertEquals(2, authManager.getActiveSessionCount());
+            assertFalse(oldest.isActive());
+            assertNull(authManager.validateSession(oldest.getSessionToken()));
+            assertSame(middle, authManager.findSessionByUser(customer1));
+            assertSame(newest, authManager.validateSession(newest.getSessionToken()));
+        } finally {
+            authManager.setMaxSessionsPerUser(AuthManager.DEFAULT_MAX_SESSIONS_PER_USER);
+        }
+    }
+
+    @Test
+    public void testExpiredSessionIsRemovedLazily() throws InterruptedException {
+        AuthSession session = authManager.createSession(customer1);
+        authManager.setSessionTtlMillis(1);
+        try {
+            Thread.sleep(5);
+            assertNull(authManager.validateSession(session.getSessionToken()));
+            assertFalse(session.isActive());
+            assertEquals(0, authManager.getActiveSessionCount());
+            assertNull(authManager.findSessionByUser(customer1));
+        } finally {
+            authManager.setSessionTtlMillis(AuthManager.DEFAULT_SESSION_TTL_MILLIS);
+        }
+    }
+
+    @Test
+    public void testSetInvalidSessionLimitsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> authManager.setMaxSessionsPerUser(0));
+        assertThrows(IllegalArgumentException.class, () -> authManager.setSessionTtlMillis(0));
+    }
+}
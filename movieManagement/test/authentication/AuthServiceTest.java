@@ -3,6 +3,8 @@ package movieManagement.test.authentication;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,10 @@ import movieManagement.src.authentication.AuthManager;
 import movieManagement.src.authentication.AuthService;
 import movieManagement.src.authentication.AuthSession;
 import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.authentication.RegistrationBatchResult;
+import movieManagement.src.authentication.RegistrationListener;
+import movieManagement.src.authentication.RegistrationRejection;
+import movieManagement.src.authentication.RegistrationRequest;
 import movieManagement.src.exceptions.InvalidCredentialException;
 import movieManagement.src.exceptions.UserNotFoundException;
 import movieManagement.src.exceptions.UsernameAlreadyTakenException;
@@ -34,13 +40,11 @@ public class AuthServiceTest {
         
         // Clear registered users (except predefined admins)
         try {
-            java.lang.reflect.Field usersField = AuthService.class.getDeclaredField("registeredUsers");
-            usersField.setAccessible(true);
-            ArrayList<?> users = (ArrayList<?>) usersField.get(authService);
-            // Keep only predefined admins (first few entries)
-            int adminCount = 3; // Based on PredefinedAdmins
-            while (users.size() > adminCount) {
-                users.remove(adminCount);
+            for (String fieldName : new String[] {"registeredUsers", "usersById"}) {
+                java.lang.reflect.Field usersField = AuthService.class.getDeclaredField(fieldName);
+                usersField.setAccessible(true);
+                Map<?, ?> users = (Map<?, ?>) usersField.get(authService);
+                users.values().removeIf(user -> !(user instanceof Admin));
             }
         } catch (Exception e) {
             // Continue if reset fails - predefined admins will remain
@@ -52,10 +56,12 @@ public class AuthServiceTest {
         // Reset AuthManager sessions
         try {
             AuthManager authManager = AuthManager.getInstance();
-            java.lang.reflect.Field sessionsField = AuthManager.class.getDeclaredField("activeSessions");
-            sessionsField.setAccessible(true);
-            ArrayList<?> sessions = (ArrayList<?>) sessionsField.get(authManager);
-            sessions.clear();
+            for (String fieldName : new String[] {"activeSessions", "sessionsByUser"}) {
+                java.lang.reflect.Field sessionsField = AuthManager.class.getDeclaredField(fieldName);
+                sessionsField.setAccessible(true);
+                Map<?, ?> sessions = (Map<?, ?>) sessionsField.get(authManager);
+                sessions.clear();
+            }
         } catch (Exception e) {
             // Continue if reset fails
         }
@@ -76,6 +82,15 @@ public class AuthServiceTest {
         assertEquals(initialCount + 1, getRegisteredUsersCount());
     }
 
+    @Test
+    public void testTakenUsernameIsNotHashed() {
+        authService.registerUser(testCustomer);
+        CredentialsCheck duplicateCredential = new CredentialsCheck("Another123!");
+        authService.registerUser(new Customer("testuser", duplicateCredential));
+        assertFalse(duplicateCredential.isProtected());
+        assertSame(testCustomer, authService.findUserById(testCustomer.getUserId()));
+    }
+
     @Test
     public void testRegisterMultipleUsers() {
         int initialCount = getRegisteredUsersCount();
@@ -183,6 +198,26 @@ public class AuthServiceTest {
         assertNull(session);
     }
 
+    @Test
+    public void testSignOutOfAnExpiredSession() throws Exception {
+        authService.registerUser(testCustomer);
+        AuthManager authManager = AuthManager.getInstance();
+        long idleTimeout = authManager.getIdleTimeoutMillis();
+        AuthSession session = authService.startSession("testuser", "TestPass123!");
+        assertEquals(testCustomer, session.getUser());
+        assertSame(session, authService.touchSession(session.getSessionToken()));
+        try {
+            authManager.setIdleTimeoutMillis(1);
+            Thread.sleep(20);
+            assertNull(authService.touchSession(session.getSessionToken()));
+        } finally {
+            authManager.setIdleTimeoutMillis(idleTimeout);
+        }
+        // Already gone, so signing out has nothing left to end
+        assertFalse(authService.signOut(session.getSessionToken()));
+        assertNull(authManager.findSessionByUser(testCustomer));
+    }
+
     @Test
     public void testSignOutUserNotFound() {
         assertThrows(UserNotFoundException.class, () -> {
@@ -376,11 +411,200 @@ public class AuthServiceTest {
         try {
             java.lang.reflect.Field usersField = AuthService.class.getDeclaredField("registeredUsers");
             usersField.setAccessible(true);
-            ArrayList<?> users = (ArrayList<?>) usersField.get(authService);
+            Map<?, ?> users = (Map<?, ?>) usersField.get(authService);
             return users.size();
         } catch (Exception e) {
             return 0;
         }
     }
-}
 
+    @Test
+    public void testFindUserById() throws Exception {
+        Customer customer = authService.registerCustomer("idlookup", "ValidPass123!");
+        assertSame(customer, authService.findUserById(customer.getUserId()));
+        assertNull(authService.findUserById("missing-id"));
+        assertNull(authService.findUserById(null));
+    }
+
+    @Test
+    public void testRegisterUserKeepsFirstUserForUsername() throws Exception {
+        Customer duplicate = new Customer("testuser", new CredentialsCheck("Other123!"));
+        authService.registerUser(testCustomer);
+        authService.registerUser(duplicate);
+        assertSame(testCustomer, authService.signIn("testuser", "TestPass123!"));
+        assertNull(authService.findUserById(duplicate.getUserId()));
+    }
+
+    @Test
+    public void testConcurrentRegistrationOfSameUsernameAdmitsOne() throws InterruptedException {
+        int threadCount = 32;
+        java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicInteger registered = new java.util.concurrent.atomic.AtomicInteger();
+        java.util.concurrent.atomic.AtomicInteger rejected = new java.util.concurrent.atomic.AtomicInteger();
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    authService.registerCustomer("racer", "ValidPass123!");
+                    registered.incrementAndGet();
+                } catch (UsernameAlreadyTakenException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    // Counted as neither
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, registered.get());
+        assertEquals(threadCount - 1, rejected.get());
+    }
+
+    @Test
+    public void testRegisteredCredentialIsStoredHashed() throws Exception {
+        Customer customer = authService.registerCustomer("hashed", "ValidPass123!");
+        assertTrue(customer.getCredential().isProtected());
+        assertNull(customer.getCredential().getValue());
+        assertSame(customer, authService.signIn("hashed", "ValidPass123!"));
+        // Second sign-in is served from the verification cache and must still reject wrong passwords
+        assertSame(customer, authService.signIn("hashed", "ValidPass123!"));
+        assertThrows(WrongPasswordException.class, () -> authService.signIn("hashed", "WrongPass123!"));
+    }
+
+    @Test
+    public void testBulkRegistrationReportsRejectionsPerRequest() throws Exception {
+        authService.registerCustomer("existing", "ValidPass123!");
+        List<RegistrationRequest> batch = new ArrayList<>();
+        batch.add(new RegistrationRequest("bulk1", "ValidPass123!"));
+        batch.add(new RegistrationRequest("bulk2", "short"));
+        batch.add(new RegistrationRequest("bulk1", "ValidPass123!"));
+        batch.add(new RegistrationRequest("existing", "ValidPass123!"));
+        batch.add(new RegistrationRequest(" ", "ValidPass123!"));
+        batch.add(new RegistrationRequest("bulk3", null));
+        batch.add(new RegistrationRequest("bulk4", "OtherPass456?"));
+
+        RegistrationBatchResult result = authService.registerCustomers(batch);
+        assertEquals(7, result.getSubmittedCount());
+        assertEquals(2, result.getRegisteredCount());
+        assertEquals(5, result.getRejectedCount());
+        List<RegistrationRejection> rejections = result.getRejections();
+        assertEquals(1, rejections.get(0).getIndex());
+        assertEquals(RegistrationRejection.Reason.INVALID_PASSWORD, rejections.get(0).getReason());
+        assertEquals(RegistrationRejection.Reason.DUPLICATE_IN_BATCH, rejections.get(1).getReason());
+        assertEquals(RegistrationRejection.Reason.USERNAME_TAKEN, rejections.get(2).getReason());
+        assertEquals(RegistrationRejection.Reason.INVALID_USERNAME, rejections.get(3).getReason());
+        assertEquals(RegistrationRejection.Reason.INVALID_PASSWORD, rejections.get(4).getReason());
+
+        Customer registered = result.getRegistered().get(0);
+        assertTrue(registered.getCredential().isProtected());
+        assertSame(registered, authService.findUserById(registered.getUserId()));
+        assertSame(registered, authService.signIn("bulk1", "ValidPass123!"));
+        assertNotNull(authService.signIn("bulk4", "OtherPass456?"));
+    }
+
+    @Test
+    public void testBulkRegistrationAcrossBatchesAndThreads() throws Exception {
+        int originalWorkFactor = CredentialsCheck.getWorkFactor();
+        CredentialsCheck.setWorkFactor(1_000);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            List<RegistrationRequest> first = new ArrayList<>();
+            List<RegistrationRequest> second = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                first.add(new RegistrationRequest("wave" + i, "ValidPass123!"));
+                // Half of the second batch overlaps the first
+                second.add(new RegistrationRequest("wave" + (i + 100), "ValidPass123!"));
+            }
+            int before = authService.getRegisteredUserCount();
+            RegistrationBatchResult[] results = new RegistrationBatchResult[2];
+            Thread other = new Thread(() -> results[1] = authService.registerCustomers(second, pool));
+            other.start();
+            results[0] = authService.registerCustomers(first, pool);
+            other.join();
+
+            assertEquals(300, results[0].getRegisteredCount() + results[1].getRegisteredCount());
+            assertEquals(100, results[0].getRejectedCount() + results[1].getRejectedCount());
+            assertEquals(before + 300, authService.getRegisteredUserCount());
+            for (RegistrationBatchResult result : results) {
+                for (RegistrationRejection rejection : result.getRejections()) {
+                    assertEquals(RegistrationRejection.Reason.USERNAME_TAKEN, rejection.getReason());
+                }
+            }
+        } finally {
+            pool.shutdown();
+            CredentialsCheck.setWorkFactor(originalWorkFactor);
+        }
+    }
+
+    @Test
+    public void testBulkRegistrationRacingSingleRegistrations() throws Exception {
+        int originalWorkFactor = CredentialsCheck.getWorkFactor();
+        CredentialsCheck.setWorkFactor(1_000);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        List<Customer> announced = java.util.Collections.synchronizedList(new ArrayList<>());
+        java.util.concurrent.atomic.AtomicInteger batches = new java.util.concurrent.atomic.AtomicInteger();
+        RegistrationListener listener = new RegistrationListener() {
+            @Override
+            public void customerRegistered(Customer customer) {
+                announced.add(customer);
+            }
+
+            @Override
+            public void customersRegistered(List<Customer> customers) {
+                batches.incrementAndGet();
+                announced.addAll(customers);
+            }
+        };
+        authService.addRegistrationListener(listener);
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<RegistrationRequest> batch = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    batch.add(new RegistrationRequest("race" + round + "-" + i, "ValidPass123!"));
+                }
+                String contested = "race" + round + "-" + (round % 50);
+                Customer[] single = new Customer[1];
+                Thread other = new Thread(() -> {
+                    try {
+                        single[0] = authService.registerCustomer(contested, "OtherPass456?");
+                    } catch (UsernameAlreadyTakenException | InvalidCredentialException e) {
+                        // The batch got there first
+                    }
+                });
+                other.start();
+                RegistrationBatchResult result = authService.registerCustomers(batch, pool);
+                other.join();
+
+                User winner = authService.findUserById(single[0] != null ? single[0].getUserId()
+                        : result.getRegistered().stream().filter(c -> c.getUsername().equals(contested)).findFirst().get().getUserId());
+                assertNotNull(winner);
+                // Exactly one side won the contested name, and the loser left nothing behind
+                assertEquals(single[0] != null ? 49 : 50, result.getRegisteredCount());
+                assertEquals(single[0] != null ? 1 : 0, result.getRejectedCount());
+                for (Customer customer : result.getRegistered()) {
+                    assertSame(customer, authService.findUserById(customer.getUserId()));
+                }
+                assertSame(winner, authService.signIn(contested, single[0] != null ? "OtherPass456?" : "ValidPass123!"));
+            }
+            // Every committed customer, from either path, was announced once for the journal
+            assertEquals(20 * 50, announced.size());
+            assertEquals(20 * 50, new java.util.HashSet<>(announced).size());
+            // Each batch reaches listeners as one call, so the journal can commit it together
+            assertEquals(20, batches.get());
+        } finally {
+            authService.removeRegistrationListener(listener);
+            pool.shutdown();
+            CredentialsCheck.setWorkFactor(originalWorkFactor);
+        }
+    }
+
+    @Test
+    public void testBulkRegistrationInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> authService.registerCustomers(null));
+        assertEquals(0, authService.registerCustomers(new ArrayList<>()).getSubmittedCount());
+    }
+}
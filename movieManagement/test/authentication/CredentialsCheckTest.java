@@ -2,10 +2,14 @@ package movieManagement.test.authentication;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.authentication.PasswordPolicy;
 import movieManagement.src.exceptions.InvalidCredentialException;
 
 public class CredentialsCheckTest {
@@ -234,5 +238,132 @@ public class CredentialsCheckTest {
             CredentialsCheck.validateCredential(cred);
         });
     }
-}
 
+    @Test
+    public void testProtectReplacesPlaintextWithHash() {
+        CredentialsCheck cred = new CredentialsCheck("Test123!");
+        assertFalse(cred.isProtected());
+        cred.protect();
+        assertTrue(cred.isProtected());
+        assertNull(cred.getValue());
+        assertNotNull(cred.fingerprint());
+        assertTrue(cred.matches("Test123!"));
+        assertFalse(cred.matches("Test123?"));
+        assertFalse(cred.matches(null));
+    }
+
+    @Test
+    public void testLengthSurvivesProtect() {
+        CredentialsCheck cred = new CredentialsCheck("Test123!");
+        cred.protect();
+        assertEquals(8, CredentialsCheck.getLength(cred));
+
+        CredentialsCheck restored = CredentialsCheck.fromStoredForm(cred.toStoredForm());
+        assertThrows(IllegalStateException.class, () -> CredentialsCheck.getLength(restored));
+        assertThrows(IllegalStateException.class, () -> new CredentialsCheck(null).protect());
+    }
+
+    @Test
+    public void testProtectUsesPerCredentialSalt() {
+        CredentialsCheck cred1 = new CredentialsCheck("Same123!");
+        CredentialsCheck cred2 = new CredentialsCheck("Same123!");
+        cred1.protect();
+        cred2.protect();
+        assertFalse(java.util.Arrays.equals(cred1.fingerprint(), cred2.fingerprint()));
+        assertFalse(cred1.equals(cred2));
+    }
+
+    @Test
+    public void testEqualsBetweenProtectedAndPlainCredential() {
+        CredentialsCheck stored = new CredentialsCheck("Test123!");
+        stored.protect();
+        assertTrue(stored.equals(new CredentialsCheck("Test123!")));
+        assertTrue(new CredentialsCheck("Test123!").equals(stored));
+        assertFalse(stored.equals(new CredentialsCheck("Other123!")));
+    }
+
+    @Test
+    public void testWorkFactorIsConfigurable() {
+        int original = CredentialsCheck.getWorkFactor();
+        try {
+            CredentialsCheck.setWorkFactor(20_000);
+            CredentialsCheck cred = new CredentialsCheck("Test123!");
+            cred.protect();
+            assertTrue(cred.matches("Test123!"));
+            // Changing the work factor later must not invalidate existing hashes
+            CredentialsCheck.setWorkFactor(30_000);
+            assertTrue(cred.matches("Test123!"));
+            assertThrows(IllegalArgumentException.class, () -> CredentialsCheck.setWorkFactor(0));
+        } finally {
+            CredentialsCheck.setWorkFactor(original);
+        }
+    }
+
+    @Test
+    public void testCalibrateWorkFactor() {
+        assertTrue(CredentialsCheck.calibrateWorkFactor(50) >= 10_000);
+        assertThrows(IllegalArgumentException.class, () -> CredentialsCheck.calibrateWorkFactor(0));
+    }
+
+
+    @Test
+    public void testValidateCredentialReportsEveryFailure() {
+        CredentialsCheck cred = new CredentialsCheck("short");
+        InvalidCredentialException exception = assertThrows(InvalidCredentialException.class, () -> {
+            CredentialsCheck.validateCredential(cred);
+        });
+        String message = exception.getMessage();
+        assertTrue(message.contains("at least 8 characters"));
+        assertTrue(message.contains("uppercase") && message.contains("digit") && message.contains("special character"));
+    }
+
+    @Test
+    public void testValidateCredentialDeniedPassword() {
+        CredentialsCheck cred = new CredentialsCheck("PASSWORD123!");
+        InvalidCredentialException exception = assertThrows(InvalidCredentialException.class, () -> {
+            CredentialsCheck.validateCredential(cred);
+        });
+        assertTrue(exception.getMessage().contains("too common"));
+    }
+
+    @Test
+    public void testDeniedEntriesFoldTheSameInAnyLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            // Turkish lowercases I to a dotless i, which String.toLowerCase() would have stored
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            PasswordPolicy policy = new PasswordPolicy(8, false, false, false, false, Arrays.asList("INDIGO12345"));
+            assertEquals(PasswordPolicy.DENIED, policy.check("indigo12345"));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    public void testPasswordPolicyIsPluggable() throws InvalidCredentialException {
+        PasswordPolicy original = CredentialsCheck.getPasswordPolicy();
+        try {
+            CredentialsCheck.setPasswordPolicy(new PasswordPolicy(12, false, true, true, false, Arrays.asList("letmein12345")));
+            CredentialsCheck.validateCredential(new CredentialsCheck("plainpass1234"));
+            InvalidCredentialException exception = assertThrows(InvalidCredentialException.class, () -> {
+                CredentialsCheck.validateCredential(new CredentialsCheck("short1234"));
+            });
+            assertTrue(exception.getMessage().contains("at least 12 characters"));
+            assertThrows(InvalidCredentialException.class, () -> {
+                CredentialsCheck.validateCredential(new CredentialsCheck("LetMeIn12345"));
+            });
+            assertThrows(IllegalArgumentException.class, () -> CredentialsCheck.setPasswordPolicy(null));
+        } finally {
+            CredentialsCheck.setPasswordPolicy(original);
+        }
+    }
+
+    @Test
+    public void testPasswordPolicyCheckBitmask() {
+        PasswordPolicy policy = PasswordPolicy.defaultPolicy();
+        assertEquals(0, policy.check("ValidPass123!"));
+        assertEquals(PasswordPolicy.TOO_SHORT, policy.check("Sh0rt!"));
+        assertEquals(PasswordPolicy.MISSING_LOWERCASE | PasswordPolicy.MISSING_SPECIAL, policy.check("UPPERCASE123"));
+        assertEquals(PasswordPolicy.DENIED, policy.check("Welcome1!"));
+    }
+}
@@ -0,0 +1,112 @@
+package movieManagement.test.authentication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.AuthManager;
+import movieManagement.src.authentication.AuthSession;
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.authentication.SessionReaper;
+import movieManagement.src.users.Customer;
+
+public class SessionReaperTest {
+
+    private AuthManager authManager;
+    private SessionReaper reaper;
+    private Customer customer1;
+    private Customer customer2;
+
+    @BeforeEach
+    public void setUp() {
+        authManager = AuthManager.getInstance();
+        try {
+            for (String fieldName : new String[] {"activeSessions", "sessionsByUser"}) {
+                java.lang.reflect.Field sessionsField = AuthManager.class.getDeclaredField(fieldName);
+                sessionsField.setAccessible(true);
+                Map<?, ?> sessions = (Map<?, ?>) sessionsField.get(authManager);
+                sessions.clear();
+            }
+        } catch (Exception e) {
+            fail("Failed to clear AuthManager sessions: " + e.getMessage());
+        }
+        reaper = new SessionReaper(authManager, 100, 64);
+        customer1 = new Customer("user1", new CredentialsCheck("TestPass123!"));
+        customer2 = new Customer("user2", new CredentialsCheck("Another123!"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reaper.stop();
+    }
+
+    @Test
+    public void testInvalidConfigurationThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new SessionReaper(authManager, 0, 64));
+        assertThrows(IllegalArgumentException.class, () -> new SessionReaper(authManager, 100, 100));
+    }
+
+    @Test
+    public void testSessionNotReapedBeforeDeadline() {
+        AuthSession session = authManager.createSession(customer1);
+        reaper.schedule(session);
+
+        assertEquals(0, reaper.advanceTo(System.currentTimeMillis() + 1000));
+        assertTrue(session.isActive());
+        assertEquals(1, authManager.getActiveSessionCount());
+        assertEquals(1, reaper.getPendingCount());
+    }
+
+    @Test
+    public void testIdleSessionReapedAfterIdleTimeout() {
+        AuthSession session = authManager.createSession(customer1);
+        reaper.schedule(session);
+
+        long afterIdle = session.getLastAccessedAt() + authManager.getIdleTimeoutMillis() + 1000;
+        assertEquals(1, reaper.advanceTo(afterIdle));
+        assertFalse(session.isActive());
+        assertEquals(0, authManager.getActiveSessionCount());
+        assertNull(authManager.findSessionByUser(customer1));
+        assertEquals(1, reaper.getReapedLastInterval());
+        assertEquals(1, reaper.getTotalReaped());
+        assertEquals(0, reaper.getPendingCount());
+    }
+
+    @Test
+    public void testTerminatedSessionIsDroppedWithoutCounting() throws Exception {
+        AuthSession session = authManager.createSession(customer1);
+        reaper.schedule(session);
+        authManager.terminateSession(customer1);
+
+        assertEquals(0, reaper.advanceTo(System.currentTimeMillis() + authManager.getSessionTtlMillis() + 1000));
+        assertEquals(0, reaper.getTotalReaped());
+        assertEquals(0, reaper.getPendingCount());
+    }
+
+    @Test
+    public void testReapedCountsPerInterval() {
+        AuthSession session1 = authManager.createSession(customer1);
+        AuthSession session2 = authManager.createSession(customer2);
+        reaper.schedule(session1);
+        reaper.schedule(session2);
+
+        long afterIdle = System.currentTimeMillis() + authManager.getIdleTimeoutMillis() + 1000;
+        assertEquals(2, reaper.advanceTo(afterIdle));
+        assertEquals(0, reaper.advanceTo(afterIdle + 100));
+        assertEquals(0, reaper.getReapedLastInterval());
+        assertEquals(2, reaper.getTotalReaped());
+    }
+
+    @Test
+    public void testStartAndStop() {
+        assertFalse(reaper.isRunning());
+        reaper.start();
+        assertTrue(reaper.isRunning());
+        reaper.stop();
+        assertFalse(reaper.isRunning());
+    }
+}
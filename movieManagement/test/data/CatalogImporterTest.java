@@ -0,0 +1,123 @@
+package movieManagement.test.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import movieManagement.data.CatalogImporter;
+import movieManagement.data.ImportProgress;
+import movieManagement.src.movie.CatalogListener;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+
+public class CatalogImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testImdbStyleTsvWithHeader() throws IOException {
+        Path path = tempDir.resolve("title.basics.tsv");
+        Files.writeString(path, "tconst\ttitleType\tprimaryTitle\toriginalTitle\tisAdult\tstartYear\tgenres\n"
+                + "tt0000001\tshort\tCarmencita\tCarmencita\t0\t1894\tDocumentary\n"
+                + "tt0000002\tshort\t\"Le clown\" et ses chiens\tSame\t0\t\\N\tAnimation\n"
+                + "\tshort\tNo id\tNo id\t0\t1900\tDrama\n");
+        MovieCatalog catalog = new MovieCatalog();
+        ImportProgress progress = CatalogImporter.forFile(path).importFile(path, catalog, null);
+
+        assertEquals(3, progress.getRowsRead());
+        assertEquals(2, progress.getMoviesAdded());
+        assertEquals(1, progress.getRejected());
+        assertTrue(progress.isFinished());
+        Movie movie = catalog.findByImdbId("tt0000001");
+        assertEquals("Carmencita", movie.getTitle());
+        assertEquals("1894", movie.getReleaseDate());
+        assertEquals(CatalogImporter.DEFAULT_PRICE, movie.getMoviePrice());
+        assertEquals(1, catalog.findByReleaseYear(1894).size());
+        assertEquals("\"Le clown\" et ses chiens", catalog.findByImdbId("tt0000002").getTitle());
+    }
+
+    @Test
+    public void testPositionalCsvWithStockAndBadRows() throws IOException {
+        String csv = "tt1,One,Dir,Studio,2001-01-01,\"Plot, with comma\",12,3,0\n"
+                + "tt2,Two,Dir,Studio,2002-01-01,Plot,not-a-price\n"
+                + "tt1,One again,Dir,Studio,2001-01-01,Plot,12\n"
+                + "\n"
+                + "tt3,Three,Dir,Studio,2003-01-01,Plot,7\n";
+        MovieCatalog catalog = new MovieCatalog();
+        ImportProgress progress = new CatalogImporter(',', true, 2, 1, 1)
+                .importFrom(new StringReader(csv), catalog, null);
+
+        assertEquals(4, progress.getRowsRead());
+        assertEquals(2, progress.getMoviesAdded());
+        assertEquals(1, progress.getDuplicates());
+        assertEquals(1, progress.getRejected());
+        assertEquals(4, progress.getBatchCount());
+        Movie movie = catalog.findByImdbId("tt1");
+        assertEquals("Plot, with comma", movie.getMovieDescription());
+        assertEquals(3, movie.getInitialRentalStock());
+        assertFalse(movie.isSalable());
+        assertEquals(Movie.DEFAULT_SALE_STOCK, catalog.findByImdbId("tt3").getInitialSaleStock());
+    }
+
+    @Test
+    public void testLargeImportReportsProgress() throws IOException {
+        StringBuilder csv = new StringBuilder("imdbId,title,director,price\n");
+        int rows = 20000;
+        for (int i = 0; i < rows; i++) {
+            csv.append("tt").append(i).append(",Title ").append(i).append(",Director ").append(i % 10).append(',').append(i % 30).append('\n');
+        }
+        MovieCatalog catalog = new MovieCatalog();
+        List<Long> reported = new ArrayList<>();
+        ImportProgress progress = new CatalogImporter(',', true, 4, 256, 5000)
+                .importFrom(new StringReader(csv.toString()), catalog, update -> reported.add(update.getRowsRead()));
+
+        assertEquals(rows, progress.getRowsRead());
+        assertEquals(rows, progress.getMoviesAdded());
+        assertEquals(rows, catalog.size());
+        assertEquals(rows / 10, catalog.findByDirector("Director 3").size());
+        assertTrue(progress.getRowsPerSecond() > 0);
+        assertTrue(reported.size() > 1);
+        assertEquals(rows, (long) reported.get(reported.size() - 1));
+    }
+
+    @Test
+    public void testCatalogFailureStopsImportInsteadOfHanging() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            csv.append("tt").append(i).append(",Title ").append(i).append('\n');
+        }
+        MovieCatalog catalog = new MovieCatalog();
+        catalog.addListener(new CatalogListener() {
+            @Override
+            public void movieAdded(Movie movie) {
+                throw new IllegalStateException("Index is full.");
+            }
+
+            @Override
+            public void movieRemoved(Movie movie) {
+            }
+        });
+        CatalogImporter importer = new CatalogImporter(',', true, 2, 1, 1);
+
+        IllegalStateException thrown = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(
+                IllegalStateException.class, () -> importer.importFrom(new StringReader(csv.toString()), catalog, null)));
+        assertEquals("Index is full.", thrown.getMessage());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CatalogImporter(',', true, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CatalogImporter(',', true).importFrom(new StringReader(""), null, null));
+    }
+}
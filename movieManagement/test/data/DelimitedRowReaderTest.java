@@ -0,0 +1,75 @@
+package movieManagement.test.data;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import movieManagement.data.DelimitedRowReader;
+
+public class DelimitedRowReaderTest {
+
+    @Test
+    public void testCsvWithQuotesAndCrLf() throws IOException {
+        String text = "tt1,\"Title, with comma\",\"He said \"\"hi\"\"\"\r\n"
+                + "tt2,\"Multi\nline\",\r\n";
+        DelimitedRowReader reader = DelimitedRowReader.csv(new StringReader(text));
+        String[] fields = new String[4];
+
+        assertEquals(3, reader.readRow(fields));
+        assertEquals("tt1", fields[0]);
+        assertEquals("Title, with comma", fields[1]);
+        assertEquals("He said \"hi\"", fields[2]);
+
+        assertEquals(3, reader.readRow(fields));
+        assertEquals("Multi\nline", fields[1]);
+        assertEquals("", fields[2]);
+
+        assertEquals(-1, reader.readRow(fields));
+        assertEquals(2, reader.getRowCount());
+    }
+
+    @Test
+    public void testTsvKeepsQuotesAndSkipsUnwantedColumns() throws IOException {
+        String text = "tt1\t\"Quoted\" title\tDrama\n" + "tt2\tNo newline at end\tComedy";
+        DelimitedRowReader reader = DelimitedRowReader.tsv(new StringReader(text));
+        String[] fields = new String[3];
+        boolean[] wanted = {true, true, false};
+
+        assertEquals(3, reader.readRow(fields, wanted));
+        assertEquals("\"Quoted\" title", fields[1]);
+        assertNull(fields[2]);
+
+        assertEquals(3, reader.readRow(fields, wanted));
+        assertEquals("tt2", fields[0]);
+        assertEquals("No newline at end", fields[1]);
+        assertEquals(-1, reader.readRow(fields, wanted));
+    }
+
+    @Test
+    public void testFieldsSpanningBufferRefills() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("id").append(i).append(",\"quoted ").append(i).append("\",plain value ").append(i).append("\r\n");
+        }
+        // A buffer smaller than one row forces every field across refills
+        DelimitedRowReader reader = new DelimitedRowReader(new StringReader(text.toString()), ',', true, 7);
+        String[] fields = new String[3];
+        for (int i = 0; i < 50; i++) {
+            assertEquals(3, reader.readRow(fields));
+            assertEquals("id" + i, fields[0]);
+            assertEquals("quoted " + i, fields[1]);
+            assertEquals("plain value " + i, fields[2]);
+        }
+        assertEquals(-1, reader.readRow(fields));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DelimitedRowReader(null, ',', true));
+        assertThrows(IllegalArgumentException.class, () -> new DelimitedRowReader(new StringReader(""), '\n', true));
+        assertThrows(IllegalArgumentException.class, () -> new DelimitedRowReader(new StringReader(""), ',', true, 0));
+    }
+}
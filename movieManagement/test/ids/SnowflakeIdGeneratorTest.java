@@ -0,0 +1,86 @@
+package movieManagement.test.ids;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.ids.SnowflakeIdGenerator;
+import movieManagement.src.users.Customer;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void testIdsIncreaseAndCarryTimeAndWorker() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        long before = System.currentTimeMillis();
+        long previous = generator.nextId();
+        // More ids than one millisecond's sequence can hold
+        for (int i = 0; i < 20000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(42, SnowflakeIdGenerator.workerOf(previous));
+        assertTrue(SnowflakeIdGenerator.timestampOf(previous) >= before);
+    }
+
+    @Test
+    public void testInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+
+    @Test
+    public void testRenderedIdsSortLikeNumbers() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        long first = generator.nextId();
+        long second = generator.nextId();
+        String firstText = SnowflakeIdGenerator.format(first);
+        String secondText = SnowflakeIdGenerator.format(second);
+        assertEquals(SnowflakeIdGenerator.RENDERED_LENGTH, firstText.length());
+        assertTrue(firstText.compareTo(secondText) < 0);
+        assertEquals(first, SnowflakeIdGenerator.parse(firstText));
+        assertEquals("000000000000000f", SnowflakeIdGenerator.format(15));
+
+        assertEquals(-1, SnowflakeIdGenerator.parse("not-an-id"));
+        assertEquals(-1, SnowflakeIdGenerator.parse("000000000000000F"));
+        assertEquals(-1, SnowflakeIdGenerator.parse("ffffffffffffffff"));
+    }
+
+    @Test
+    public void testUniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, ids.size());
+    }
+
+    @Test
+    public void testUserIdsAreRenderedFromNumericIds() {
+        Customer customer = new Customer("snowflakeuser", new CredentialsCheck("TestPass123!"));
+        assertEquals(SnowflakeIdGenerator.format(customer.getId()), customer.getUserId());
+
+        Customer restored = new Customer(customer.getUserId(), "snowflakeuser", new CredentialsCheck("TestPass123!"));
+        assertEquals(customer.getId(), restored.getId());
+        assertEquals(customer, restored);
+
+        Customer legacy = new Customer("3f2b8c1e-legacy", "legacyuser", new CredentialsCheck("TestPass123!"));
+        assertEquals("3f2b8c1e-legacy", legacy.getUserId());
+        assertEquals(0L, legacy.getId());
+    }
+}
@@ -0,0 +1,147 @@
+package movieManagement.test.movie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.MappedCopyStore;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.RentalMovieDuplicate;
+import movieManagement.src.movie.SalableMovieDuplicate;
+import movieManagement.src.users.Customer;
+
+public class MappedCopyStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MappedCopyStore store;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = MappedCopyStore.open(tempDir.resolve("inventory.copies"), 16);
+        customer = new Customer("storecustomer", new CredentialsCheck("TestPass123!"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Movie.setDefaultCopyStore(null);
+        store.close();
+    }
+
+    @Test
+    public void testAcquireAndRelease() {
+        int copy = store.allocate(MappedCopyStore.KIND_RENTAL);
+        assertEquals(MappedCopyStore.FREE, store.getStatus(copy));
+        assertEquals(MappedCopyStore.KIND_RENTAL, store.getKind(copy));
+
+        assertTrue(store.tryAcquire(copy, MappedCopyStore.RENTED, customer, 1234L));
+        assertFalse(store.tryAcquire(copy, MappedCopyStore.RENTED, customer, 5678L));
+        assertEquals(customer, store.getHolder(copy));
+        assertEquals(1234L, store.getDueDate(copy));
+
+        store.release(copy);
+        assertEquals(MappedCopyStore.FREE, store.getStatus(copy));
+        assertNull(store.getHolder(copy));
+        assertEquals(0L, store.getDueDate(copy));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> store.allocate(7));
+        assertThrows(IllegalArgumentException.class, () -> MappedCopyStore.open(tempDir.resolve("bad.copies"), 100));
+    }
+
+    @Test
+    public void testGrowsAcrossSegmentsAndInternsHolders() {
+        for (int i = 0; i < 100; i++) {
+            int copy = store.allocate(i % 2 == 0 ? MappedCopyStore.KIND_RENTAL : MappedCopyStore.KIND_SALE);
+            assertEquals(i, copy);
+            assertTrue(store.tryAcquire(copy, MappedCopyStore.SOLD, customer, 0L));
+        }
+        assertEquals(100, store.size());
+        assertEquals(MappedCopyStore.KIND_SALE, store.getKind(99));
+        assertEquals(customer, store.getHolder(77));
+        // The same customer is stored once no matter how many copies they hold
+        assertEquals(1, store.getHolderCount());
+    }
+
+    @Test
+    public void testReopenKeepsRecords() throws IOException {
+        Path path = tempDir.resolve("reopen.copies");
+        try (MappedCopyStore first = MappedCopyStore.open(path, 16)) {
+            int copy = first.allocate(MappedCopyStore.KIND_SALE);
+            first.tryAcquire(copy, MappedCopyStore.SOLD, null, 0L);
+        }
+        try (MappedCopyStore reopened = MappedCopyStore.open(path, 16)) {
+            assertEquals(1, reopened.size());
+            assertEquals(MappedCopyStore.SOLD, reopened.getStatus(0));
+            assertEquals(1, reopened.allocate(MappedCopyStore.KIND_RENTAL));
+        }
+        assertThrows(IOException.class, () -> MappedCopyStore.open(path, 32));
+    }
+
+    @Test
+    public void testOnlyOneThreadAcquiresACopy() throws InterruptedException {
+        int copy = store.allocate(MappedCopyStore.KIND_RENTAL);
+        int threads = 8;
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (store.tryAcquire(copy, MappedCopyStore.RENTED, customer, 0L)) {
+                    winners.incrementAndGet();
+                }
+            });
+            workers[i].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    public void testMovieCopiesAreViewsOverTheStore() {
+        Movie.setDefaultCopyStore(store);
+        Movie movie = new Movie("tt7654321", "Mapped", "Director", "Studio", "2024-01-01", "Plot", 20);
+        assertEquals("10 available rentable copy", movie.showAvailableRentalCopies());
+        // Stock is only a count until a copy is rented or sold
+        assertEquals(0, store.size());
+
+        assertTrue(movie.lendCopy(customer));
+        RentalMovieDuplicate rented = movie.getRentedCopyByCustomer(customer);
+        assertTrue(rented.isRented());
+        assertEquals(customer, rented.getCustomer());
+        assertTrue(rented.getDueDate() > System.currentTimeMillis());
+        assertEquals(MappedCopyStore.RENTED, store.getStatus(rented.getCopyNumber()));
+        assertEquals(1, store.size());
+
+        assertTrue(movie.returnCopy(customer));
+        assertFalse(rented.isRented());
+        assertEquals(0L, rented.getDueDate());
+
+        assertTrue(movie.buyCopy(customer));
+        SalableMovieDuplicate sold = movie.getSoldCopies().get(0);
+        assertTrue(sold.isSold());
+        assertEquals(customer, sold.getBuyer());
+        assertEquals("9 available sellable copy", movie.showAvailableSellableCopies());
+    }
+}
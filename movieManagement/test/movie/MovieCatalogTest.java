@@ -0,0 +1,356 @@
+package movieManagement.test.movie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.CatalogListener;
+import movieManagement.src.movie.CatalogPage;
+import movieManagement.src.movie.CatalogQuery;
+import movieManagement.src.movie.CatalogSort;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.movie.Review;
+import movieManagement.src.users.Customer;
+
+public class MovieCatalogTest {
+
+    private MovieCatalog catalog;
+    private Movie movie1;
+    private Movie movie2;
+    private Movie movie3;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new MovieCatalog();
+        movie1 = new Movie("tt1111111", "Movie 1", "Director A", "Studio X", "1994-09-23", "Desc 1", 15);
+        movie2 = new Movie("tt2222222", "Movie 2", "Director A", "Studio Y", "2008-07-18", "Desc 2", 18);
+        movie3 = new Movie("tt3333333", "Movie 3", "Director B", "Studio X", "1994-10-14", "Desc 3", 17);
+    }
+
+    @Test
+    public void testAddAndFindByImdbId() {
+        assertTrue(catalog.add(movie1));
+        assertSame(movie1, catalog.findByImdbId("tt1111111"));
+        assertNull(catalog.findByImdbId("tt0000000"));
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    public void testAddDuplicateImdbIdRejected() {
+        Movie duplicate = new Movie("tt1111111", "Other Title", "Other Director", "Other Studio", "2000-01-01", "Desc", 10);
+        assertTrue(catalog.add(movie1));
+        assertFalse(catalog.add(duplicate));
+        assertEquals(1, catalog.size());
+        assertSame(movie1, catalog.findByImdbId("tt1111111"));
+    }
+
+    @Test
+    public void testAddNullMovieThrows() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.add(null));
+    }
+
+    @Test
+    public void testRemove() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        assertTrue(catalog.remove(movie1));
+        assertFalse(catalog.contains(movie1));
+        assertFalse(catalog.remove(movie1));
+        assertEquals(1, catalog.size());
+        assertTrue(catalog.findByDirector("Director A").contains(movie2));
+        assertFalse(catalog.findByDirector("Director A").contains(movie1));
+    }
+
+    @Test
+    public void testFindByDirector() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        List<Movie> movies = catalog.findByDirector("Director A");
+        assertEquals(2, movies.size());
+        assertTrue(movies.contains(movie1));
+        assertTrue(movies.contains(movie2));
+        assertTrue(catalog.findByDirector("Unknown").isEmpty());
+    }
+
+    @Test
+    public void testFindByStudio() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        List<Movie> movies = catalog.findByStudio("Studio X");
+        assertEquals(2, movies.size());
+        assertTrue(movies.contains(movie1));
+        assertTrue(movies.contains(movie3));
+    }
+
+    @Test
+    public void testFindByReleaseYear() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        assertEquals(2, catalog.findByReleaseYear(1994).size());
+        assertEquals(1, catalog.findByReleaseYear(2008).size());
+        assertTrue(catalog.findByReleaseYear(1972).isEmpty());
+    }
+
+    @Test
+    public void testReleaseDateRangesAreOrderedByDate() {
+        Movie undated = new Movie("tt4444444", "Movie 4", "Director C", "Studio Z", "someday", "Desc 4", 10);
+        Movie yearOnly = new Movie("tt5555555", "Movie 5", "Director C", "Studio Z", "1999", "Desc 5", 10);
+        catalog.add(movie3);
+        catalog.add(movie2);
+        catalog.add(movie1);
+        catalog.add(undated);
+        catalog.add(yearOnly);
+        assertEquals(List.of(movie1, movie3, yearOnly), catalog.findByDecade(1994));
+        assertEquals(List.of(movie1, movie3, yearOnly), catalog.findByDecade(1990));
+        assertEquals(List.of(movie3), catalog.findReleasedBetween(LocalDate.of(1994, 10, 14), LocalDate.of(1999, 1, 1).minusDays(1)));
+        assertEquals(List.of(movie2, yearOnly), catalog.getNewReleases(LocalDate.of(2010, 1, 1), 2));
+        assertEquals(List.of(movie3, movie1), catalog.getNewReleases(LocalDate.of(1998, 12, 31), 5));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findReleasedBetween(LocalDate.of(2000, 1, 1), LocalDate.of(1999, 1, 1)));
+        assertTrue(catalog.findByReleaseYear(999_999).isEmpty());
+
+        catalog.remove(movie1);
+        assertEquals(List.of(movie3), catalog.findByReleaseYear(1994));
+    }
+
+    @Test
+    public void testGetAllMoviesKeepsInsertionOrder() {
+        catalog.add(movie3);
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.remove(movie1);
+        catalog.add(movie1);
+        List<Movie> movies = catalog.getAllMovies();
+        assertEquals(3, movies.size());
+        assertSame(movie3, movies.get(0));
+        assertSame(movie2, movies.get(1));
+        assertSame(movie1, movies.get(2));
+    }
+
+    @Test
+    public void testConcurrentAddOfSameImdbIdKeepsOneMovie() throws InterruptedException {
+        int threadCount = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                catalog.add(new Movie("tt7777777", "Movie " + index, "Director", "Studio", "2020-01-01", "Desc", 10));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, catalog.size());
+        assertEquals(1, catalog.getAllMovies().size());
+        assertEquals(1, catalog.findByDirector("Director").size());
+    }
+
+    @Test
+    public void testConcurrentAddAndRemoveKeepIndexesInStep() throws InterruptedException {
+        AtomicInteger listed = new AtomicInteger();
+        catalog.addListener(new CatalogListener() {
+            @Override
+            public void movieAdded(Movie movie) {
+                listed.incrementAndGet();
+            }
+
+            @Override
+            public void movieRemoved(Movie movie) {
+                listed.decrementAndGet();
+            }
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean adding = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 2000; i++) {
+                    if (adding) {
+                        catalog.add(new Movie("tt5555555", "Flicker", "Director C", "Studio Z", "2001-01-01", "Desc", 10));
+                    } else {
+                        catalog.remove(catalog.findByImdbId("tt5555555"));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int expected = catalog.contains(movie("tt5555555")) ? 1 : 0;
+        assertEquals(expected, catalog.size());
+        assertEquals(expected, listed.get());
+        assertEquals(expected, catalog.getAllMovies().size());
+        assertEquals(expected, catalog.findByDirector("Director C").size());
+        assertEquals(expected, catalog.findByStudio("Studio Z").size());
+        assertEquals(expected, catalog.findByReleaseYear(2001).size());
+        for (CatalogSort sort : CatalogSort.values()) {
+            assertEquals(expected, catalog.list(new CatalogQuery(sort), null).getMovies().size(), sort.name());
+        }
+    }
+
+    @Test
+    public void testRemoveWaitsForAnAddInProgress() throws InterruptedException {
+        CountDownLatch publishing = new CountDownLatch(1);
+        // Stalls inside add, after the movie is findable by id but before its other indexes are filled
+        Movie slow = new Movie("tt6666666", "Slow", "Director S", "Studio S", "2002-01-01", "Desc", 10) {
+            @Override
+            public String getDirector() {
+                if (publishing.getCount() > 0) {
+                    publishing.countDown();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getDirector();
+            }
+        };
+        Thread adder = new Thread(() -> catalog.add(slow));
+        adder.start();
+        publishing.await();
+        assertTrue(catalog.remove(movie("tt6666666")));
+        adder.join();
+        assertFalse(catalog.contains(slow));
+        assertTrue(catalog.findByDirector("Director S").isEmpty());
+        assertTrue(catalog.findByStudio("Studio S").isEmpty());
+        assertTrue(catalog.getAllMovies().isEmpty());
+        assertTrue(catalog.list(new CatalogQuery(CatalogSort.TITLE), null).getMovies().isEmpty());
+    }
+
+    private static Movie movie(String imdbId) {
+        return new Movie(imdbId, "Probe", "Director", "Studio", "2001-01-01", "Desc", 10);
+    }
+
+    @Test
+    public void testListPagesStayStableWhileMoviesAreAdded() {
+        for (int i = 0; i < 25; i++) {
+            catalog.add(new Movie("tp" + i, "Title " + (char) ('a' + (i * 7) % 25), "Director", "Studio", "2000-01-01", "Desc", 10));
+        }
+        CatalogQuery query = new CatalogQuery(CatalogSort.TITLE, false, 10);
+        CatalogPage first = catalog.list(query, null);
+        assertEquals(10, first.getMovies().size());
+        assertEquals("Title a", first.getMovies().get(0).getTitle());
+        assertEquals("Title j", first.getMovies().get(9).getTitle());
+        assertTrue(first.hasMore());
+
+        // One lands behind the cursor and is not shown, one ahead of it is picked up, and nothing repeats
+        catalog.add(new Movie("tp-early", "Title b2", "Director", "Studio", "2000-01-01", "Desc", 10));
+        catalog.add(new Movie("tp-late", "Title m2", "Director", "Studio", "2000-01-01", "Desc", 10));
+        List<String> rest = new ArrayList<>();
+        String token = first.getContinuationToken();
+        while (token != null) {
+            CatalogPage page = catalog.list(query, token);
+            for (Movie movie : page.getMovies()) {
+                rest.add(movie.getTitle());
+            }
+            token = page.getContinuationToken();
+        }
+        assertEquals(16, rest.size());
+        assertEquals("Title k", rest.get(0));
+        assertTrue(rest.contains("Title m2"));
+        assertFalse(rest.contains("Title b2"));
+        assertEquals(rest.size(), new HashSet<>(rest).size());
+        assertEquals("Title y", rest.get(rest.size() - 1));
+    }
+
+    @Test
+    public void testListSortsAndFilters() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        Movie undated = new Movie("tt4444444", "Movie 4", "Director B", "Studio Y", "unknown", "Desc 4", 15);
+        catalog.add(undated);
+
+        assertEquals(List.of(movie1, undated, movie3, movie2), catalog.list(new CatalogQuery(CatalogSort.PRICE), null).getMovies());
+        assertEquals(List.of(movie1, movie3, movie2, undated), catalog.list(new CatalogQuery(CatalogSort.RELEASE_DATE), null).getMovies());
+        assertEquals(List.of(undated, movie3, movie2, movie1), catalog.list(new CatalogQuery(CatalogSort.ADDED, true, 10), null).getMovies());
+
+        CatalogQuery filtered = new CatalogQuery(CatalogSort.RELEASE_DATE, true, 10);
+        filtered.setDirector("director a");
+        filtered.setReleaseRange(LocalDate.of(1990, 1, 1), null);
+        assertEquals(List.of(movie2, movie1), catalog.list(filtered, null).getMovies());
+        CatalogQuery cheap = new CatalogQuery(CatalogSort.PRICE);
+        cheap.setPriceRange(15, 17);
+        assertEquals(List.of(movie1, undated, movie3), catalog.list(cheap, null).getMovies());
+    }
+
+    @Test
+    public void testRatingOrderFollowsReviews() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        Customer first = new Customer("lister-a", new CredentialsCheck("TestPass123!"));
+        Customer second = new Customer("lister-b", new CredentialsCheck("TestPass123!"));
+        movie1.addReview(new Review("Fine", 6, first));
+        movie2.addReview(new Review("Great", 9, first));
+        CatalogQuery best = new CatalogQuery(CatalogSort.RATING, true, 10);
+        assertEquals(List.of(movie2, movie1, movie3), catalog.list(best, null).getMovies());
+
+        movie1.addReview(new Review("Superb", 10, second));
+        movie2.updateReview(first, "Dull on rewatch", 4);
+        assertEquals(List.of(movie1, movie2, movie3), catalog.list(best, null).getMovies());
+        best.setMinRating(5);
+        assertEquals(List.of(movie1), catalog.list(best, null).getMovies());
+
+        catalog.remove(movie1);
+        movie1.addReview(new Review("Still superb", 10, new Customer("lister-c", new CredentialsCheck("TestPass123!"))));
+        assertEquals(List.of(movie2, movie3), catalog.list(new CatalogQuery(CatalogSort.RATING, true, 10), null).getMovies());
+    }
+
+    @Test
+    public void testTopRatedWeighsTheNumberOfReviews() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        catalog.add(movie3);
+        movie1.addReview(new Review("Perfect", 10, new Customer("ranker-solo", new CredentialsCheck("TestPass123!"))));
+        for (int i = 0; i < 40; i++) {
+            movie2.addReview(new Review("Very good", 9, new Customer("ranker-" + i, new CredentialsCheck("TestPass123!"))));
+        }
+        assertEquals(List.of(movie1, movie2, movie3), catalog.list(new CatalogQuery(CatalogSort.RATING, true, 10), null).getMovies());
+        assertEquals(List.of(movie2, movie1, movie3), catalog.list(new CatalogQuery(CatalogSort.TOP_RATED, true, 10), null).getMovies());
+    }
+
+    @Test
+    public void testContinuationTokenBelongsToItsQuery() {
+        catalog.add(movie1);
+        catalog.add(movie2);
+        CatalogPage page = catalog.list(new CatalogQuery(CatalogSort.TITLE, false, 1), null);
+        assertTrue(page.hasMore());
+        assertEquals(List.of(movie2), catalog.list(new CatalogQuery(CatalogSort.TITLE, false, 1), page.getContinuationToken()).getMovies());
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog.list(new CatalogQuery(CatalogSort.PRICE, false, 1), page.getContinuationToken()));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog.list(new CatalogQuery(CatalogSort.TITLE, false, 1), "not a token!"));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogQuery(CatalogSort.TITLE, false, 0));
+    }
+}
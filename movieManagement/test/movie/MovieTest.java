@@ -4,7 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -357,6 +365,56 @@ public class MovieTest {
         assertEquals(3, reviews.size());
     }
 
+    @Test
+    public void testReviewsAreFoundByCustomerAndKeepTheirOrder() {
+        List<Customer> reviewers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Customer reviewer = new Customer("reviewer" + i, new CredentialsCheck("Pass123!"));
+            reviewers.add(reviewer);
+            assertTrue(movie.addReview(new Review("Review " + i, i % 11, reviewer)));
+        }
+        assertFalse(movie.addReview(new Review("Again", 3, reviewers.get(250))));
+        assertTrue(movie.editReview(reviewers.get(250), "Changed", 10));
+        assertEquals("Changed", movie.getReviewByCustomer(reviewers.get(250)).getComments());
+        assertNull(movie.getReviewByCustomer(customer));
+        assertFalse(movie.updateReview(customer, "Never written", 5));
+
+        List<Review> reviews = movie.getAllReviews();
+        assertEquals(500, movie.getReviewCount());
+        for (int i = 0; i < reviews.size(); i++) {
+            assertSame(reviewers.get(i), reviews.get(i).getCustomer());
+        }
+    }
+
+    @Test
+    public void testRatingAggregatesFollowAddsAndEdits() {
+        assertEquals(0.0, movie.getAverageRating());
+        assertEquals(Movie.BAYESIAN_PRIOR_RATING, movie.getBayesianRating());
+        Customer customer2 = new Customer("customer2", new CredentialsCheck("Pass123!"));
+        Customer customer3 = new Customer("customer3", new CredentialsCheck("Pass123!"));
+        assertTrue(movie.addReview(new Review("Great!", 8, customer)));
+        assertTrue(movie.addReview(new Review("Fine", 6, customer2)));
+        assertTrue(movie.addReview(new Review("Loved it", 10, customer3)));
+        assertEquals(8.0, movie.getAverageRating(), 1e-9);
+        assertEquals(8.0 / 3, movie.getRatingVariance(), 1e-9);
+
+        assertTrue(movie.updateReview(customer2, "Grew on me", 9));
+        // A rating outside the scale is refused and the old one still counts
+        assertTrue(movie.updateReview(customer3, "Too high", 11));
+        assertEquals(9.0, movie.getAverageRating(), 1e-9);
+        int[] histogram = movie.getRatingHistogram();
+        assertEquals(1, histogram[8]);
+        assertEquals(1, histogram[9]);
+        assertEquals(1, histogram[10]);
+        assertEquals(0, histogram[6]);
+        histogram[8] = 100;
+        assertEquals(1, movie.getRatingHistogram()[8]);
+
+        assertEquals((5.0 * 10 + 27) / 13, movie.getBayesianRating(), 1e-9);
+        assertEquals(9.0, movie.getBayesianRating(7.0, 0), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> movie.getBayesianRating(11, 1));
+    }
+
     @Test
     public void testDisplayReviewsEmpty() {
         outputStream.reset();
@@ -594,5 +652,221 @@ public class MovieTest {
         assertEquals("Updated review", finalReview.getComments());
         assertEquals(9, finalReview.getMovieRating());
     }
-}
 
+    @Test
+    public void testReturnedCopyBecomesAvailableAgain() {
+        RentalMovieDuplicate rentedCopy = null;
+        for (int i = 0; i < 10; i++) {
+            Customer tempCustomer = new Customer("customer" + i, new CredentialsCheck("Pass123!"));
+            movie.Lend(tempCustomer);
+            if (i == 0) {
+                rentedCopy = movie.getRentedCopyByCustomer(tempCustomer);
+                assertTrue(movie.Return(tempCustomer));
+                movie.Lend(tempCustomer);
+            }
+        }
+        assertFalse(movie.hasAvailableRentalCopy());
+        Customer firstCustomer = rentedCopy.getCustomer();
+        assertTrue(movie.Return(firstCustomer));
+        assertSame(rentedCopy, movie.getAvailableLendingCopy());
+        assertTrue(movie.showAvailableRentalCopies().startsWith("1 "));
+    }
+
+    @Test
+    public void testSameCustomerRentingTwoCopies() {
+        movie.Lend(customer);
+        movie.Lend(customer);
+        assertTrue(movie.showAvailableRentalCopies().contains("8"));
+        assertTrue(movie.Return(customer));
+        assertNotNull(movie.getRentedCopyByCustomer(customer));
+        assertTrue(movie.Return(customer));
+        assertNull(movie.getRentedCopyByCustomer(customer));
+        assertTrue(movie.showAvailableRentalCopies().contains("10"));
+    }
+
+    @Test
+    public void testAddRentalCopyAlreadyRented() {
+        RentalMovieDuplicate rentedCopy = new RentalMovieDuplicate(movie);
+        rentedCopy.rent(customer);
+        movie.addRentalCopy(rentedCopy);
+        assertTrue(movie.showAvailableRentalCopies().contains("10"));
+        assertSame(rentedCopy, movie.getRentedCopyByCustomer(customer));
+        assertTrue(movie.Return(customer));
+        assertTrue(movie.showAvailableRentalCopies().contains("11"));
+    }
+
+    @Test
+    public void testConcurrentLendNeverDoubleAllocatesCopies() throws InterruptedException {
+        int threadCount = 64;
+        int attemptsPerThread = 20;
+        for (int i = 0; i < 490; i++) {
+            movie.addRentalCopy(new RentalMovieDuplicate(movie));
+        }
+        List<Customer> renters = new ArrayList<>();
+        for (int i = 0; i < threadCount * attemptsPerThread; i++) {
+            renters.add(new Customer("renter" + i, i));
+        }
+
+        runConcurrently(threadCount, threadIndex -> {
+            for (int i = 0; i < attemptsPerThread; i++) {
+                movie.Lend(renters.get(threadIndex * attemptsPerThread + i));
+            }
+        });
+
+        Set<RentalMovieDuplicate> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Customer renter : renters) {
+            RentalMovieDuplicate copy = movie.getRentedCopyByCustomer(renter);
+            if (copy != null) {
+                assertTrue(allocated.add(copy), "Copy allocated to more than one customer");
+                assertSame(renter, copy.getCustomer());
+            }
+        }
+        assertEquals(500, allocated.size());
+        assertFalse(movie.hasAvailableRentalCopy());
+        assertTrue(movie.showAvailableRentalCopies().startsWith("0 "));
+    }
+
+    @Test
+    public void testConcurrentLendAndReturnKeepsPoolConsistent() throws InterruptedException {
+        runConcurrently(64, threadIndex -> {
+            Customer renter = new Customer("renter" + threadIndex, threadIndex);
+            for (int i = 0; i < 50; i++) {
+                movie.Lend(renter);
+                movie.Return(renter);
+            }
+        });
+        assertTrue(movie.showAvailableRentalCopies().startsWith("10 "));
+        for (int i = 0; i < 10; i++) {
+            movie.Lend(new Customer("final" + i, 1000 + i));
+        }
+        assertFalse(movie.hasAvailableRentalCopy());
+    }
+
+    @Test
+    public void testConcurrentBuyNeverSellsCopyTwice() throws InterruptedException {
+        for (int i = 0; i < 90; i++) {
+            movie.addSaleableCopy(new SalableMovieDuplicate(movie));
+        }
+        runConcurrently(64, threadIndex -> {
+            Customer buyer = new Customer("buyer" + threadIndex, threadIndex);
+            for (int i = 0; i < 5; i++) {
+                movie.Buy(buyer);
+            }
+        });
+        List<SalableMovieDuplicate> soldCopies = movie.getSoldCopies();
+        Set<SalableMovieDuplicate> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(soldCopies);
+        assertEquals(100, soldCopies.size());
+        assertEquals(100, distinct.size());
+        assertFalse(movie.isSalable());
+    }
+
+    private void runConcurrently(int threadCount, IntConsumer task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int threadIndex = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(threadIndex);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testBulkSalesAcrossHistoryChunks() {
+        List<SalableMovieDuplicate> stocked = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            SalableMovieDuplicate copy = new SalableMovieDuplicate(movie);
+            stocked.add(copy);
+            movie.addSaleableCopy(copy);
+        }
+        assertTrue(movie.showAvailableSellableCopies().startsWith("610 "));
+        for (int i = 0; i < 610; i++) {
+            movie.Buy(customer);
+        }
+        assertFalse(movie.isSalable());
+        assertEquals(610, movie.getSoldCopyCount());
+        List<SalableMovieDuplicate> soldCopies = movie.getSoldCopies();
+        assertEquals(610, soldCopies.size());
+        assertSame(stocked.get(0), soldCopies.get(10));
+        assertSame(stocked.get(599), soldCopies.get(609));
+    }
+
+    @Test
+    public void testInitialStockLevels() {
+        Movie stocked = new Movie("tt2222222", "Stocked", "Dir", "Studio", "2024-01-01", "Desc", 10, 2, 0);
+        assertEquals(2, stocked.getInitialRentalStock());
+        assertTrue(stocked.showAvailableRentalCopies().startsWith("2 "));
+        assertFalse(stocked.isSalable());
+        assertFalse(stocked.Buy(customer));
+
+        assertTrue(stocked.lendCopy(customer));
+        assertTrue(stocked.lendCopy(customer));
+        assertFalse(stocked.lendCopy(customer));
+        stocked.addRentalStock(1);
+        stocked.addSaleStock(1);
+        assertTrue(stocked.hasAvailableRentalCopy());
+        assertTrue(stocked.Buy(customer));
+        assertFalse(stocked.isSalable());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Movie("tt3333333", "Bad", "Dir", "Studio", "2024-01-01", "Desc", 10, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> stocked.addSaleStock(-1));
+    }
+
+    @Test
+    public void testPeekedCopyIsProvisionedIntoThePool() {
+        Movie stocked = new Movie("tt4444444", "Peeked", "Dir", "Studio", "2024-01-01", "Desc", 10, 1, 0);
+        RentalMovieDuplicate copy = stocked.getAvailableLendingCopy();
+        assertSame(copy, stocked.getAvailableLendingCopy());
+        assertTrue(stocked.showAvailableRentalCopies().startsWith("1 "));
+        assertTrue(stocked.lendCopy(customer));
+        assertSame(copy, stocked.getRentedCopyByCustomer(customer));
+        assertNull(stocked.getAvailableLendingCopy());
+    }
+
+    @Test
+    public void testPooledCopyRentedDirectlyComesBackOnReturn() {
+        Movie stocked = new Movie("tt4444445", "Direct", "Dir", "Studio", "2024-01-01", "Desc", 10, 1, 0);
+        Customer customer2 = new Customer("customer2", new CredentialsCheck("Pass123!"));
+        RentalMovieDuplicate copy = stocked.getAvailableLendingCopy();
+        copy.rent(customer);
+        copy.returnMovie();
+        // Still pooled when returned, so it is not counted twice
+        assertTrue(stocked.showAvailableRentalCopies().startsWith("1 "));
+
+        copy.rent(customer);
+        assertFalse(stocked.lendCopy(customer2));
+        assertTrue(stocked.showAvailableRentalCopies().startsWith("0 "));
+        copy.returnMovie();
+        assertTrue(stocked.showAvailableRentalCopies().startsWith("1 "));
+        assertTrue(stocked.lendCopy(customer2));
+        assertSame(copy, stocked.getRentedCopyByCustomer(customer2));
+    }
+
+    @Test
+    public void testReleaseDateIsParsedOnce() {
+        assertEquals(LocalDate.of(1994, 9, 23).toEpochDay(), Movie.parseReleaseDay("1994-09-23"));
+        assertEquals(LocalDate.of(1994, 9, 1).toEpochDay(), Movie.parseReleaseDay("1994-09"));
+        assertEquals(LocalDate.of(1894, 1, 1).toEpochDay(), Movie.parseReleaseDay(" 1894 "));
+        assertEquals(LocalDate.of(1904, 2, 29).toEpochDay(), Movie.parseReleaseDay("1904-02-29"));
+        for (String bad : new String[] {null, "", "1994-02-30", "1994-13-01", "1994/09/23", "94-09-23", "\\N", "199x"}) {
+            assertEquals(Movie.UNKNOWN_RELEASE_DAY, Movie.parseReleaseDay(bad), bad);
+        }
+        Movie undated = new Movie("tt5555555", "Undated", "Dir", "Studio", "TBA", "Desc", 10);
+        assertFalse(undated.hasReleaseDay());
+        assertEquals("TBA", undated.getReleaseDate());
+    }
+}
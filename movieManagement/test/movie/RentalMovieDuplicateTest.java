@@ -215,5 +215,41 @@ public class RentalMovieDuplicateTest {
         assertTrue(rentalCopy.isRented());
         assertEquals(customer, rentalCopy.getCustomer());
     }
-}
 
+    @Test
+    public void testTryRentOnlySucceedsOnce() {
+        Customer customer2 = new Customer("customer2", new CredentialsCheck("Pass123!"));
+        assertTrue(rentalCopy.tryRent(customer));
+        assertFalse(rentalCopy.tryRent(customer2));
+        assertEquals(customer, rentalCopy.getCustomer());
+        rentalCopy.returnMovie();
+        assertTrue(rentalCopy.tryRent(customer2));
+        assertEquals(customer2, rentalCopy.getCustomer());
+    }
+
+    @Test
+    public void testRenterIsVisibleAsSoonAsTheCopyIsRented() throws InterruptedException {
+        RentalMovieDuplicate[] copies = new RentalMovieDuplicate[20000];
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = new RentalMovieDuplicate(movie);
+        }
+        Thread renter = new Thread(() -> {
+            for (RentalMovieDuplicate copy : copies) {
+                copy.tryRent(customer);
+            }
+        });
+        renter.start();
+        int missing = 0;
+        for (RentalMovieDuplicate copy : copies) {
+            // Copies are never returned here, so a rented one must already name its renter
+            while (!copy.isRented()) {
+                Thread.onSpinWait();
+            }
+            if (copy.getCustomer() == null) {
+                missing++;
+            }
+        }
+        renter.join();
+        assertEquals(0, missing);
+    }
+}
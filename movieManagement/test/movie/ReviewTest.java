@@ -4,11 +4,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
 import movieManagement.src.movie.Review;
 import movieManagement.src.users.Customer;
 
@@ -36,6 +39,30 @@ public class ReviewTest {
         return outputStream.toString();
     }
 
+    @Test
+    public void testReviewKnowsTheMovieThatAcceptedIt() {
+        Movie first = new Movie("tt0000101", "First", "Director", "Studio", "2001-01-01", "Plot", 10);
+        Movie second = new Movie("tt0000102", "Second", "Director", "Studio", "2002-01-01", "Plot", 10);
+        // Identical text and rating on two movies used to be told apart only by searching the catalog
+        Review onFirst = new Review("Same words", 7, customer);
+        Review onSecond = new Review("Same words", 7, customer);
+        assertNull(onFirst.getMovie());
+        assertTrue(second.addReview(onSecond));
+        assertTrue(first.addReview(onFirst));
+        customer.addReview(onSecond);
+        customer.addReview(onFirst);
+
+        Review duplicate = new Review("Again", 3, customer);
+        assertFalse(first.addReview(duplicate));
+        assertNull(duplicate.getMovie());
+
+        List<Movie> reviewed = new ArrayList<>();
+        for (Review review : customer.getReviews()) {
+            reviewed.add(review.getMovie());
+        }
+        assertEquals(List.of(second, first), reviewed);
+    }
+
     @Test
     public void testReviewInitialization() {
         Review review = new Review("Great movie!", 8, customer);
@@ -236,6 +263,17 @@ public class ReviewTest {
         assertEquals(5, review.getMovieRating());
     }
 
+    @Test
+    public void testSetRatingOnAddedReviewMovesMovieTotals() {
+        Movie movie = new Movie("tt0000301", "Rated", "Director", "Studio", "2001-01-01", "Plot", 10);
+        Review review = new Review("Comment", 5, customer);
+        movie.addReview(review);
+        review.setRating(9);
+        assertEquals(9.0, movie.getAverageRating(), 1e-9);
+        assertEquals(1, movie.getRatingHistogram()[9]);
+        assertEquals(0, movie.getRatingHistogram()[5]);
+    }
+
     @Test
     public void testGetCustomer() {
         Review review = new Review("Comment", 8, customer);
@@ -0,0 +1,130 @@
+package movieManagement.test.movie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.Review;
+import movieManagement.src.movie.ReviewTextStore;
+import movieManagement.src.users.Customer;
+
+public class ReviewTextStoreTest {
+
+    private ReviewTextStore store;
+
+    @BeforeEach
+    public void setUp() {
+        // Small blocks so a few comments already seal and compress several of them
+        store = new ReviewTextStore(256);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Review.setDefaultTextStore(null);
+    }
+
+    @Test
+    public void testCommentsRoundTripAcrossSealedBlocks() {
+        Random random = new Random(3);
+        List<String> comments = new ArrayList<>();
+        List<Long> references = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder comment = new StringBuilder("Comment " + i + " é ü 映画 ");
+            int words = 5 + random.nextInt(i % 7 == 0 ? 200 : 20);
+            for (int w = 0; w < words; w++) {
+                comment.append("word").append(random.nextInt(50)).append(' ');
+            }
+            comments.add(comment.toString());
+            references.add(store.append(comment.toString()));
+        }
+        // Read back out of order, so blocks are inflated again after dropping out of the cache
+        for (int i = comments.size() - 1; i >= 0; i -= 3) {
+            assertEquals(comments.get(i), store.read(references.get(i)));
+        }
+        for (int i = 0; i < comments.size(); i++) {
+            assertEquals(comments.get(i), store.read(references.get(i)));
+        }
+        assertEquals(200, store.getStoredCount());
+        assertTrue(store.getCompressedBytes() < store.getStoredBytes());
+        assertNull(store.read(ReviewTextStore.NO_TEXT));
+    }
+
+    @Test
+    public void testRepeatedCommentsAreStoredOnce() {
+        String comment = "A slow burn that pays off in the last twenty minutes.";
+        long first = store.append(comment);
+        store.append("Something else entirely, and long enough to be stored.");
+        assertEquals(first, store.append(new String(comment)));
+        assertEquals(2, store.getStoredCount());
+
+        assertSame(store.intern("Great!"), store.intern(new String("Great!")));
+        assertEquals(1, store.getInlinedCount());
+        assertThrows(IllegalArgumentException.class, () -> store.append("Too short"));
+        assertThrows(IllegalArgumentException.class, () -> store.intern(comment));
+    }
+
+    @Test
+    public void testHashCollisionIsNotTakenForARepeat() throws Exception {
+        String stored = "A slow burn that pays off in the last twenty minutes.";
+        String colliding = "Nothing like the first comment, but forged to share its hashes.";
+        long storedReference = store.append(stored);
+
+        // Plant the stored comment's reference where the second one hashes to, as a real collision would
+        byte[] bytes = colliding.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        java.lang.reflect.Method hash = ReviewTextStore.class.getDeclaredMethod("hash", byte[].class);
+        java.lang.reflect.Method check = ReviewTextStore.class.getDeclaredMethod("check", byte[].class);
+        java.lang.reflect.Method slotOf = ReviewTextStore.class.getDeclaredMethod("slotOf", long.class);
+        hash.setAccessible(true);
+        check.setAccessible(true);
+        slotOf.setAccessible(true);
+        long collidingHash = (long) hash.invoke(null, (Object) bytes);
+        int slot = (int) slotOf.invoke(store, collidingHash);
+        ((long[]) field("hashes").get(store))[slot] = collidingHash;
+        ((int[]) field("checks").get(store))[slot] = (int) check.invoke(null, (Object) bytes);
+        ((long[]) field("references").get(store))[slot] = storedReference;
+
+        long reference = store.append(colliding);
+        assertNotEquals(storedReference, reference);
+        assertEquals(colliding, store.read(reference));
+        assertEquals(stored, store.read(storedReference));
+    }
+
+    private static java.lang.reflect.Field field(String name) throws NoSuchFieldException {
+        java.lang.reflect.Field field = ReviewTextStore.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    @Test
+    public void testReviewsReadCommentsFromTheStore() {
+        Review.setDefaultTextStore(store);
+        Customer customer = new Customer("storedreviewer", new CredentialsCheck("TestPass123!"));
+        Movie movie = new Movie("tt0000201", "Stored", "Director", "Studio", "2001-01-01", "Plot", 10);
+        String longComment = "Beautifully shot, though the second act drags on for far too long.";
+        Review review = new Review(longComment, 7, customer);
+        assertTrue(movie.addReview(review));
+        assertEquals(longComment, movie.getReviewByCustomer(customer).getComments());
+        assertEquals(1, store.getStoredCount());
+
+        assertTrue(movie.updateReview(customer, "Fine", 6));
+        assertEquals("Fine", review.getComments());
+        assertSame(store.intern("Fine"), review.getComments());
+        assertTrue(review.toString().contains("Comment: Fine"));
+
+        review.setComments(null);
+        assertNull(review.getComments());
+
+        // Reviews written before the store was set keep their text on the heap
+        Review.setDefaultTextStore(null);
+        Review plain = new Review(longComment, 5, customer);
+        assertEquals(longComment, plain.getComments());
+    }
+}
@@ -109,8 +109,9 @@ public class SalableMovieDuplicateTest {
     @Test
     public void testCopyIdFormat() {
         String copyId = saleCopy.getCopyId();
-        // UUID format: 8-4-4-4-12 hexadecimal characters
-        assertTrue(copyId.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}"));
+        // Time-ordered id rendered as 16 lowercase hexadecimal characters
+        assertTrue(copyId.matches("[0-9a-f]{16}"));
+        assertEquals(saleCopy.getId(), Long.parseUnsignedLong(copyId, 16));
     }
 
     @Test
@@ -131,5 +132,24 @@ public class SalableMovieDuplicateTest {
         assertTrue(copy2.isSold());
         assertTrue(copy3.isSold());
     }
-}
 
+    @Test
+    public void testTrySellOnlySucceedsOnce() {
+        SalableMovieDuplicate copy = new SalableMovieDuplicate(movie);
+        assertTrue(copy.trySell(customer));
+        assertFalse(copy.trySell(customer));
+        assertTrue(copy.isSold());
+    }
+
+    @Test
+    public void testBuyerIsKeptAfterSale() {
+        SalableMovieDuplicate copy = new SalableMovieDuplicate(movie);
+        assertNull(copy.getBuyer());
+        assertTrue(copy.trySell(customer));
+        assertEquals(customer, copy.getBuyer());
+
+        SalableMovieDuplicate other = new SalableMovieDuplicate(movie);
+        other.sold(customer);
+        assertEquals(customer, other.getBuyer());
+    }
+}
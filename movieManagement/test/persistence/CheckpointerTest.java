@@ -0,0 +1,259 @@
+package movieManagement.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.payment.PaymentTransaction;
+import movieManagement.src.persistence.Checkpointer;
+import movieManagement.src.persistence.EventJournal;
+import movieManagement.src.persistence.EventType;
+import movieManagement.src.persistence.JournalEvent;
+import movieManagement.src.persistence.SnapshotState;
+import movieManagement.src.users.Customer;
+
+public class CheckpointerTest {
+
+    private static final String CREDENTIAL = "10000$" + Base64.getEncoder().encodeToString(new byte[16]) + "$"
+            + Base64.getEncoder().encodeToString(new byte[32]);
+
+    @TempDir
+    Path tempDir;
+
+    private AuthService authService;
+    private List<String> createdUsers;
+
+    @BeforeEach
+    public void setUp() {
+        authService = AuthService.getInstance();
+        createdUsers = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (String suffix : createdUsers) {
+            forgetUser("snap-user-" + suffix, "snap-" + suffix);
+        }
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        Path journalPath = tempDir.resolve("history.journal");
+        try (EventJournal journal = EventJournal.open(journalPath, null)) {
+            journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tt0000001", "Title", "Director", "Studio", "2001-01-01", "Plot", "14"));
+            journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-a", "snap-user-a", CREDENTIAL));
+            journal.append(new JournalEvent(EventType.COPY_RENTED, "tt0000001", "snap-a"));
+            journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0000001", "snap-a", "7", "Nice"));
+            journal.append(new JournalEvent(EventType.PAYMENT_COMPLETED, "TXN-1", "14.0", "FPS"));
+        }
+        SnapshotState state = new SnapshotState();
+        EventJournal.open(journalPath, state::apply).close();
+        // Events the snapshot already covers are ignored
+        EventJournal.open(journalPath, state::apply).close();
+
+        Path path = tempDir.resolve("state.snapshot");
+        state.writeTo(path);
+        SnapshotState loaded = SnapshotState.readFrom(path);
+        assertEquals(5, loaded.getSequence());
+        assertEquals(1, loaded.getMovieCount());
+        assertEquals(1, loaded.getCustomerCount());
+        assertEquals(1, loaded.getTransactionCount());
+
+        createdUsers.add("a");
+        MovieCatalog catalog = new MovieCatalog();
+        List<PaymentTransaction> transactions = new ArrayList<>();
+        loaded.restoreInto(catalog, authService, transactions);
+        Movie movie = catalog.findByImdbId("tt0000001");
+        assertEquals("9 available rentable copy", movie.showAvailableRentalCopies());
+        Customer customer = (Customer) authService.findUserById("snap-a");
+        assertEquals(1, customer.getRentedMovies().size());
+        assertEquals("Nice", movie.getReviewByCustomer(customer).getComments());
+        assertEquals(1, transactions.size());
+    }
+
+    @Test
+    public void testStockLevelsSurviveSnapshot() throws IOException {
+        Path journalPath = tempDir.resolve("stock.journal");
+        try (EventJournal journal = EventJournal.open(journalPath, null)) {
+            journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tt0000004", "Stocked", "Director", "Studio", "2001-01-01", "Plot", "14", "3", "0"));
+            journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0000004"));
+        }
+        SnapshotState state = new SnapshotState();
+        EventJournal.open(journalPath, state::apply).close();
+        Path path = tempDir.resolve("stock.snapshot");
+        state.writeTo(path);
+
+        MovieCatalog catalog = new MovieCatalog();
+        SnapshotState.readFrom(path).restoreInto(catalog, authService, new ArrayList<>());
+        Movie movie = catalog.findByImdbId("tt0000004");
+        assertEquals("4 available rentable copy", movie.showAvailableRentalCopies());
+        assertFalse(movie.isSalable());
+    }
+
+    @Test
+    public void testRentalCountsSurviveSnapshot() throws IOException {
+        Path journalPath = tempDir.resolve("rentals.journal");
+        try (EventJournal journal = EventJournal.open(journalPath, null)) {
+            journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tt0000005", "Popular", "Director", "Studio", "2001-01-01", "Plot", "14"));
+            journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-d", "snap-user-d", CREDENTIAL));
+            journal.append(new JournalEvent(EventType.COPY_RENTED, "tt0000005", "snap-d"));
+            journal.append(new JournalEvent(EventType.COPY_RETURNED, "tt0000005", "snap-d"));
+            journal.append(new JournalEvent(EventType.COPY_RENTED, "tt0000005", "snap-d"));
+        }
+        SnapshotState state = new SnapshotState();
+        EventJournal.open(journalPath, state::apply).close();
+        Path path = tempDir.resolve("rentals.snapshot");
+        state.writeTo(path);
+
+        createdUsers.add("d");
+        MovieCatalog catalog = new MovieCatalog();
+        SnapshotState.readFrom(path).restoreInto(catalog, authService, new ArrayList<>());
+        Movie movie = catalog.findByImdbId("tt0000005");
+        // One copy is still out, and lending it again during the restore is not counted twice
+        assertEquals(2, movie.getRentalCount());
+        assertEquals("9 available rentable copy", movie.showAvailableRentalCopies());
+    }
+
+    @Test
+    public void testReviewOrderSurvivesSnapshot() throws IOException {
+        Path journalPath = tempDir.resolve("reviews.journal");
+        try (EventJournal journal = EventJournal.open(journalPath, null)) {
+            journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tt0000006", "First", "Director", "Studio", "2001-01-01", "Plot", "14"));
+            journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tt0000007", "Second", "Director", "Studio", "2001-01-01", "Plot", "14"));
+            journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-e", "snap-user-e", CREDENTIAL));
+            journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-f", "snap-user-f", CREDENTIAL));
+            // Written in the opposite order to the one the movies are listed in
+            journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0000007", "snap-e", "6", "Later movie first"));
+            journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0000007", "snap-f", "5", "Second on this one"));
+            journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0000006", "snap-f", "4", "First from f"));
+            journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0000006", "snap-e", "8", "Earlier movie second"));
+        }
+        SnapshotState state = new SnapshotState();
+        EventJournal.open(journalPath, state::apply).close();
+        Path path = tempDir.resolve("reviews.snapshot");
+        state.writeTo(path);
+
+        createdUsers.add("e");
+        createdUsers.add("f");
+        MovieCatalog catalog = new MovieCatalog();
+        SnapshotState.readFrom(path).restoreInto(catalog, authService, new ArrayList<>());
+        Customer customer = (Customer) authService.findUserById("snap-e");
+        List<String> reviewed = new ArrayList<>();
+        customer.getReviews().forEach(review -> reviewed.add(review.getMovie().getImdbId()));
+        assertEquals(List.of("tt0000007", "tt0000006"), reviewed);
+        Movie first = catalog.findByImdbId("tt0000006");
+        assertEquals("snap-f", first.getAllReviews().get(0).getCustomer().getUserId());
+    }
+
+    @Test
+    public void testCorruptSnapshotIsRejected() throws IOException {
+        SnapshotState state = SnapshotState.baseline(Collections.singletonList(
+                new Movie("tt0000002", "Title", "Director", "Studio", "2001-01-01", "Plot", 14)));
+        Path path = tempDir.resolve("corrupt.snapshot");
+        state.writeTo(path);
+        assertEquals(1, SnapshotState.readFrom(path).getMovieCount());
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(20);
+            file.write('X');
+        }
+        assertThrows(IOException.class, () -> SnapshotState.readFrom(path));
+    }
+
+    @Test
+    public void testCheckpointCompactsJournalAndRecoversTail() throws IOException {
+        Path snapshotPath = tempDir.resolve("movies.snapshot");
+        Path journalPath = tempDir.resolve("movies.journal");
+        Movie baseline = new Movie("tt0000003", "Base", "Director", "Studio", "1999-01-01", "Plot", 10);
+        createdUsers.add("b");
+        createdUsers.add("c");
+
+        Checkpointer checkpointer = new Checkpointer(snapshotPath, journalPath, Collections.singletonList(baseline));
+        EventJournal journal = checkpointer.recover(new MovieCatalog(), authService, new ArrayList<>());
+        journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-b", "snap-user-b", CREDENTIAL));
+        journal.append(new JournalEvent(EventType.COPY_RENTED, "tt0000003", "snap-b"));
+        journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0000003"));
+        long journalSize = Files.size(journalPath);
+
+        assertEquals(3, checkpointer.checkpoint());
+        assertEquals(0, Files.size(journalPath));
+        assertEquals(journalSize, checkpointer.getLastReclaimedBytes());
+        // Nothing new since the last checkpoint
+        assertEquals(3, checkpointer.checkpoint());
+        // The next checkpoint folds the tail into the state it already holds instead of reading the file back
+        Files.write(snapshotPath, new byte[] { 1, 2, 3, 4, 5 });
+        assertEquals(4, journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0000003")));
+        assertEquals(4, checkpointer.checkpoint());
+        assertEquals(4, SnapshotState.readFrom(snapshotPath).getSequence());
+
+        // Traffic after the checkpoint lands in the tail and keeps counting from the snapshot
+        assertEquals(5, journal.append(new JournalEvent(EventType.CUSTOMER_REGISTERED, "snap-c", "snap-user-c", CREDENTIAL)));
+        assertEquals(6, journal.append(new JournalEvent(EventType.COPY_SOLD, "tt0000003", "snap-c")));
+        journal.close();
+
+        forgetUser("snap-user-b", "snap-b");
+        forgetUser("snap-user-c", "snap-c");
+        MovieCatalog catalog = new MovieCatalog();
+        Checkpointer restarted = new Checkpointer(snapshotPath, journalPath, Collections.singletonList(baseline));
+        try (EventJournal recovered = restarted.recover(catalog, authService, new ArrayList<>())) {
+            assertEquals(2, recovered.getReplayedCount());
+            assertEquals(7, recovered.append(new JournalEvent(EventType.SALE_COPY_ADDED, "tt0000003")));
+        }
+        Movie movie = catalog.findByImdbId("tt0000003");
+        assertEquals("11 available rentable copy", movie.showAvailableRentalCopies());
+        assertEquals(1, movie.getSoldCopyCount());
+        assertEquals(1, ((Customer) authService.findUserById("snap-b")).getRentedMovies().size());
+        assertEquals(1, ((Customer) authService.findUserById("snap-c")).getPurchasedMovies().size());
+    }
+
+    @Test
+    public void testCheckpointRunsAlongsideAppends() throws Exception {
+        Path snapshotPath = tempDir.resolve("live.snapshot");
+        Path journalPath = tempDir.resolve("live.journal");
+        Checkpointer checkpointer = new Checkpointer(snapshotPath, journalPath, Collections.emptyList());
+        int total = 2000;
+        try (EventJournal journal = checkpointer.recover(new MovieCatalog(), authService, new ArrayList<>())) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < total; i++) {
+                    journal.append(new JournalEvent(EventType.MOVIE_ADDED, "tl" + i, "T", "D", "S", "2000-01-01", "P", "1"));
+                }
+            });
+            writer.start();
+            while (writer.isAlive()) {
+                checkpointer.checkpoint();
+            }
+            writer.join();
+            assertEquals(total, checkpointer.checkpoint());
+        }
+        assertEquals(total, SnapshotState.readFrom(snapshotPath).getMovieCount());
+        assertEquals(0, Files.size(journalPath));
+    }
+
+    private void forgetUser(String username, String userId) {
+        try {
+            for (String fieldName : new String[] {"registeredUsers", "usersById"}) {
+                java.lang.reflect.Field field = AuthService.class.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                Map<?, ?> users = (Map<?, ?>) field.get(authService);
+                users.remove(fieldName.equals("registeredUsers") ? username : userId);
+            }
+        } catch (Exception e) {
+            fail("Failed to reset AuthService: " + e.getMessage());
+        }
+    }
+}
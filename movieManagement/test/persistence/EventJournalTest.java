@@ -0,0 +1,244 @@
+package movieManagement.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import movieManagement.src.authentication.AuthService;
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.movie.Review;
+import movieManagement.src.payment.PaymentServiceFactory;
+import movieManagement.src.payment.PaymentTransaction;
+import movieManagement.src.persistence.EventJournal;
+import movieManagement.src.persistence.EventType;
+import movieManagement.src.persistence.JournalEvent;
+import movieManagement.src.persistence.JournalReplayer;
+import movieManagement.src.users.Customer;
+import movieManagement.src.users.User;
+
+public class EventJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        Path path = tempDir.resolve("events.journal");
+        try (EventJournal journal = EventJournal.open(path, null)) {
+            assertEquals(1, journal.append(new JournalEvent(EventType.COPY_RENTED, "tt0111161", "user-1")));
+            assertEquals(2, journal.append(new JournalEvent(EventType.REVIEW_ADDED, "tt0111161", "user-1", "9", "Très bien")));
+        }
+
+        List<JournalEvent> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(path, replayed::add)) {
+            assertEquals(2, journal.getReplayedCount());
+            assertEquals(2, journal.getLastSequence());
+            assertEquals(3, journal.append(new JournalEvent(EventType.COPY_RETURNED, "tt0111161", "user-1")));
+        }
+        assertEquals(EventType.COPY_RENTED, replayed.get(0).getType());
+        assertEquals(1, replayed.get(0).getSequence());
+        assertEquals("Très bien", replayed.get(1).getField(3));
+        assertEquals(4, replayed.get(1).getFieldCount());
+    }
+
+    @Test
+    public void testTornTailIsTruncated() throws IOException {
+        Path path = tempDir.resolve("torn.journal");
+        try (EventJournal journal = EventJournal.open(path, null)) {
+            journal.append(new JournalEvent(EventType.SALE_COPY_ADDED, "tt0068646"));
+            journal.append(new JournalEvent(EventType.SALE_COPY_ADDED, "tt0468569"));
+        }
+        long intactLength = Files.size(path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // A crash halfway through writing a third record
+            file.seek(intactLength);
+            file.writeInt(40);
+            file.writeInt(12345);
+            file.write(new byte[10]);
+        }
+
+        List<JournalEvent> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(path, replayed::add)) {
+            assertEquals(2, replayed.size());
+            assertEquals(intactLength, Files.size(path));
+            journal.append(new JournalEvent(EventType.SALE_COPY_ADDED, "tt0109830"));
+        }
+        replayed.clear();
+        try (EventJournal journal = EventJournal.open(path, replayed::add)) {
+            assertEquals(3, replayed.size());
+            assertEquals(3, journal.getReplayedCount());
+            assertEquals("tt0109830", replayed.get(2).getField(0));
+        }
+    }
+
+    @Test
+    public void testCorruptRecordStopsReplay() throws IOException {
+        Path path = tempDir.resolve("corrupt.journal");
+        try (EventJournal journal = EventJournal.open(path, null)) {
+            journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0068646"));
+            journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0468569"));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write('X');
+        }
+
+        List<JournalEvent> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(path, replayed::add)) {
+            assertEquals(1, replayed.size());
+            assertEquals(1, journal.getLastSequence());
+            assertEquals("tt0068646", replayed.get(0).getField(0));
+        }
+    }
+
+    @Test
+    public void testConcurrentAppendsShareBatches() throws Exception {
+        Path path = tempDir.resolve("group.journal");
+        int threadCount = 16;
+        int eventsPerThread = 200;
+        try (EventJournal journal = EventJournal.open(path, null)) {
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                String customerId = "user-" + t;
+                threads[t] = new Thread(() -> {
+                    List<CompletableFuture<Long>> pending = new ArrayList<>();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        pending.add(journal.appendAsync(new JournalEvent(EventType.COPY_RENTED, "tt" + i, customerId)));
+                    }
+                    for (CompletableFuture<Long> durable : pending) {
+                        durable.join();
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(threadCount * eventsPerThread, journal.getEventCount());
+            assertTrue(journal.getBatchCount() < journal.getEventCount());
+        }
+
+        List<JournalEvent> replayed = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(path, replayed::add)) {
+            assertEquals(threadCount * eventsPerThread, replayed.size());
+            assertEquals(threadCount * eventsPerThread, journal.getReplayedCount());
+            for (int i = 0; i < replayed.size(); i++) {
+                assertEquals(i + 1, replayed.get(i).getSequence());
+            }
+        }
+    }
+
+    @Test
+    public void testWriterFailureFailsAppendsInsteadOfHanging() throws IOException {
+        Path path = tempDir.resolve("broken.journal");
+        JournalEvent unwritable = new JournalEvent(EventType.MOVIE_ADDED, "tt0068646") {
+            @Override
+            public EventType getType() {
+                throw new IllegalStateException("cannot encode");
+            }
+        };
+        try (EventJournal journal = EventJournal.open(path, null)) {
+            CompletableFuture<Long> first = journal.appendAsync(unwritable);
+            assertThrows(IllegalStateException.class, () -> journal.append(unwritable));
+            assertThrows(CompletionException.class, first::join);
+            // Broken for good: later appends fail at once rather than queue behind a dead writer
+            assertThrows(IllegalStateException.class,
+                    () -> journal.append(new JournalEvent(EventType.RENTAL_COPY_ADDED, "tt0068646")));
+        }
+    }
+
+    @Test
+    public void testAppendAfterCloseThrows() throws IOException {
+        EventJournal journal = EventJournal.open(tempDir.resolve("closed.journal"), null);
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append(new JournalEvent(EventType.COPY_SOLD, "tt1", "user-1")));
+        assertThrows(IllegalArgumentException.class, () -> new JournalEvent(EventType.COPY_SOLD, "tt1", null));
+    }
+
+    @Test
+    public void testReplayerRebuildsState() throws Exception {
+        int originalWorkFactor = CredentialsCheck.getWorkFactor();
+        CredentialsCheck.setWorkFactor(10_000);
+        Path path = tempDir.resolve("state.journal");
+        AuthService authService = AuthService.getInstance();
+        String username = "journal-" + System.nanoTime();
+        String customerId = null;
+        try {
+            try (EventJournal journal = EventJournal.open(path, null)) {
+                MovieCatalog catalog = new MovieCatalog();
+                Movie movie = new Movie("tt9000001", "Journal Movie", "Director", "Studio", "2020-01-01", "Description", 12);
+                catalog.add(movie);
+                journal.append(JournalEvent.movieAdded(movie));
+
+                Customer customer = authService.registerCustomer(username, "Journal123!");
+                customerId = customer.getUserId();
+                journal.append(JournalEvent.customerRegistered(customer));
+
+                movie.lendCopy(customer);
+                journal.append(JournalEvent.copyRented(movie, customer));
+                PaymentTransaction transaction = PaymentServiceFactory.createPaymentTransaction("TXN-journal-1", 12, "FPS");
+                journal.append(JournalEvent.paymentCompleted(transaction, "FPS"));
+                journal.append(JournalEvent.copySold(movie, customer));
+                journal.append(JournalEvent.paymentRefunded(transaction));
+                journal.append(JournalEvent.reviewAdded(movie, new Review("Great", 8, customer)));
+                journal.append(new JournalEvent(EventType.REVIEW_EDITED, movie.getImdbId(), customerId, "6", "Good"));
+            }
+            // Simulate a restart: the directory forgets the customer, the catalog starts empty
+            removeUser(authService, username, customerId);
+
+            MovieCatalog catalog = new MovieCatalog();
+            List<PaymentTransaction> transactions = new ArrayList<>();
+            JournalReplayer replayer = new JournalReplayer(catalog, authService, transactions);
+            try (EventJournal journal = EventJournal.open(path, replayer)) {
+                assertEquals(8, journal.getReplayedCount());
+            }
+            assertEquals(8, replayer.getAppliedCount());
+            assertEquals(0, replayer.getSkippedCount());
+
+            Movie movie = catalog.findByImdbId("tt9000001");
+            assertNotNull(movie);
+            User user = authService.findUserById(customerId);
+            assertTrue(user instanceof Customer);
+            Customer customer = (Customer) user;
+            assertTrue(customer.getCredential().matches("Journal123!"));
+            assertEquals(1, customer.getRentedMovies().size());
+            assertEquals(1, customer.getPurchasedMovies().size());
+            assertEquals("9 available rentable copy", movie.showAvailableRentalCopies());
+            assertEquals(1, movie.getSoldCopyCount());
+            Review review = movie.getReviewByCustomer(customer);
+            assertEquals("Good", review.getComments());
+            assertEquals(6, review.getMovieRating());
+            assertEquals(1, transactions.size());
+            assertTrue(transactions.get(0).isPaymentCompleted());
+            assertTrue(transactions.get(0).isRefundCompleted());
+        } finally {
+            CredentialsCheck.setWorkFactor(originalWorkFactor);
+        }
+        removeUser(authService, username, customerId);
+    }
+
+    private static void removeUser(AuthService authService, String username, String userId) {
+        try {
+            java.lang.reflect.Field byName = AuthService.class.getDeclaredField("registeredUsers");
+            byName.setAccessible(true);
+            ((java.util.Map<?, ?>) byName.get(authService)).remove(username);
+            java.lang.reflect.Field byId = AuthService.class.getDeclaredField("usersById");
+            byId.setAccessible(true);
+            ((java.util.Map<?, ?>) byId.get(authService)).remove(userId);
+        } catch (Exception e) {
+            fail("Failed to reset AuthService: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package movieManagement.test.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.search.AutocompleteIndex;
+import movieManagement.src.search.Completion;
+import movieManagement.src.users.Customer;
+
+public class AutocompleteIndexTest {
+
+    private MovieCatalog catalog;
+    private AutocompleteIndex index;
+    private Customer customer;
+    private Movie darkKnight;
+    private Movie darkCity;
+    private Movie inception;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new MovieCatalog();
+        index = new AutocompleteIndex();
+        index.attach(catalog);
+        customer = new Customer("typeahead", new CredentialsCheck("TestPass123!"));
+        darkKnight = new Movie("tt0468569", "The Dark Knight", "Christopher Nolan", "Warner Bros.", "2008-07-18", "Batman.", 18);
+        darkCity = new Movie("tt0118929", "Dark City", "Alex Proyas", "New Line", "1998-02-27", "Amnesia.", 12);
+        inception = new Movie("tt1375666", "Inception", "Christopher Nolan", "Warner Bros.", "2010-07-16", "Dreams.", 19);
+        catalog.add(darkKnight);
+        catalog.add(darkCity);
+        catalog.add(inception);
+    }
+
+    @Test
+    public void testCompletesTitlesAndDirectorsFromAnyWord() {
+        assertEquals(List.of("The Dark Knight", "Dark City"), texts(index.complete("dark", 10)));
+        assertEquals(List.of("The Dark Knight"), texts(index.complete("  THE dark-kn", 10)));
+        assertEquals(List.of("The Dark Knight"), texts(index.complete("knight", 10)));
+        List<Completion> directors = index.complete("nol", 10);
+        assertEquals(1, directors.size());
+        assertEquals(Completion.Kind.DIRECTOR, directors.get(0).getKind());
+        assertEquals("Christopher Nolan", directors.get(0).getText());
+        assertNull(directors.get(0).getMovie());
+        assertTrue(index.complete("darkk", 10).isEmpty());
+    }
+
+    @Test
+    public void testRanksByRentalsAsTheyHappen() {
+        rent(darkCity, 3);
+        assertEquals(List.of("Dark City", "The Dark Knight"), texts(index.complete("dark", 10)));
+        rent(darkKnight, 4);
+        assertEquals(List.of("The Dark Knight", "Dark City"), texts(index.complete("dark", 10)));
+        // A director scores the rentals of all their movies
+        rent(inception, 1);
+        List<Completion> top = index.complete("", 1);
+        assertEquals("Christopher Nolan", top.get(0).getText());
+        assertEquals(5, top.get(0).getPopularity());
+    }
+
+    @Test
+    public void testFillsAReusableArray() {
+        Completion[] results = new Completion[1];
+        assertEquals(1, index.complete("d", results));
+        Completion first = results[0];
+        assertEquals(1, index.complete("d", results));
+        assertSame(first, results[0]);
+        assertEquals(0, index.complete("zz", results));
+        assertThrows(IllegalArgumentException.class, () -> index.complete("d", null));
+        assertThrows(IllegalArgumentException.class, () -> index.complete("d", 0));
+    }
+
+    @Test
+    public void testRemovalBringsTheNextBestIntoTheList() {
+        List<Movie> sequels = new ArrayList<>();
+        for (int i = 0; i < AutocompleteIndex.MAX_COMPLETIONS + 5; i++) {
+            Movie sequel = new Movie("tx" + i, "Sequel " + i, "Director " + i, "Studio", "2000-01-01", "More.", 10);
+            catalog.add(sequel);
+            rent(sequel, i);
+            sequels.add(sequel);
+        }
+        assertEquals("Sequel 14", index.complete("sequel", 10).get(0).getText());
+        catalog.remove(sequels.get(14));
+        catalog.remove(sequels.get(13));
+        List<Completion> results = index.complete("sequel", 10);
+        assertEquals(10, results.size());
+        assertEquals("Sequel 12", results.get(0).getText());
+        assertEquals("Sequel 3", results.get(9).getText());
+        assertTrue(index.complete("director 14", 10).isEmpty());
+        assertEquals(16, index.size());
+    }
+
+    @Test
+    public void testCachedListsMatchAFullScan() {
+        // Shared word stems force node splits and merges as titles come and go
+        String[] words = {"star", "stars", "start", "war", "wars", "ward", "night", "knight", "nights"};
+        Random random = new Random(7);
+        List<Movie> live = new ArrayList<>();
+        for (int step = 0; step < 600; step++) {
+            int action = random.nextInt(4);
+            if (action <= 1 || live.isEmpty()) {
+                String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                Movie movie = new Movie("tr" + step, title, "Director " + random.nextInt(5), "Studio", "2000-01-01", "Plot", 10, 2, 0);
+                catalog.add(movie);
+                live.add(movie);
+            } else if (action == 2) {
+                Movie movie = live.get(random.nextInt(live.size()));
+                rent(movie, 1 + random.nextInt(3));
+            } else {
+                catalog.remove(live.remove(random.nextInt(live.size())));
+            }
+        }
+        for (String prefix : new String[] {"", "s", "star", "stars ", "war", "wa", "n", "knight ni", "director", "director 3"}) {
+            List<Completion> results = index.complete(prefix, AutocompleteIndex.MAX_COMPLETIONS);
+            List<Integer> expected = expectedPopularity(prefix, live);
+            List<Integer> actual = new ArrayList<>();
+            for (Completion completion : results) {
+                actual.add(completion.getPopularity());
+            }
+            assertEquals(expected, actual, prefix);
+        }
+    }
+
+    // Popularity of the best matches found by brute force over everything still in the catalog
+    private List<Integer> expectedPopularity(String prefix, List<Movie> live) {
+        String normalized = prefix.trim().toLowerCase();
+        List<Integer> scores = new ArrayList<>();
+        Map<String, Integer> directors = new HashMap<>();
+        for (Movie movie : darkAndLive(live)) {
+            if (matches(movie.getTitle().toLowerCase(), normalized)) {
+                scores.add(movie.getRentalCount());
+            }
+            directors.merge(movie.getDirector(), movie.getRentalCount(), Integer::sum);
+        }
+        for (Map.Entry<String, Integer> director : directors.entrySet()) {
+            if (matches(director.getKey().toLowerCase(), normalized)) {
+                scores.add(director.getValue());
+            }
+        }
+        scores.sort((a, b) -> b - a);
+        return scores.subList(0, Math.min(AutocompleteIndex.MAX_COMPLETIONS, scores.size()));
+    }
+
+    private List<Movie> darkAndLive(List<Movie> live) {
+        List<Movie> all = new ArrayList<>(live);
+        all.add(darkKnight);
+        all.add(darkCity);
+        all.add(inception);
+        return all;
+    }
+
+    private static boolean matches(String name, String prefix) {
+        if (name.startsWith(prefix)) {
+            return true;
+        }
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            if (name.startsWith(prefix, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rent(Movie movie, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(movie.lendCopy(customer));
+            assertTrue(movie.returnCopy(customer));
+        }
+    }
+
+    private static List<String> texts(List<Completion> completions) {
+        List<String> texts = new ArrayList<>();
+        for (Completion completion : completions) {
+            texts.add(completion.getText());
+        }
+        return texts;
+    }
+}
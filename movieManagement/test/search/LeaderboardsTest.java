@@ -0,0 +1,173 @@
+package movieManagement.test.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.movie.Review;
+import movieManagement.src.search.Leaderboards;
+import movieManagement.src.search.WindowedLeaderboard;
+import movieManagement.src.users.Customer;
+
+public class LeaderboardsTest {
+
+    private MovieCatalog catalog;
+    private TestClock clock;
+    private Leaderboards leaderboards;
+    private Customer customer;
+    private Movie alien;
+    private Movie brazil;
+    private Movie casablanca;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new MovieCatalog();
+        clock = new TestClock(Instant.parse("2024-03-04T10:00:00Z"));
+        leaderboards = new Leaderboards(clock);
+        leaderboards.attach(catalog);
+        customer = new Customer("charts", new CredentialsCheck("TestPass123!"));
+        alien = new Movie("tt0078748", "Alien", "Ridley Scott", "20th Century Fox", "1979-05-25", "In space.", 12);
+        brazil = new Movie("tt0088846", "Brazil", "Terry Gilliam", "Embassy", "1985-02-20", "Paperwork.", 10);
+        casablanca = new Movie("tt0034583", "Casablanca", "Michael Curtiz", "Warner Bros.", "1942-11-26", "Gin joints.", 9);
+        catalog.add(alien);
+        catalog.add(brazil);
+        catalog.add(casablanca);
+    }
+
+    @Test
+    public void testBoardsFollowRentalsSalesAndReviews() {
+        assertTrue(leaderboards.getMostRented(3).isEmpty());
+        rent(brazil, 2);
+        rent(alien, 2);
+        rent(casablanca, 1);
+        // Equal counts keep the movie that got there first on top
+        assertEquals(List.of(brazil, alien, casablanca), leaderboards.getMostRented(3));
+        rent(alien, 1);
+        assertEquals(List.of(alien, brazil), leaderboards.getMostRented(2));
+
+        assertTrue(casablanca.buyCopy(customer));
+        assertEquals(List.of(casablanca), leaderboards.getBestSelling(3));
+        assertEquals(List.of(casablanca), leaderboards.getBestSellingThisWeek(3));
+
+        casablanca.addReview(new Review("Classic", 10, customer));
+        for (int i = 0; i < 30; i++) {
+            alien.addReview(new Review("Tense", 9, new Customer("critic" + i, new CredentialsCheck("TestPass123!"))));
+        }
+        // One perfect review does not beat thirty very good ones, and unreviewed movies are left off
+        assertEquals(List.of(alien, casablanca), leaderboards.getTopRated(3));
+        casablanca.updateReview(customer, "Dated", 1);
+        assertEquals(List.of(alien, casablanca), leaderboards.getTopRated(3));
+
+        catalog.remove(alien);
+        assertEquals(List.of(brazil, casablanca), leaderboards.getMostRented(3));
+        assertEquals(List.of(casablanca), leaderboards.getTopRated(3));
+        assertEquals(List.of(brazil, casablanca), leaderboards.getMostRentedThisWeek(3));
+    }
+
+    @Test
+    public void testLateEventsDoNotRankARemovedMovie() {
+        rent(alien, 2);
+        assertTrue(alien.buyCopy(customer));
+        alien.addReview(new Review("Tense", 9, customer));
+        assertEquals(List.of(alien), leaderboards.getTopRated(3));
+        catalog.remove(alien);
+        // Notifications that were already on their way when the movie left the catalog
+        rent(alien, 1);
+        leaderboards.movieRented(alien);
+        leaderboards.movieSold(alien);
+        leaderboards.movieReviewed(alien);
+        assertTrue(leaderboards.getMostRented(3).isEmpty());
+        assertTrue(leaderboards.getMostRentedThisWeek(3).isEmpty());
+        assertTrue(leaderboards.getBestSelling(3).isEmpty());
+        assertTrue(leaderboards.getBestSellingThisWeek(3).isEmpty());
+        assertTrue(leaderboards.getTopRated(3).isEmpty());
+    }
+
+    @Test
+    public void testWeeklyBoardsForgetOldActivity() {
+        rent(alien, 3);
+        clock.advance(Duration.ofDays(3));
+        rent(brazil, 2);
+        assertEquals(List.of(alien, brazil), leaderboards.getMostRentedThisWeek(3));
+
+        clock.advance(Duration.ofDays(4).plusHours(1));
+        assertEquals(List.of(brazil), leaderboards.getMostRentedThisWeek(3));
+        assertEquals(List.of(alien, brazil), leaderboards.getMostRented(3));
+
+        clock.advance(Duration.ofDays(30));
+        assertTrue(leaderboards.getMostRentedThisWeek(3).isEmpty());
+        rent(casablanca, 1);
+        assertEquals(List.of(casablanca), leaderboards.getMostRentedThisWeek(3));
+    }
+
+    @Test
+    public void testAttachingCountsHistoryAsAllTimeOnly() {
+        rent(alien, 2);
+        Leaderboards late = new Leaderboards(clock);
+        late.attach(catalog);
+        assertEquals(List.of(alien), late.getMostRented(3));
+        assertTrue(late.getMostRentedThisWeek(3).isEmpty());
+        rent(brazil, 1);
+        assertEquals(List.of(brazil), late.getMostRentedThisWeek(3));
+        assertThrows(IllegalArgumentException.class, () -> late.getTopRated(0));
+    }
+
+    @Test
+    public void testWindowedBoardCountsInBuckets() {
+        WindowedLeaderboard board = new WindowedLeaderboard(Duration.ofHours(4), 4, clock);
+        board.record(alien, 5);
+        clock.advance(Duration.ofHours(2));
+        board.record(brazil, 3);
+        board.record(alien, 1);
+        assertEquals(6, board.getScore(alien));
+        clock.advance(Duration.ofHours(2));
+        assertEquals(List.of(brazil, alien), board.top(5));
+        assertEquals(1, board.getScore(alien));
+        assertThrows(IllegalArgumentException.class, () -> board.record(alien, -1));
+    }
+
+    private void rent(Movie movie, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(movie.lendCopy(customer));
+            assertTrue(movie.returnCopy(customer));
+        }
+    }
+
+    private static class TestClock extends Clock {
+        private Instant now;
+
+        private TestClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
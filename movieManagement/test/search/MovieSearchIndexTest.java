@@ -0,0 +1,139 @@
+package movieManagement.test.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import movieManagement.src.authentication.CredentialsCheck;
+import movieManagement.src.movie.Movie;
+import movieManagement.src.movie.MovieCatalog;
+import movieManagement.src.search.MovieSearchIndex;
+import movieManagement.src.search.SearchResult;
+import movieManagement.src.search.Tokenizer;
+import movieManagement.src.users.Admin;
+
+public class MovieSearchIndexTest {
+
+    private MovieCatalog catalog;
+    private MovieSearchIndex index;
+    private Movie darkKnight;
+    private Movie inception;
+    private Movie matrix;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new MovieCatalog();
+        darkKnight = new Movie("tt0468569", "The Dark Knight", "Christopher Nolan", "Warner Bros.", "2008-07-18",
+                "Batman faces the Joker in Gotham.", 18);
+        inception = new Movie("tt1375666", "Inception", "Christopher Nolan", "Warner Bros.", "2010-07-16",
+                "A thief who steals secrets through dreams.", 19);
+        matrix = new Movie("tt0133093", "The Matrix", "Lana Wachowski", "Warner Bros.", "1999-03-31",
+                "A hacker learns the dark truth about his reality.", 16);
+        catalog.add(darkKnight);
+        index = new MovieSearchIndex();
+        index.attach(catalog);
+        catalog.add(inception);
+        catalog.add(matrix);
+    }
+
+    @Test
+    public void testTokenizer() {
+        assertEquals(List.of("the", "lord", "of", "the", "rings", "2003"), Tokenizer.tokenize("The Lord-of the RINGS (2003)"));
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+        assertTrue(Tokenizer.tokenize(" ,.!").isEmpty());
+    }
+
+    @Test
+    public void testRanksTitleMatchesAboveDescriptionMatches() {
+        List<SearchResult> results = index.search("dark", 10);
+        assertEquals(2, results.size());
+        assertSame(darkKnight, results.get(0).getMovie());
+        assertSame(matrix, results.get(1).getMovie());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals(1, index.search("dark", 1).size());
+    }
+
+    @Test
+    public void testSearchesDirectorsAndStudios() {
+        assertEquals(2, index.search("nolan", 10).size());
+        assertEquals(3, index.search("warner", 10).size());
+        assertSame(matrix, index.search("wachowski", 10).get(0).getMovie());
+    }
+
+    @Test
+    public void testLastWordMatchesAsPrefix() {
+        assertSame(inception, index.search("incep", 10).get(0).getMovie());
+        assertSame(darkKnight, index.search("dark kni", 10).get(0).getMovie());
+        // Only the last word is a prefix
+        assertTrue(index.search("incep thief", 10).stream().allMatch(r -> r.getMovie() == inception));
+    }
+
+    @Test
+    public void testTyposMatchWithinOneEdit() {
+        assertSame(matrix, index.search("matirx", 10).get(0).getMovie());
+        assertSame(inception, index.search("inceptoin", 10).get(0).getMovie());
+        assertSame(darkKnight, index.search("knigt the", 10).get(0).getMovie());
+        assertTrue(index.search("zzzz", 10).isEmpty());
+    }
+
+    @Test
+    public void testFollowsCatalogAddsAndRemoves() {
+        Admin admin = new Admin("searchadmin", new CredentialsCheck("AdminPass123!"));
+        Movie memento = new Movie("tt0209144", "Memento", "Christopher Nolan", "Newmarket", "2000-10-11", "Memory loss.", 12);
+        admin.addMovie(memento, catalog);
+        assertEquals(4, index.size());
+        assertSame(memento, index.search("memento", 10).get(0).getMovie());
+        assertEquals(3, index.search("nolan", 10).size());
+
+        admin.removeMovie(memento, catalog);
+        assertEquals(3, index.size());
+        assertTrue(index.search("memento", 10).isEmpty());
+        assertTrue(index.search("memnto", 10).isEmpty());
+        assertEquals(2, index.search("nolan", 10).size());
+
+        // Adding the same title twice is ignored
+        assertFalse(index.add(inception));
+    }
+
+    @Test
+    public void testRemovingManyMoviesKeepsResultsCorrect() {
+        for (int i = 0; i < 50; i++) {
+            catalog.add(new Movie("tx" + i, "Sequel " + i, "Director", "Studio", "2000-01-01", "More of the same.", 10));
+        }
+        assertEquals(50, index.search("sequel", 100).size());
+        for (int i = 0; i < 40; i++) {
+            catalog.remove(catalog.findByImdbId("tx" + i));
+        }
+        List<SearchResult> results = index.search("sequel", 100);
+        assertEquals(10, results.size());
+        assertTrue(results.stream().allMatch(r -> r.getMovie().getImdbId().compareTo("tx4") >= 0));
+    }
+
+    @Test
+    public void testSkippingBlocksKeepsTheSameTopResults() {
+        // Enough postings per term for whole blocks to be skipped, with a few strong matches scattered among them
+        for (int i = 0; i < 2000; i++) {
+            String title = i % 97 == 0 ? "Harbor Harbor Lights" : "Harbor Story " + i;
+            String description = i % 3 == 0 ? "Lights over the harbor at night." : "A quiet town.";
+            catalog.add(new Movie("ty" + i, title, "Director " + (i % 7), "Studio", "2000-01-01", description, 10));
+        }
+        for (String query : new String[] {"harbor", "harbor lights", "lights", "harbor li", "harbr"}) {
+            List<SearchResult> top = index.search(query, 10);
+            List<SearchResult> all = index.search(query, Integer.MAX_VALUE);
+            assertEquals(10, top.size(), query);
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(all.get(i).getScore(), top.get(i).getScore(), 1e-9, query);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("dark", 0));
+        assertTrue(index.search(null, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.add(null));
+    }
+}
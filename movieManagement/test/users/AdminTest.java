@@ -6,6 +6,7 @@ import movieManagement.src.movie.Movie;
 import java.util.List;
 import java.util.ArrayList;
 
+import movieManagement.src.movie.MovieCatalog;
 import movieManagement.src.users.Admin;
 
 public class AdminTest {
@@ -87,5 +88,24 @@ public class AdminTest {
         assertTrue(movieCatalog.contains(movie1));
         assertTrue(movieCatalog.contains(movie2));
     }
-}
 
+    @Test
+    public void testAddAndRemoveMovieWithCatalog() {
+        Admin admin = Admin.getInstance();
+        MovieCatalog movieCatalog = new MovieCatalog();
+
+        Movie movie = new Movie("tt1234567", "Test Movie", "Test Director", "Test Studio", "2024-01-01", "Test Description", 25);
+        Movie sameImdbId = new Movie("tt1234567", "Other Movie", "Other Director", "Other Studio", "2024-01-02", "Other Description", 30);
+
+        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
+        System.setOut(new java.io.PrintStream(outContent));
+
+        admin.addMovie(movie, movieCatalog);
+        admin.addMovie(sameImdbId, movieCatalog);
+        assertEquals(1, movieCatalog.size());
+        assertTrue(outContent.toString().contains("Movie already exists in catalog: " + sameImdbId.getDisplayText()));
+
+        admin.removeMovie(movie, movieCatalog);
+        assertFalse(movieCatalog.contains(movie));
+    }
+}